@@ -82,6 +82,14 @@ document.addEventListener("DOMContentLoaded", () => {
     // ELIMINADA LA VALIDACIÓN DE TOKEN - Ahora cualquiera puede hacer pedidos
     if (carrito.length === 0) { alert("El carrito está vacío."); return; }
 
+    // Misma clave en todos los reintentos de este carrito: el backend responde
+    // con el pedido ya creado en lugar de duplicarlo
+    let idempotencyKey = sessionStorage.getItem("pedidoIdempotencyKey");
+    if (!idempotencyKey) {
+      idempotencyKey = crypto.randomUUID();
+      sessionStorage.setItem("pedidoIdempotencyKey", idempotencyKey);
+    }
+
     const data = {
       nombre: document.getElementById("nombre").value,
       telefono: document.getElementById("telefono").value,
@@ -94,7 +102,7 @@ document.addEventListener("DOMContentLoaded", () => {
       // CAMBIADO A ENDPOINT PÚBLICO: /api/public/pedidos (sin autenticación)
       const res = await fetch(`${API_BASE}/public/pedidos`, {
         method: "POST",
-        headers: { "Content-Type": "application/json" },
+        headers: { "Content-Type": "application/json", "Idempotency-Key": idempotencyKey },
         body: JSON.stringify(data)
       });
 
@@ -107,6 +115,7 @@ document.addEventListener("DOMContentLoaded", () => {
 
       alert("✅ Pedido enviado correctamente");
       localStorage.removeItem("carrito");
+      sessionStorage.removeItem("pedidoIdempotencyKey");
       carrito = [];
       mostrarCarrito();
     } catch (err) {
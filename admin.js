@@ -35,7 +35,56 @@ function verificarSesion() {
   }
 }
 
-function cerrarSesion() {
+// fetch con el access token; si venció (401/403) lo renueva una vez con el refresh token
+async function fetchAutenticado(url, opciones = {}) {
+  const conToken = () => ({
+    ...opciones,
+    headers: { ...(opciones.headers || {}), "Authorization": `Bearer ${localStorage.getItem("token")}` }
+  });
+  let response = await fetch(url, conToken());
+  if ((response.status === 401 || response.status === 403) && await renovarToken()) {
+    response = await fetch(url, conToken());
+  }
+  return response;
+}
+
+async function renovarToken() {
+  const refreshToken = localStorage.getItem("refreshToken");
+  if (!refreshToken) return false;
+  try {
+    const response = await fetch(`${API_URL}/auth/refresh`, {
+      method: "POST",
+      headers: { "Content-Type": "application/json" },
+      body: JSON.stringify({ refreshToken })
+    });
+    if (!response.ok) {
+      localStorage.removeItem("refreshToken");
+      return false;
+    }
+    const data = await response.json();
+    localStorage.setItem("token", data.token);
+    localStorage.setItem("refreshToken", data.refreshToken);
+    return true;
+  } catch (error) {
+    console.error("Error al renovar la sesión:", error);
+    return false;
+  }
+}
+
+async function cerrarSesion() {
+  try {
+    // Revoca el access token y la sesión del refresh token en el backend
+    await fetch(`${API_URL}/auth/logout`, {
+      method: "POST",
+      headers: {
+        "Authorization": `Bearer ${localStorage.getItem("token")}`,
+        "Content-Type": "application/json"
+      },
+      body: JSON.stringify({ refreshToken: localStorage.getItem("refreshToken") })
+    });
+  } catch (error) {
+    console.error("Error al cerrar sesión en el servidor:", error);
+  }
   localStorage.clear();
   alert("✅ Sesión cerrada correctamente");
   window.location.href = "login.html";
@@ -51,14 +100,8 @@ function configurarEventos() {
 
 async function cargarPedidos() {
   try {
-    const token = localStorage.getItem("token");
-    
     // Try authenticated endpoint first
-    let response = await fetch(`${API_URL}/pedidos`, {
-      headers: {
-        "Authorization": `Bearer ${token}`
-      }
-    });
+    let response = await fetchAutenticado(`${API_URL}/pedidos`);
 
     if (!response.ok) {
       // Fallback to public endpoint
@@ -224,13 +267,11 @@ async function cambiarEstado(pedidoId, nuevoEstado) {
   if (!confirm(confirmMsg)) return;
 
   try {
-    const token = localStorage.getItem("token");
-    const response = await fetch(
+    const response = await fetchAutenticado(
       `${API_URL}/pedidos/${pedidoId}/estado?estado=${nuevoEstado}`,
       {
         method: "PUT",
         headers: {
-          "Authorization": `Bearer ${token}`,
           "Content-Type": "application/json"
         }
       }
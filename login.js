@@ -43,6 +43,9 @@ function validarCredenciales(username, password) {
 // Guardar datos de sesión
 function guardarSesion(userData) {
   localStorage.setItem("token", userData.token);
+  if (userData.refreshToken) {
+    localStorage.setItem("refreshToken", userData.refreshToken);
+  }
   localStorage.setItem("username", userData.username);
   localStorage.setItem("role", userData.role);
   localStorage.setItem("isLoggedIn", "true");
@@ -65,7 +68,7 @@ async function loginBackend(username, password) {
       throw new Error(data.error || "Error en el inicio de sesión");
     }
 
-    return data.data; // { username, role, token }
+    return data.data; // { username, role, token, refreshToken, expiresIn }
   } catch (error) {
     console.error("Error en login:", error);
     throw error;
@@ -3,6 +3,7 @@ package com.example.backend;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
 import com.example.backend.model.Usuario;
@@ -14,14 +15,20 @@ public class DataInitializer {
     @Bean
     CommandLineRunner init(UsuarioRepository repo, BCryptPasswordEncoder encoder) {
         return args -> {
-            if (!repo.existsByUsername("admin")) {
-                Usuario admin = new Usuario("admin", encoder.encode("admin123"), "ROLE_ADMIN");
-                repo.save(admin);
-            }
-            if (!repo.existsByUsername("cliente")) {
-                Usuario c = new Usuario("cliente", encoder.encode("cliente123"), "ROLE_USER");
-                repo.save(c);
-            }
+            crearSiNoExiste(repo, new Usuario("admin", encoder.encode("admin123"), "ROLE_ADMIN"));
+            crearSiNoExiste(repo, new Usuario("cliente", encoder.encode("cliente123"), "ROLE_USER"));
         };
     }
-}
\ No newline at end of file
+
+    // Con BD compartida otro nodo puede crearlo entre la consulta y el INSERT
+    private static void crearSiNoExiste(UsuarioRepository repo, Usuario usuario) {
+        if (repo.existsByUsername(usuario.getUsername())) {
+            return;
+        }
+        try {
+            repo.save(usuario);
+        } catch (DataIntegrityViolationException e) {
+            // Ya lo creó otro nodo
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.backend.repository.EventoInvalidacionRepository;
+import com.example.backend.service.BusInvalidacion;
+import com.example.backend.service.BusInvalidacionJdbc;
+import com.example.backend.service.BusInvalidacionLocal;
+
+/**
+ * Implementación del bus de invalidación según app.cache.bus.type.
+ *
+ * Se elige al arrancar y no con @ConditionalOnProperty: la imagen se
+ * construye con AOT (perfil fast-start), que evalúa las condiciones al
+ * compilar con el perfil prod. Con una condición, prod,cluster seguiría
+ * usando el bus local y los nodos no se invalidarían entre sí.
+ */
+@Configuration
+public class BusInvalidacionConfig {
+
+    @Bean
+    public BusInvalidacion busInvalidacion(@Value("${app.cache.bus.type:local}") String tipo,
+                                           @Value("${app.cache.bus.poll-interval-ms:1000}") long intervaloSondeoMs,
+                                           @Value("${app.cache.bus.batch-size:500}") int tamanoLote,
+                                           @Value("${app.cache.bus.gap-wait-ms:2000}") long esperaHuecoMs,
+                                           @Value("${app.cache.bus.retention-minutes:10}") long retencionMinutos,
+                                           EventoInvalidacionRepository eventoRepository) {
+        switch (tipo) {
+            case "local":
+                return new BusInvalidacionLocal();
+            case "jdbc":
+                BusInvalidacionJdbc bus = new BusInvalidacionJdbc(eventoRepository, intervaloSondeoMs,
+                        tamanoLote, esperaHuecoMs, retencionMinutos);
+                bus.iniciar();
+                return bus;
+            default:
+                throw new IllegalStateException("app.cache.bus.type desconocido: " + tipo + " (local | jdbc)");
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.backend.config;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import com.example.backend.service.ProductoService;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Política de caché HTTP para los GET del catálogo.
+ *
+ * - Con validadores (catálogo): ETag y Last-Modified según la versión del
+ *   catálogo; si el cliente ya tiene esa versión se responde 304 antes de
+ *   llegar al controlador (sin consultar la BD ni serializar)
+ * - Sin validadores (proxies de Google Script): solo Cache-Control; el ETag
+ *   lo calcula ShallowEtagHeaderFilter a partir del cuerpo
+ */
+public class CachePolicyInterceptor implements HandlerInterceptor {
+
+  private final ProductoService productoService;
+  private final String cacheControl;
+  private final boolean validadoresCatalogo;
+
+  public CachePolicyInterceptor(ProductoService productoService, String cacheControl, boolean validadoresCatalogo) {
+    this.productoService = productoService;
+    this.cacheControl = cacheControl;
+    this.validadoresCatalogo = validadoresCatalogo;
+  }
+
+  @Override
+  public boolean preHandle(HttpServletRequest req, HttpServletResponse res, Object handler) {
+    if (!"GET".equals(req.getMethod()) && !"HEAD".equals(req.getMethod())) {
+      return true;
+    }
+    res.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+    if (!validadoresCatalogo) {
+      return true;
+    }
+    ServletWebRequest webRequest = new ServletWebRequest(req, res);
+    // Escribe ETag / Last-Modified y, si coinciden con los del cliente, el 304
+    return !webRequest.checkNotModified(productoService.etagCatalogo(), productoService.catalogoModificadoEn());
+  }
+}
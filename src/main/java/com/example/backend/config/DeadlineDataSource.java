@@ -0,0 +1,62 @@
+package com.example.backend.config;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import com.example.backend.service.Deadline;
+
+/**
+ * DataSource que aplica el deadline de la solicitud a cada sentencia JDBC.
+ *
+ * Al preparar una sentencia con un deadline activo (ver service.Deadline):
+ * - si el presupuesto ya se agotó falla antes de ir a la BD
+ * - si no, fija setQueryTimeout con lo que queda, redondeado hacia arriba
+ *   a segundos (la granularidad de JDBC); el driver cancela la consulta al vencer
+ * Sin deadline (hilos de fondo, rutas sin presupuesto) no toca la sentencia.
+ */
+public class DeadlineDataSource extends DelegatingDataSource {
+
+    public DeadlineDataSource(DataSource destino) {
+        super(destino);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return envolverConexion(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return envolverConexion(super.getConnection(username, password));
+    }
+
+    private Connection envolverConexion(Connection conexion) {
+        return (Connection) Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class<?>[] {Connection.class},
+                (proxy, metodo, args) -> {
+                    String nombre = metodo.getName();
+                    boolean creaSentencia = nombre.startsWith("prepare") || "createStatement".equals(nombre);
+                    if (creaSentencia && Deadline.activo()) {
+                        Deadline.verificar("consulta a la base de datos");
+                    }
+                    Object resultado;
+                    try {
+                        resultado = metodo.invoke(conexion, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                    if (creaSentencia && resultado instanceof Statement sentencia && Deadline.activo()) {
+                        long restante = Deadline.restanteMs();
+                        sentencia.setQueryTimeout((int) Math.max(1, (restante + 999) / 1000));
+                    }
+                    return resultado;
+                });
+    }
+}
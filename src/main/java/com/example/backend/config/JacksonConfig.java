@@ -0,0 +1,28 @@
+package com.example.backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.backend.dto.ResponseJsonSerializers;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+
+/**
+ * Serialización JSON de las respuestas.
+ * Spring Boot registra en su ObjectMapper cualquier bean de tipo Module.
+ */
+@Configuration
+public class JacksonConfig {
+
+    /**
+     * Serializadores sin reflexión para ResponseDTO, PedidoDTO y ProductoDTO
+     * (app.json.lean-serializers=false vuelve a la serialización por reflexión).
+     * Se decide al arrancar, no con @ConditionalOnProperty: AOT fijaría el
+     * valor de la propiedad al construir la imagen.
+     */
+    @Bean
+    Module responseJsonSerializers(@Value("${app.json.lean-serializers:true}") boolean habilitado) {
+        return habilitado ? ResponseJsonSerializers.modulo() : new SimpleModule("SinSerializadoresPropios");
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.backend.config;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import com.example.backend.service.DatabaseSnapshotService;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Ajustes del pool de conexiones y del logging de SQL.
+ *
+ * - Tamaño del pool calculado a partir de CPUs y concurrencia esperada
+ *   (app.db.pool.auto-size=true y sin maximum-pool-size explícito)
+ * - Logger de consultas lentas con muestreo (app.db.slow-query.enabled=true)
+ * - Query timeout JDBC según el deadline de la solicitud (app.deadline.enabled)
+ * - Métrica db.pool.saturation = conexiones activas / máximo del pool
+ * - Restauración del snapshot H2 antes de abrir el pool (perfil filedb)
+ */
+@Configuration
+public class PersistenceTuningConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(PersistenceTuningConfig.class);
+
+    @Bean
+    static BeanPostProcessor dataSourceTuningPostProcessor(Environment env) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource
+                        && env.getProperty("app.db.snapshot.enabled", Boolean.class, false)) {
+                    try {
+                        DatabaseSnapshotService.restaurarSiHaceFalta(
+                                Path.of(env.getProperty("app.db.dir", "./data")),
+                                env.getProperty("app.db.name", "db"),
+                                Path.of(env.getProperty("app.db.snapshot.path", "./data/snapshot.zip")));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException("No se pudo restaurar el snapshot de la BD", e);
+                    }
+                }
+                return bean;
+            }
+
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof HikariDataSource hikari)) {
+                    return bean;
+                }
+                // El pool se crea en la primera conexión, así que aún se puede dimensionar
+                if (env.getProperty("app.db.pool.auto-size", Boolean.class, false)
+                        && !env.containsProperty("spring.datasource.hikari.maximum-pool-size")) {
+                    int tamano = calcularTamanoPool(
+                            Runtime.getRuntime().availableProcessors(),
+                            env.getProperty("app.db.pool.expected-concurrency", Integer.class, 10));
+                    hikari.setMaximumPoolSize(tamano);
+                    log.info("Pool de conexiones dimensionado automáticamente: {} conexiones", tamano);
+                }
+                DataSource resultado = hikari;
+                if (env.getProperty("app.db.slow-query.enabled", Boolean.class, false)) {
+                    resultado = new SlowQueryLoggingDataSource(resultado,
+                            env.getProperty("app.db.slow-query.threshold-ms", Long.class, 100L),
+                            env.getProperty("app.db.slow-query.sample-rate", Double.class, 0.01));
+                }
+                if (env.getProperty("app.deadline.enabled", Boolean.class, true)) {
+                    // Query timeout JDBC a partir del deadline de la solicitud
+                    resultado = new DeadlineDataSource(resultado);
+                }
+                return resultado;
+            }
+        };
+    }
+
+    /**
+     * Fórmula clásica (núcleos * 2 + 1) acotada por la concurrencia esperada:
+     * más conexiones que peticiones simultáneas solo agregan contención en la BD.
+     */
+    static int calcularTamanoPool(int nucleos, int concurrenciaEsperada) {
+        return Math.max(2, Math.min(nucleos * 2 + 1, concurrenciaEsperada));
+    }
+
+    @Bean
+    MeterBinder poolSaturationMetrics(DataSource dataSource) {
+        return registry -> Gauge.builder("db.pool.saturation", dataSource, PersistenceTuningConfig::saturacion)
+                .description("Conexiones activas / tamaño máximo del pool")
+                .register(registry);
+    }
+
+    private static double saturacion(DataSource dataSource) {
+        try {
+            HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+            HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+            if (pool == null) {
+                return 0;
+            }
+            return (double) pool.getActiveConnections() / hikari.getMaximumPoolSize();
+        } catch (Exception e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.example.backend.service.ProductoService;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Política de respuestas HTTP para los endpoints de lectura.
+ *
+ * - Compresión gzip por encima de server.compression.min-response-size (Tomcat)
+ * - /api/productos/**: Cache-Control + ETag/Last-Modified de la versión del catálogo
+ * - /api/public/menu y /api/public/pedidos: Cache-Control + ETag del contenido,
+ *   porque primero se sirven desde Google Script y no desde el catálogo local
+ */
+@Configuration
+public class ResponsePolicyConfig implements WebMvcConfigurer {
+
+  private final ProductoService productoService;
+
+  @Value("${app.http-cache.productos:private, no-cache}")
+  private String cacheProductos;
+
+  @Value("${app.http-cache.menu:public, max-age=60}")
+  private String cacheMenu;
+
+  @Value("${app.http-cache.pedidos-publicos:no-cache}")
+  private String cachePedidosPublicos;
+
+  public ResponsePolicyConfig(ProductoService productoService) {
+    this.productoService = productoService;
+  }
+
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    registry.addInterceptor(new CachePolicyInterceptor(productoService, cacheProductos, true))
+        .addPathPatterns("/api/productos", "/api/productos/**");
+    registry.addInterceptor(new CachePolicyInterceptor(productoService, cacheMenu, false))
+        .addPathPatterns("/api/public/menu");
+    registry.addInterceptor(new CachePolicyInterceptor(productoService, cachePedidosPublicos, false))
+        .addPathPatterns("/api/public/pedidos");
+  }
+
+  @Bean
+  FilterRegistrationBean<ShallowEtagHeaderFilter> publicEtagFilter() {
+    ShallowEtagHeaderFilter filtro = new ShallowEtagHeaderFilter() {
+      // El filtro base bufferiza toda respuesta y solo pone ETag a GET/HEAD:
+      // los POST de pedidos pasan sin envolver
+      @Override
+      protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.GET.matches(request.getMethod()) && !HttpMethod.HEAD.matches(request.getMethod());
+      }
+    };
+    // Tomcat no comprime respuestas con ETag fuerte
+    filtro.setWriteWeakETag(true);
+    FilterRegistrationBean<ShallowEtagHeaderFilter> registro = new FilterRegistrationBean<>(filtro);
+    registro.addUrlPatterns("/api/public/menu", "/api/public/pedidos");
+    return registro;
+  }
+}
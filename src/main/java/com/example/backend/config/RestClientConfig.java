@@ -1,13 +1,58 @@
 package com.example.backend.config;
 
+import java.io.IOException;
+import java.net.HttpURLConnection;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import com.example.backend.service.Deadline;
+
 @Configuration
 public class RestClientConfig {
+    // Solo se usa para el proxy a Google Script: se crea en la primera petición, no al arrancar
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    @Lazy
+    public RestTemplate restTemplate(@Value("${app.deadline.upstream-max-ms:5000}") long maximoMs,
+                                     @Value("${app.deadline.upstream-reserve-ms:500}") long reservaMs) {
+        return new RestTemplate(new DeadlineRequestFactory(maximoMs, reservaMs));
+    }
+
+    /**
+     * Timeouts de conexión y lectura calculados por llamada: el menor entre
+     * app.deadline.upstream-max-ms y el deadline de la solicitud menos una
+     * reserva para el trabajo local posterior (fallback a BD, respuesta).
+     * El read timeout de HttpURLConnection es por lectura, no total; con
+     * respuestas pequeñas como las del script la diferencia es despreciable.
+     */
+    static class DeadlineRequestFactory extends SimpleClientHttpRequestFactory {
+
+        private final long maximoMs;
+        private final long reservaMs;
+
+        DeadlineRequestFactory(long maximoMs, long reservaMs) {
+            this.maximoMs = maximoMs;
+            this.reservaMs = reservaMs;
+        }
+
+        @Override
+        protected void prepareConnection(HttpURLConnection conexion, String metodo) throws IOException {
+            super.prepareConnection(conexion, metodo);
+            long timeout = maximoMs;
+            if (Deadline.activo()) {
+                long disponible = Deadline.restanteMs() - reservaMs;
+                if (disponible <= 0) {
+                    throw new IOException("Sin presupuesto de tiempo para llamar a " + conexion.getURL().getHost());
+                }
+                timeout = Math.min(timeout, disponible);
+            }
+            int ms = (int) Math.min(Integer.MAX_VALUE, timeout);
+            conexion.setConnectTimeout(ms);
+            conexion.setReadTimeout(ms);
+        }
     }
 }
@@ -1,63 +1,56 @@
 package com.example.backend.config;
 
-import java.util.List;
-
 import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
-import org.springframework.web.cors.CorsConfiguration;
-import org.springframework.web.cors.CorsConfigurationSource;
-import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import com.example.backend.dto.ResponseDTO;
 import com.example.backend.repository.UsuarioRepository;
 import com.example.backend.security.JwtAuthFilter;
 import com.example.backend.security.JwtUtils;
+import com.example.backend.service.TokenRevocationService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
+    // Autoridad que exige /api/admin/** (snapshots, archivado, revocación de tokens)
+    private static final String ROL_ADMIN = "ROLE_ADMIN";
+
     @Bean
     public BCryptPasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
     }
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http, JwtUtils jwtUtils, UsuarioRepository usuarioRepo) throws Exception {
-        JwtAuthFilter jwtFilter = new JwtAuthFilter(jwtUtils, usuarioRepo);
+    public SecurityFilterChain filterChain(HttpSecurity http, JwtUtils jwtUtils, UsuarioRepository usuarioRepo,
+                                           TokenRevocationService revocationService,
+                                           ObjectMapper objectMapper) throws Exception {
+        JwtAuthFilter jwtFilter = new JwtAuthFilter(jwtUtils, usuarioRepo, revocationService);
 
         http
-          .cors(Customizer.withDefaults())
+          // CORS lo resuelve CorsPolicyFilter antes de esta cadena
+          .cors(cors -> cors.disable())
           .csrf(csrf -> csrf.disable())
           .authorizeHttpRequests(auth -> auth
             .requestMatchers("/api/auth/**", "/api/public/**", "/", "/index.html", "/favicon.ico").permitAll()
+            .requestMatchers("/api/admin/**").hasAuthority(ROL_ADMIN)
                .anyRequest().authenticated()
           )
+          // Autenticado sin el rol: 403 con el mismo cuerpo que el resto de la API
+          .exceptionHandling(ex -> ex.accessDeniedHandler((req, res, e) -> {
+            res.setStatus(HttpStatus.FORBIDDEN.value());
+            res.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(res.getOutputStream(), ResponseDTO.error("Se requiere rol de administrador"));
+          }))
           .addFilterBefore(jwtFilter, org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter.class);
 
         return http.build();
     }
-
-    @Bean
-    public CorsConfigurationSource corsConfigurationSource() {
-        CorsConfiguration config = new CorsConfiguration();
-        // añade aquí tu frontend GitHub pages exacto (sin trailing slash)
-        config.setAllowedOrigins(List.of(
-            "https://juanquiga.github.io",
-            "https://juanquiga.github.io/frontendfinal",
-            "http://localhost:5500",
-            "http://localhost:3000"
-        ));
-        config.setAllowedMethods(List.of("GET","POST","PUT","DELETE","OPTIONS"));
-        config.setAllowedHeaders(List.of("*"));
-        config.setAllowCredentials(true);
-
-        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
-        source.registerCorsConfiguration("/**", config);
-        return source;
-    }
 }
\ No newline at end of file
@@ -0,0 +1,96 @@
+package com.example.backend.config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ThreadLocalRandom;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * DataSource que mide cada sentencia JDBC y registra solo las lentas,
+ * más una muestra aleatoria del resto (reemplaza show-sql a stdout).
+ *
+ * - Logger "sql.slow" (WARN): sentencias por encima del umbral
+ * - Logger "sql.sample" (DEBUG): muestra de 1 de cada N sentencias normales
+ */
+public class SlowQueryLoggingDataSource extends DelegatingDataSource {
+
+    private static final Logger slowLog = LoggerFactory.getLogger("sql.slow");
+    private static final Logger sampleLog = LoggerFactory.getLogger("sql.sample");
+
+    private final long umbralNanos;
+    private final double tasaMuestreo;
+
+    public SlowQueryLoggingDataSource(DataSource destino, long umbralMs, double tasaMuestreo) {
+        super(destino);
+        this.umbralNanos = umbralMs * 1_000_000L;
+        this.tasaMuestreo = tasaMuestreo;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return envolverConexion(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return envolverConexion(super.getConnection(username, password));
+    }
+
+    private Connection envolverConexion(Connection conexion) {
+        return (Connection) Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class<?>[] {Connection.class},
+                (proxy, metodo, args) -> {
+                    Object resultado = invocar(conexion, metodo, args);
+                    // El proxy implementa el tipo que declara el método (prepareCall: CallableStatement)
+                    if (resultado instanceof Statement st && metodo.getName().startsWith("prepare")) {
+                        return envolverSentencia(st, metodo.getReturnType(), (String) args[0]);
+                    }
+                    if (resultado instanceof Statement st && "createStatement".equals(metodo.getName())) {
+                        return envolverSentencia(st, Statement.class, null);
+                    }
+                    return resultado;
+                });
+    }
+
+    private Object envolverSentencia(Statement sentencia, Class<?> tipo, String sql) {
+        InvocationHandler handler = (proxy, metodo, args) -> {
+            if (!metodo.getName().startsWith("execute")) {
+                return invocar(sentencia, metodo, args);
+            }
+            long inicio = System.nanoTime();
+            try {
+                return invocar(sentencia, metodo, args);
+            } finally {
+                registrar(sql != null ? sql : (args != null && args.length > 0 ? String.valueOf(args[0]) : "?"),
+                        System.nanoTime() - inicio);
+            }
+        };
+        return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {tipo}, handler);
+    }
+
+    private void registrar(String sql, long nanos) {
+        if (nanos >= umbralNanos) {
+            slowLog.warn("SQL lento ({} ms): {}", nanos / 1_000_000, sql);
+        } else if (sampleLog.isDebugEnabled() && ThreadLocalRandom.current().nextDouble() < tasaMuestreo) {
+            sampleLog.debug("SQL ({} us): {}", nanos / 1_000, sql);
+        }
+    }
+
+    private static Object invocar(Object destino, Method metodo, Object[] args) throws Throwable {
+        try {
+            return metodo.invoke(destino, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
@@ -2,29 +2,37 @@ package com.example.backend.controller;
 
 import java.util.Map;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import com.example.backend.model.Usuario;
-import com.example.backend.repository.UsuarioRepository;
 import com.example.backend.security.JwtUtils;
+import com.example.backend.service.AuthService;
+import com.example.backend.service.RefreshTokenService;
+import com.example.backend.service.RefreshTokenService.ParTokens;
+import com.example.backend.service.TokenRevocationService;
+
+import io.jsonwebtoken.Claims;
 
 @RestController
 @RequestMapping("/api/auth")
 public class AuthController {
 
-    private final UsuarioRepository usuarioRepo;
-    private final BCryptPasswordEncoder passwordEncoder;
+    private final AuthService authService;
     private final JwtUtils jwtUtils;
+    private final TokenRevocationService revocationService;
+    private final RefreshTokenService refreshTokenService;
 
-    public AuthController(UsuarioRepository usuarioRepo, BCryptPasswordEncoder passwordEncoder, JwtUtils jwtUtils) {
-        this.usuarioRepo = usuarioRepo;
-        this.passwordEncoder = passwordEncoder;
+    public AuthController(AuthService authService, JwtUtils jwtUtils,
+                          TokenRevocationService revocationService, RefreshTokenService refreshTokenService) {
+        this.authService = authService;
         this.jwtUtils = jwtUtils;
+        this.revocationService = revocationService;
+        this.refreshTokenService = refreshTokenService;
     }
 
     @PostMapping("/register")
@@ -36,13 +44,10 @@ public class AuthController {
             return ResponseEntity.badRequest().body(Map.of("error", "username and password required"));
         }
 
-        if (usuarioRepo.existsByUsername(username)) {
+        if (authService.registrar(username, password).isEmpty()) {
             return ResponseEntity.badRequest().body(Map.of("error", "username exists"));
         }
 
-        Usuario u = new Usuario(username, passwordEncoder.encode(password), "ROLE_USER");
-        usuarioRepo.save(u);
-
         return ResponseEntity.ok(Map.of("msg", "registered"));
     }
 
@@ -51,19 +56,62 @@ public class AuthController {
         String username = body.get("username");
         String password = body.get("password");
 
-        var opt = usuarioRepo.findByUsername(username);
-        if (opt.isEmpty()) {
-            return ResponseEntity.status(401).body(Map.of("error", "invalid credentials"));
-        }
+        return authService.login(username, password)
+                .<ResponseEntity<?>>map(sesion -> ResponseEntity.ok(cuerpoTokens(sesion.tokens())))
+                .orElseGet(() -> ResponseEntity.status(401).body(Map.of("error", "invalid credentials")));
+    }
 
-        Usuario u = opt.get();
+    // Canjea el refresh token por un par nuevo (el anterior deja de servir)
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@RequestBody Map<String,String> body) {
+        return refreshTokenService.renovar(body.get("refreshToken"))
+                .<ResponseEntity<?>>map(par -> ResponseEntity.ok(cuerpoTokens(par)))
+                .orElseGet(() -> ResponseEntity.status(401).body(Map.of("error", "invalid refresh token")));
+    }
+
+    // Revoca el token enviado en Authorization y, si viene, la sesión de su refresh token
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String header,
+                                    @RequestBody(required = false) Map<String,String> body) {
+        Claims claims = claimsDelHeader(header);
+        if (claims == null) {
+            return ResponseEntity.status(401).body(Map.of("error", "invalid token"));
+        }
+        if (claims.getId() != null) {
+            revocationService.revocar(claims.getId(), claims.getSubject(), claims.getExpiration().getTime());
+        }
+        if (body != null) {
+            refreshTokenService.revocar(body.get("refreshToken"));
+        }
+        return ResponseEntity.ok(Map.of("msg", "logged out"));
+    }
 
-        if (!passwordEncoder.matches(password, u.getPassword())) {
-            return ResponseEntity.status(401).body(Map.of("error", "invalid credentials"));
+    // Revoca todos los tokens del usuario emitidos hasta ahora (todas las sesiones)
+    @PostMapping("/logout-all")
+    public ResponseEntity<?> logoutAll(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String header) {
+        Claims claims = claimsDelHeader(header);
+        if (claims == null) {
+            return ResponseEntity.status(401).body(Map.of("error", "invalid token"));
         }
+        revocationService.revocarTodos(claims.getSubject());
+        refreshTokenService.revocarUsuario(claims.getSubject());
+        return ResponseEntity.ok(Map.of("msg", "all sessions revoked"));
+    }
 
-        String token = jwtUtils.generateToken(u.getUsername());
+    private static Map<String, Object> cuerpoTokens(ParTokens par) {
+        return Map.of("token", par.accessToken(), "refreshToken", par.refreshToken(),
+                "expiresIn", par.expiraEnSegundos());
+    }
 
-        return ResponseEntity.ok(Map.of("token", token));
+    // Token válido y no revocado del header, o null
+    private Claims claimsDelHeader(String header) {
+        if (header == null || !header.startsWith("Bearer ")) {
+            return null;
+        }
+        Claims claims = jwtUtils.obtenerClaims(header.substring(7));
+        if (claims == null || revocationService.estaRevocado(claims.getId(), claims.getSubject(), claims.getIssuedAt())) {
+            return null;
+        }
+        return claims;
     }
 }
\ No newline at end of file
@@ -0,0 +1,43 @@
+package com.example.backend.controller;
+
+import java.nio.file.Path;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.backend.dto.ResponseDTO;
+import com.example.backend.service.DatabaseSnapshotService;
+
+/**
+ * Controlador REST para snapshots de la base de datos (perfil filedb).
+ * 
+ * Endpoints:
+ * POST   /api/admin/db/snapshot   - Crea un snapshot comprimido de la BD (ROLE_ADMIN)
+ */
+@RestController
+@RequestMapping("/api/admin/db")
+public class DatabaseSnapshotController {
+
+    private final DatabaseSnapshotService snapshotService;
+
+    public DatabaseSnapshotController(DatabaseSnapshotService snapshotService) {
+        this.snapshotService = snapshotService;
+    }
+
+    /**
+     * POST /api/admin/db/snapshot
+     * Crea un snapshot en caliente; un nodo nuevo arranca desde él
+     * si no encuentra el archivo de la BD.
+     * 
+     * @return ResponseEntity con la ruta del snapshot (200); sin ROLE_ADMIN, 403 (SecurityConfig)
+     */
+    @PostMapping("/snapshot")
+    public ResponseEntity<ResponseDTO<String>> crearSnapshot() {
+        Path ruta = snapshotService.crearSnapshot();
+        return ResponseEntity.ok(
+            ResponseDTO.success("Snapshot creado exitosamente", ruta.toString())
+        );
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.backend.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.backend.dto.ResponseDTO;
+import com.example.backend.service.PedidoArchivoService;
+
+/**
+ * Controlador REST para el archivado de pedidos.
+ * 
+ * Endpoints:
+ * POST   /api/admin/pedidos/archivar   - Archiva ya los pedidos cerrados antiguos (ROLE_ADMIN)
+ */
+@RestController
+@RequestMapping("/api/admin/pedidos")
+public class PedidoArchivoController {
+
+    private final PedidoArchivoService archivoService;
+
+    public PedidoArchivoController(PedidoArchivoService archivoService) {
+        this.archivoService = archivoService;
+    }
+
+    /**
+     * POST /api/admin/pedidos/archivar
+     * Ejecuta el archivado sin esperar al ciclo programado.
+     * 
+     * @return ResponseEntity con la cantidad de pedidos archivados (200); sin ROLE_ADMIN, 403 (SecurityConfig)
+     */
+    @PostMapping("/archivar")
+    public ResponseEntity<ResponseDTO<Integer>> archivar() {
+        int archivados = archivoService.archivar();
+        return ResponseEntity.ok(
+            ResponseDTO.success("Archivado completado", archivados)
+        );
+    }
+}
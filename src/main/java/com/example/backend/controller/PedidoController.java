@@ -1,5 +1,6 @@
 package com.example.backend.controller;
 
+import java.security.Principal;
 import java.util.List;
 
 import jakarta.validation.Valid;
@@ -14,6 +15,8 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.example.backend.dto.CambiosPedidosDTO;
+import com.example.backend.dto.CamposSolicitados;
 import com.example.backend.dto.PedidoDTO;
 import com.example.backend.dto.ResponseDTO;
 import com.example.backend.service.PedidoService;
@@ -22,11 +25,13 @@ import com.example.backend.service.PedidoService;
  * Controlador REST para gestión de Pedidos.
  * 
  * Endpoints:
- * GET    /api/pedidos              - Obtiene todos los pedidos
+ * GET    /api/pedidos              - Obtiene todos los pedidos (?items=false, ?fields=id,estado,...)
  * GET    /api/pedidos/{id}         - Obtiene un pedido por ID
  * GET    /api/pedidos/estado/{est} - Obtiene pedidos por estado
  * POST   /api/pedidos              - Crea un nuevo pedido
  * PUT    /api/pedidos/{id}/estado  - Actualiza el estado de un pedido
+ * POST   /api/pedidos/claim        - Entrega el siguiente pedido pendiente al empleado
+ * GET    /api/pedidos/changes      - Cambios posteriores a ?since=seq (consumo incremental)
  */
 @RestController
 @RequestMapping("/api/pedidos")
@@ -58,16 +63,41 @@ public class PedidoController {
      * GET /api/pedidos
      * Obtiene la lista de todos los pedidos.
      * 
+     * @param items false para omitir los items (vista de lista, menos bytes)
+     * @param fields Campos a incluir separados por coma (opcional, sparse fieldset)
      * @return ResponseEntity con lista de pedidos y código 200
      */
     @GetMapping
-    public ResponseEntity<ResponseDTO<List<PedidoDTO>>> obtenerTodos() {
-        List<PedidoDTO> pedidos = pedidoService.obtenerTodos();
+    public ResponseEntity<ResponseDTO<List<?>>> obtenerTodos(
+            @RequestParam(name = "items", defaultValue = "true") boolean items,
+            @RequestParam(name = "fields", required = false) String fields) {
+        CamposSolicitados campos = CamposSolicitados.parsear(fields, PedidoService.CAMPOS_PEDIDO);
+        List<?> pedidos = campos == null
+                ? pedidoService.obtenerTodos(items)
+                : pedidoService.obtenerTodos(campos);
         return ResponseEntity.ok(
             ResponseDTO.success("Pedidos obtenidos exitosamente", pedidos)
         );
     }
 
+    /**
+     * GET /api/pedidos/changes?since=seq&limit=n
+     * Creaciones y cambios de estado posteriores a since, en orden. El
+     * consumidor guarda data.siguiente y lo envía como since la próxima vez.
+     * 
+     * @param since Última seq procesada (0 = desde el principio)
+     * @param limit Máximo de cambios por lote
+     * @return ResponseEntity con el lote de cambios (200)
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<ResponseDTO<CambiosPedidosDTO>> obtenerCambios(
+            @RequestParam(name = "since", defaultValue = "0") long since,
+            @RequestParam(name = "limit", defaultValue = "100") int limit) {
+        return ResponseEntity.ok(
+            ResponseDTO.success("Cambios obtenidos exitosamente", pedidoService.obtenerCambios(since, limit))
+        );
+    }
+
     /**
      * GET /api/pedidos/{id}
      * Obtiene un pedido específico por su ID.
@@ -89,11 +119,14 @@ public class PedidoController {
      * Estados válidos: PENDIENTE, ATENDIDO, CANCELADO
      * 
      * @param estado Estado a filtrar
+     * @param items false para omitir los items
      * @return ResponseEntity con lista de pedidos del estado especificado
      */
     @GetMapping("/estado/{estado}")
-    public ResponseEntity<ResponseDTO<List<PedidoDTO>>> obtenerPorEstado(@PathVariable String estado) {
-        List<PedidoDTO> pedidos = pedidoService.obtenerPorEstado(estado.toUpperCase());
+    public ResponseEntity<ResponseDTO<List<PedidoDTO>>> obtenerPorEstado(
+            @PathVariable String estado,
+            @RequestParam(name = "items", defaultValue = "true") boolean items) {
+        List<PedidoDTO> pedidos = pedidoService.obtenerPorEstado(estado.toUpperCase(), items);
         return ResponseEntity.ok(
             ResponseDTO.success("Pedidos obtenidos por estado: " + estado, pedidos)
         );
@@ -122,4 +155,19 @@ public class PedidoController {
             ResponseDTO.success("Estado del pedido actualizado exitosamente", pedidoActualizado)
         );
     }
+
+    /**
+     * POST /api/pedidos/claim
+     * Entrega al empleado autenticado el siguiente pedido pendiente de la cola
+     * de cocina. Dos empleados nunca reciben el mismo pedido.
+     * 
+     * @param principal Empleado autenticado
+     * @return ResponseEntity con el pedido reclamado, o data null si no hay pendientes (200)
+     */
+    @PostMapping("/claim")
+    public ResponseEntity<ResponseDTO<PedidoDTO>> reclamar(Principal principal) {
+        return pedidoService.reclamarSiguiente(principal.getName())
+                .map(pedido -> ResponseEntity.ok(ResponseDTO.success("Pedido reclamado exitosamente", pedido)))
+                .orElseGet(() -> ResponseEntity.ok(ResponseDTO.success("No hay pedidos pendientes", null)));
+    }
 }
\ No newline at end of file
@@ -12,8 +12,10 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.example.backend.dto.CamposSolicitados;
 import com.example.backend.dto.ProductoDTO;
 import com.example.backend.dto.ResponseDTO;
 import com.example.backend.service.ProductoService;
@@ -22,7 +24,7 @@ import com.example.backend.service.ProductoService;
  * Controlador REST para gestión de Productos.
  * 
  * Endpoints:
- * GET    /api/productos           - Obtiene todos los productos
+ * GET    /api/productos           - Obtiene todos los productos (?fields=id,nombre,precio)
  * GET    /api/productos/{id}      - Obtiene un producto por ID
  * POST   /api/productos           - Crea un nuevo producto
  * PUT    /api/productos/{id}      - Actualiza un producto existente
@@ -42,11 +44,16 @@ public class ProductoController {
      * GET /api/productos
      * Obtiene la lista de todos los productos disponibles.
      * 
+     * @param fields Campos a incluir separados por coma (opcional, sparse fieldset)
      * @return ResponseEntity con lista de productos y código 200
      */
     @GetMapping
-    public ResponseEntity<ResponseDTO<List<ProductoDTO>>> obtenerTodos() {
-        List<ProductoDTO> productos = productoService.obtenerTodos();
+    public ResponseEntity<ResponseDTO<List<?>>> obtenerTodos(
+            @RequestParam(name = "fields", required = false) String fields) {
+        CamposSolicitados campos = CamposSolicitados.parsear(fields, ProductoService.CAMPOS_PRODUCTO);
+        List<?> productos = campos == null
+                ? productoService.obtenerTodos()
+                : productoService.obtenerTodos(campos);
         return ResponseEntity.ok(
             ResponseDTO.success("Productos obtenidos exitosamente", productos)
         );
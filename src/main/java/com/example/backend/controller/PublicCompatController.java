@@ -6,6 +6,7 @@ import java.util.List;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -18,6 +19,9 @@ import org.springframework.web.client.RestTemplate;
 
 import com.example.backend.dto.PedidoDTO;
 import com.example.backend.dto.ProductoDTO;
+import com.example.backend.exception.DeadlineExceededException;
+import com.example.backend.service.AuthService;
+import com.example.backend.service.AuthService.Sesion;
 import com.example.backend.service.PedidoService;
 import com.example.backend.service.ProductoService;
 
@@ -28,6 +32,7 @@ public class PublicCompatController {
     private final ProductoService productoService;
     private final RestTemplate restTemplate;
     private final PedidoService pedidoService;
+    private final AuthService authService;
 
     @Value("${app.google.script.url:https://script.googleusercontent.com/macros/echo?user_content_key=AehSKLhlW_UJZ2i2DGgSkW64K0KiaSOqUWEAtQDFTXhBtgATs0Kbye1S3u3RtbyUDJAVRw-FgN_DCBlmeXNE6fDI3pzZ5zDhg037ku__H_Hu0JRDEeunLgUYbI79m5uzpwYEpb3Sl3QRudRC4NOouRGh1jFyGGxT9Cd4yFjx0-Ps8i-MjhF-a0kuRCsadoe2quai4ho405GMT5NG7bwQTH71ycGthF--6-My7lvlv5ayPC1Fo2IMVXuM-MrbAnpF5t-CzGKqbOSKar2svztWyloEaseGWTgYMJQKDxJnGSdr&lib=M1SZ6R3DgFK_8gLlGeqwInnfCTEkP8scq}")
     private String googleScriptUrl;
@@ -35,10 +40,12 @@ public class PublicCompatController {
     @Value("${app.google.pedidos.url:https://script.googleusercontent.com/macros/echo?user_content_key=AehSKLgHslYiPVFOAx0Csb_Ouk-h7jtl0W0xDYLrSvykLxWYNjp2naDfSd6rQ0R4QZQdoHJZzljNiarBLrNyOk7xoImCcczIlpD6aZ11IKrAY5E0LKttmGZFe-m4QhutuXHOI70bVa5IAvePoDrysiTvKHYYAociVfYu26ZJCla0AqlPDFX_1gCE3r6ZSBYrmNV6Vc5GDIm_i7XTF9cNz0KbHkxAKUBbvNTNfaFo2bXGygp4FCAcxf3e8Jp_heVICnbrDG8YLDHg09HF7rKR3Yp4wys3VCBR1qqDUa8gWA58&lib=M1SZ6R3DgFK_8gLlGeqwInnfCTEkP8scq}")
     private String googlePedidosUrl;
 
-    public PublicCompatController(ProductoService productoService, RestTemplate restTemplate, PedidoService pedidoService) {
+    public PublicCompatController(ProductoService productoService, @Lazy RestTemplate restTemplate, PedidoService pedidoService,
+                                  AuthService authService) {
         this.productoService = productoService;
         this.restTemplate = restTemplate;
         this.pedidoService = pedidoService;
+        this.authService = authService;
     }
 
     @GetMapping("/menu")
@@ -92,30 +99,18 @@ public class PublicCompatController {
         }
 
         try {
-            var userOpt = productoService.getUsuarioRepository().findByUsername(username);
-            if (userOpt.isEmpty()) {
+            var sesion = authService.login(username, password);
+            if (sesion.isEmpty()) {
                 response.put("ok", false);
                 response.put("error", "Invalid credentials");
                 return ResponseEntity.status(401).body(response);
             }
 
-            var user = userOpt.get();
-            if (!productoService.getPasswordEncoder().matches(password, user.getPassword())) {
-                response.put("ok", false);
-                response.put("error", "Invalid credentials");
-                return ResponseEntity.status(401).body(response);
-            }
-
-            String token = productoService.getJwtUtils().generateToken(user.getUsername());
-            
-            Map<String, Object> userData = new HashMap<>();
-            userData.put("username", user.getUsername());
-            userData.put("role", user.getRole());
-            userData.put("token", token);
-
             response.put("ok", true);
-            response.put("data", userData);
+            response.put("data", datosSesion(sesion.get()));
             return ResponseEntity.ok(response);
+        } catch (DeadlineExceededException e) {
+            throw e;
         } catch (Exception e) {
             response.put("ok", false);
             response.put("error", "Server error: " + e.getMessage());
@@ -137,30 +132,19 @@ public class PublicCompatController {
         }
 
         try {
-            if (productoService.getUsuarioRepository().existsByUsername(username)) {
+            var newUser = authService.registrar(username, password);
+            if (newUser.isEmpty()) {
                 response.put("ok", false);
                 response.put("error", "Username already exists");
                 return ResponseEntity.status(400).body(response);
             }
 
-            var newUser = new com.example.backend.model.Usuario(
-                username, 
-                productoService.getPasswordEncoder().encode(password), 
-                "ROLE_USER"
-            );
-            productoService.getUsuarioRepository().save(newUser);
-
-            String token = productoService.getJwtUtils().generateToken(newUser.getUsername());
-            
-            Map<String, Object> userData = new HashMap<>();
-            userData.put("username", newUser.getUsername());
-            userData.put("role", newUser.getRole());
-            userData.put("token", token);
-
             response.put("ok", true);
             response.put("message", "User registered successfully");
-            response.put("data", userData);
+            response.put("data", datosSesion(authService.iniciarSesion(newUser.get())));
             return ResponseEntity.status(201).body(response);
+        } catch (DeadlineExceededException e) {
+            throw e;
         } catch (Exception e) {
             response.put("ok", false);
             response.put("error", "Server error: " + e.getMessage());
@@ -168,6 +152,17 @@ public class PublicCompatController {
         }
     }
 
+    // data de login/register: usuario, rol y par de tokens
+    private static Map<String, Object> datosSesion(Sesion sesion) {
+        Map<String, Object> userData = new HashMap<>();
+        userData.put("username", sesion.username());
+        userData.put("role", sesion.rol());
+        userData.put("token", sesion.tokens().accessToken());
+        userData.put("refreshToken", sesion.tokens().refreshToken());
+        userData.put("expiresIn", sesion.tokens().expiraEnSegundos());
+        return userData;
+    }
+
     // --- Pedidos: acepta POST desde formulario (x-www-form-urlencoded) ---
     @PostMapping(value = "/pedidos", consumes = MediaType.APPLICATION_FORM_URLENCODED_VALUE)
     public ResponseEntity<Map<String, Object>> submitPedidoForm(
@@ -227,9 +222,9 @@ public class PublicCompatController {
 
             PedidoDTO creado = pedidoService.crear(dto);
 
-            // 2. Intentar enviar también al Google Script (dual-write)
+            // 2. Intentar enviar también al Google Script (dual-write), con los precios ya recalculados
             try {
-                enviarPedidoAGoogleScript(nombre, telefono, direccion, itemsJson, total);
+                enviarPedidoAGoogleScript(nombre, telefono, direccion, creado.getItemsJson(), creado.getTotal());
             } catch (Exception e) {
                 // Log error pero no fallar - el pedido ya está guardado localmente
                 System.err.println("Warning: No se pudo enviar pedido a Google Script: " + e.getMessage());
@@ -244,6 +239,10 @@ public class PublicCompatController {
             response.put("message", "Pedido creado exitosamente");
             response.put("data", data);
             return ResponseEntity.ok(response);
+        } catch (DeadlineExceededException e) {
+            // El pedido no se guardó (sin presupuesto antes de encolar, o cancelado antes de que el
+            // escritor lo tomara): 504 reintentable (GlobalExceptionHandler), no un 400 de validación
+            throw e;
         } catch (Exception e) {
             response.put("ok", false);
             response.put("error", e.getMessage());
@@ -0,0 +1,53 @@
+package com.example.backend.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.backend.dto.ResponseDTO;
+import com.example.backend.exception.ResourceNotFoundException;
+import com.example.backend.repository.UsuarioRepository;
+import com.example.backend.service.RefreshTokenService;
+import com.example.backend.service.TokenRevocationService;
+
+/**
+ * Controlador REST de administración de usuarios.
+ * 
+ * Endpoints:
+ * POST   /api/admin/usuarios/{username}/revocar-tokens - Revoca todas las sesiones del usuario (ROLE_ADMIN)
+ */
+@RestController
+@RequestMapping("/api/admin/usuarios")
+public class UsuarioAdminController {
+
+    private final UsuarioRepository usuarioRepository;
+    private final TokenRevocationService revocationService;
+    private final RefreshTokenService refreshTokenService;
+
+    public UsuarioAdminController(UsuarioRepository usuarioRepository, TokenRevocationService revocationService,
+                                  RefreshTokenService refreshTokenService) {
+        this.usuarioRepository = usuarioRepository;
+        this.revocationService = revocationService;
+        this.refreshTokenService = refreshTokenService;
+    }
+
+    /**
+     * POST /api/admin/usuarios/{username}/revocar-tokens
+     * Invalida todos los tokens del usuario emitidos hasta ahora
+     * (p. ej. cuenta comprometida o empleado dado de baja).
+     * 
+     * @param username Usuario cuyos tokens se revocan
+     * @return ResponseEntity vacío (200); sin ROLE_ADMIN, 403 (SecurityConfig)
+     */
+    @PostMapping("/{username}/revocar-tokens")
+    public ResponseEntity<ResponseDTO<Void>> revocarTokens(@PathVariable String username) {
+        if (!usuarioRepository.existsByUsername(username)) {
+            throw new ResourceNotFoundException("Usuario", "username", username);
+        }
+        revocationService.revocarTodos(username);
+        refreshTokenService.revocarUsuario(username);
+        return ResponseEntity.ok(ResponseDTO.success("Tokens del usuario revocados"));
+    }
+}
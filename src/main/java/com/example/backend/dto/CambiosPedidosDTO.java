@@ -0,0 +1,10 @@
+package com.example.backend.dto;
+
+import java.util.List;
+
+/**
+ * Lote de GET /api/pedidos/changes: el consumidor guarda "siguiente" y lo
+ * envía como since en la próxima llamada; con hayMas = true conviene pedir
+ * el siguiente lote enseguida.
+ */
+public record CambiosPedidosDTO(List<PedidoCambioDTO> cambios, long siguiente, boolean hayMas) {}
@@ -0,0 +1,79 @@
+package com.example.backend.dto;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import com.example.backend.exception.BusinessException;
+
+/**
+ * Conjunto de campos pedido con el parámetro fields= (sparse fieldsets).
+ * Ejemplo: GET /api/pedidos?fields=id,estado,total
+ *
+ * Los servicios lo usan para elegir la proyección más liviana que cubra
+ * los campos pedidos y para serializar solo esos campos.
+ */
+public final class CamposSolicitados {
+
+    private final Set<String> campos;
+
+    private CamposSolicitados(Set<String> campos) {
+        this.campos = campos;
+    }
+
+    /**
+     * Interpreta el parámetro fields.
+     *
+     * @param fields Lista separada por comas (puede ser null)
+     * @param permitidos Campos válidos para el recurso
+     * @return Campos solicitados, o null si no se pidió ninguno (respuesta completa)
+     * @throws BusinessException si se pide un campo desconocido
+     */
+    public static CamposSolicitados parsear(String fields, Set<String> permitidos) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        Set<String> campos = new LinkedHashSet<>();
+        for (String campo : fields.split(",")) {
+            String limpio = campo.trim();
+            if (limpio.isEmpty()) {
+                continue;
+            }
+            if (!permitidos.contains(limpio)) {
+                throw new BusinessException("Campo desconocido: " + limpio + ". Campos válidos: " + permitidos);
+            }
+            campos.add(limpio);
+        }
+        return campos.isEmpty() ? null : new CamposSolicitados(campos);
+    }
+
+    /**
+     * Indica si todos los campos pedidos están cubiertos por una proyección.
+     */
+    public boolean cubiertosPor(Set<String> disponibles) {
+        return disponibles.containsAll(campos);
+    }
+
+    /**
+     * Proyecta cada fila a un mapa con solo los campos pedidos, en el orden solicitado.
+     *
+     * @param filas Filas ya consultadas
+     * @param accesores Nombre de campo → getter de la fila
+     * @return Lista de mapas listos para serializar
+     */
+    public <T> List<Map<String, Object>> proyectar(List<T> filas, Map<String, Function<T, Object>> accesores) {
+        List<Map<String, Object>> resultado = new ArrayList<>(filas.size());
+        for (T fila : filas) {
+            Map<String, Object> item = new LinkedHashMap<>(campos.size() * 2);
+            for (String campo : campos) {
+                item.put(campo, accesores.get(campo).apply(fila));
+            }
+            resultado.add(item);
+        }
+        return resultado;
+    }
+}
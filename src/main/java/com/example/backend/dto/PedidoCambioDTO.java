@@ -0,0 +1,11 @@
+package com.example.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Cambio de un pedido en GET /api/pedidos/changes.
+ * estado es el del pedido justo después del cambio; en los CREADO viaja
+ * además el pedido completo (con su estado actual; null si ya se archivó).
+ */
+public record PedidoCambioDTO(long seq, Long pedidoId, String tipo, String estado, Integer total, Long ocurridoEn,
+                              @JsonInclude(JsonInclude.Include.NON_NULL) PedidoDTO pedido) {}
@@ -1,5 +1,7 @@
 package com.example.backend.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.Pattern;
@@ -26,6 +28,7 @@ public class PedidoDTO {
     private Integer total;
 
     @NotEmpty(message = "El pedido debe contener al menos un item")
+    @JsonInclude(JsonInclude.Include.NON_NULL) // se omite en vistas de lista sin items
     private String itemsJson;
 
     private String estado;
@@ -44,6 +47,14 @@ public class PedidoDTO {
         this.estado = estado;
     }
 
+    /**
+     * Constructor de resumen (sin items), usado por las consultas de lista.
+     */
+    public PedidoDTO(Long id, String nombreCliente, String telefono, String direccion,
+                     Integer total, String estado) {
+        this(id, nombreCliente, telefono, direccion, total, null, estado);
+    }
+
     // Getters y Setters
     public Long getId() {
         return id;
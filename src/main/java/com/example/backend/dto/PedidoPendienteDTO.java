@@ -0,0 +1,7 @@
+package com.example.backend.dto;
+
+/**
+ * Proyección mínima de un pedido PENDIENTE para la cola de cocina
+ * (id, creación y total: lo necesario para calcular su prioridad).
+ */
+public record PedidoPendienteDTO(Long id, Long creadoEn, Integer total) {}
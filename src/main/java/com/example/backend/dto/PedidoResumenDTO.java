@@ -0,0 +1,8 @@
+package com.example.backend.dto;
+
+/**
+ * Proyección de solo lectura de un Pedido para la tabla del panel admin.
+ * Se construye directamente en la consulta JPQL (constructor expression),
+ * sin entidades en el contexto de persistencia ni dirty checking.
+ */
+public record PedidoResumenDTO(Long id, String nombreCliente, Integer total, String estado) {}
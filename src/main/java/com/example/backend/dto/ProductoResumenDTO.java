@@ -0,0 +1,8 @@
+package com.example.backend.dto;
+
+/**
+ * Proyección de solo lectura de un Producto (id, nombre y precio).
+ * Se construye directamente en la consulta JPQL, sin cargar la descripción
+ * ni la imagen.
+ */
+public record ProductoResumenDTO(Long id, String nombre, Integer precio) {}
@@ -0,0 +1,7 @@
+package com.example.backend.dto;
+
+/**
+ * Proyección de un refresh token para renovarlo, con el rol actual de su
+ * usuario (no el que tenía al emitirse).
+ */
+public record RefreshTokenVigenteDTO(String username, String familia, Long expiraEn, boolean usado, String rolActual) {}
@@ -0,0 +1,184 @@
+package com.example.backend.dto;
+
+import java.io.IOException;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+/**
+ * Serializadores escritos a mano para el sobre ResponseDTO y los DTO que
+ * viajan en listas grandes (PedidoDTO, ProductoDTO).
+ *
+ * OPTIMIZACIÓN:
+ * - Sin introspección ni BeanPropertyWriter por campo: cada propiedad se
+ *   escribe directamente desde su getter
+ * - Nombres de campo precodificados (SerializedString)
+ * - Listas del sobre recorridas sin CollectionSerializer, reutilizando el
+ *   serializador del último tipo de elemento
+ *
+ * La salida es idéntica byte a byte a la serialización por reflexión
+ * (mismo orden de campos, mismos null, itemsJson omitido si es null);
+ * ResponseJsonSerializersTest lo verifica. Si se agregan campos a estos
+ * DTO hay que agregarlos aquí también.
+ */
+public final class ResponseJsonSerializers {
+
+    private static final SerializedString SUCCESS = new SerializedString("success");
+    private static final SerializedString MESSAGE = new SerializedString("message");
+    private static final SerializedString DATA = new SerializedString("data");
+    private static final SerializedString TIMESTAMP = new SerializedString("timestamp");
+
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString NOMBRE_CLIENTE = new SerializedString("nombreCliente");
+    private static final SerializedString TELEFONO = new SerializedString("telefono");
+    private static final SerializedString DIRECCION = new SerializedString("direccion");
+    private static final SerializedString TOTAL = new SerializedString("total");
+    private static final SerializedString ITEMS_JSON = new SerializedString("itemsJson");
+    private static final SerializedString ESTADO = new SerializedString("estado");
+
+    private static final SerializedString NOMBRE = new SerializedString("nombre");
+    private static final SerializedString DESCRIPCION = new SerializedString("descripcion");
+    private static final SerializedString PRECIO = new SerializedString("precio");
+    private static final SerializedString IMAGEN_URL = new SerializedString("imagenUrl");
+
+    private ResponseJsonSerializers() {
+    }
+
+    /**
+     * Módulo de Jackson con los tres serializadores.
+     * @return Módulo listo para registrar en el ObjectMapper
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public static SimpleModule modulo() {
+        SimpleModule modulo = new SimpleModule("ResponseJsonSerializers");
+        modulo.addSerializer((Class) ResponseDTO.class, new ResponseSerializer());
+        modulo.addSerializer(PedidoDTO.class, new PedidoSerializer());
+        modulo.addSerializer(ProductoDTO.class, new ProductoSerializer());
+        return modulo;
+    }
+
+    static final class ResponseSerializer extends StdSerializer<ResponseDTO<?>> {
+
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        ResponseSerializer() {
+            super((Class) ResponseDTO.class);
+        }
+
+        @Override
+        public void serialize(ResponseDTO<?> r, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(r);
+            gen.writeFieldName(SUCCESS);
+            gen.writeBoolean(r.isSuccess());
+            gen.writeFieldName(MESSAGE);
+            escribir(gen, r.getMessage());
+            gen.writeFieldName(DATA);
+            escribirData(r.getData(), gen, provider);
+            gen.writeFieldName(TIMESTAMP);
+            escribir(gen, r.getTimestamp());
+            gen.writeEndObject();
+        }
+
+        private void escribirData(Object data, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            if (!(data instanceof List<?> lista)) {
+                provider.defaultSerializeValue(data, gen);
+                return;
+            }
+            gen.writeStartArray(lista, lista.size());
+            Class<?> ultimaClase = null;
+            JsonSerializer<Object> serializador = null;
+            for (Object elemento : lista) {
+                if (elemento == null) {
+                    gen.writeNull();
+                    continue;
+                }
+                if (elemento.getClass() != ultimaClase) {
+                    ultimaClase = elemento.getClass();
+                    serializador = provider.findTypedValueSerializer(ultimaClase, true, null);
+                }
+                serializador.serialize(elemento, gen, provider);
+            }
+            gen.writeEndArray();
+        }
+    }
+
+    static final class PedidoSerializer extends StdSerializer<PedidoDTO> {
+
+        PedidoSerializer() {
+            super(PedidoDTO.class);
+        }
+
+        @Override
+        public void serialize(PedidoDTO p, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(p);
+            gen.writeFieldName(ID);
+            escribir(gen, p.getId());
+            gen.writeFieldName(NOMBRE_CLIENTE);
+            escribir(gen, p.getNombreCliente());
+            gen.writeFieldName(TELEFONO);
+            escribir(gen, p.getTelefono());
+            gen.writeFieldName(DIRECCION);
+            escribir(gen, p.getDireccion());
+            gen.writeFieldName(TOTAL);
+            escribir(gen, p.getTotal());
+            if (p.getItemsJson() != null) {
+                gen.writeFieldName(ITEMS_JSON);
+                gen.writeString(p.getItemsJson());
+            }
+            gen.writeFieldName(ESTADO);
+            escribir(gen, p.getEstado());
+            gen.writeEndObject();
+        }
+    }
+
+    static final class ProductoSerializer extends StdSerializer<ProductoDTO> {
+
+        ProductoSerializer() {
+            super(ProductoDTO.class);
+        }
+
+        @Override
+        public void serialize(ProductoDTO p, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(p);
+            gen.writeFieldName(ID);
+            escribir(gen, p.getId());
+            gen.writeFieldName(NOMBRE);
+            escribir(gen, p.getNombre());
+            gen.writeFieldName(DESCRIPCION);
+            escribir(gen, p.getDescripcion());
+            gen.writeFieldName(PRECIO);
+            escribir(gen, p.getPrecio());
+            gen.writeFieldName(IMAGEN_URL);
+            escribir(gen, p.getImagenUrl());
+            gen.writeEndObject();
+        }
+    }
+
+    private static void escribir(JsonGenerator gen, String valor) throws IOException {
+        if (valor == null) {
+            gen.writeNull();
+        } else {
+            gen.writeString(valor);
+        }
+    }
+
+    private static void escribir(JsonGenerator gen, Long valor) throws IOException {
+        if (valor == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(valor.longValue());
+        }
+    }
+
+    private static void escribir(JsonGenerator gen, Integer valor) throws IOException {
+        if (valor == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(valor.intValue());
+        }
+    }
+}
@@ -3,14 +3,19 @@ package com.example.backend.exception;
 /**
  * Excepción personalizada para errores de lógica de negocio.
  * Se utiliza cuando las reglas de negocio no se cumplen.
+ * 
+ * OPTIMIZACIÓN:
+ * - Es un resultado esperado (validaciones, cola llena), no un fallo:
+ *   no captura stack trace ni admite excepciones suprimidas
  */
 public class BusinessException extends RuntimeException {
     
     public BusinessException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 
     public BusinessException(String message, Throwable cause) {
-        super(message, cause);
+        // La causa conserva su propio stack trace
+        super(message, cause, false, false);
     }
 }
@@ -0,0 +1,16 @@
+package com.example.backend.exception;
+
+/**
+ * Se agotó el presupuesto de tiempo de la solicitud (ver service.Deadline).
+ * El trabajo pendiente se abandona y se responde 504.
+ *
+ * OPTIMIZACIÓN:
+ * - Como BusinessException, no captura stack trace: bajo saturación se
+ *   lanza muchas veces y el origen siempre es Deadline.verificar()
+ */
+public class DeadlineExceededException extends RuntimeException {
+
+    public DeadlineExceededException(String etapa) {
+        super("Tiempo de respuesta agotado (" + etapa + ")", null, false, false);
+    }
+}
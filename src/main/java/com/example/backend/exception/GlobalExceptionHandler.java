@@ -1,6 +1,8 @@
 package com.example.backend.exception;
 
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -8,18 +10,59 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 import com.example.backend.dto.ResponseDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
  * Manejador global de excepciones.
  * Centraliza el manejo de errores en toda la aplicación.
  * Proporciona respuestas consistentes y descriptivas.
+ * 
+ * OPTIMIZACIÓN:
+ * - Los errores de negocio y 404 se responden con cuerpos precalculados
+ *   por mensaje: solo se inserta el timestamp, sin ResponseDTO ni Jackson.
+ *   La caché es LRU: los mensajes con datos del cliente (ids de 404) no
+ *   desplazan para siempre a los frecuentes ni la hacen crecer
+ * - Métrica app.errors{type=...} con el conteo de errores por tipo
  */
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    // Límite de mensajes distintos en caché (los 404 incluyen el id)
+    private static final int MAX_CUERPOS_CACHEADOS = 512;
+    private static final long CENTINELA = Long.MIN_VALUE;
+
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, byte[][]> cuerpos = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, byte[][]> mayor) {
+            return size() > MAX_CUERPOS_CACHEADOS;
+        }
+    };
+    private final Counter erroresValidacion;
+    private final Counter erroresNoEncontrado;
+    private final Counter erroresNegocio;
+    private final Counter erroresDeadline;
+
+    public GlobalExceptionHandler(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.erroresValidacion = contador(MethodArgumentNotValidException.class);
+        this.erroresNoEncontrado = contador(ResourceNotFoundException.class);
+        this.erroresNegocio = contador(BusinessException.class);
+        this.erroresDeadline = contador(DeadlineExceededException.class);
+    }
+
     /**
      * Maneja excepciones de validación de DTO.
      * Retorna los errores de cada campo validado.
@@ -27,6 +70,7 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ResponseDTO<Map<String, String>>> handleValidationExceptions(
             MethodArgumentNotValidException ex) {
+        erroresValidacion.increment();
         
         Map<String, String> errors = new HashMap<>();
         ex.getBindingResult().getAllErrors().forEach((error) -> {
@@ -45,18 +89,31 @@ public class GlobalExceptionHandler {
      * Maneja excepciones de recurso no encontrado.
      */
     @ExceptionHandler(ResourceNotFoundException.class)
-    public ResponseEntity<ResponseDTO<?>> handleResourceNotFound(ResourceNotFoundException ex) {
-        ResponseDTO<?> response = ResponseDTO.error(ex.getMessage());
-        return new ResponseEntity<>(response, HttpStatus.NOT_FOUND);
+    public ResponseEntity<byte[]> handleResourceNotFound(ResourceNotFoundException ex) {
+        erroresNoEncontrado.increment();
+        return respuestaError(HttpStatus.NOT_FOUND, ex.getMessage());
     }
 
     /**
      * Maneja excepciones genéricas de negocio.
      */
     @ExceptionHandler(BusinessException.class)
-    public ResponseEntity<ResponseDTO<?>> handleBusinessException(BusinessException ex) {
-        ResponseDTO<?> response = ResponseDTO.error(ex.getMessage());
-        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+    public ResponseEntity<byte[]> handleBusinessException(BusinessException ex) {
+        erroresNegocio.increment();
+        return respuestaError(HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+
+    /**
+     * Presupuesto de tiempo agotado: antes de empezar una etapa
+     * (DeadlineExceededException) o con la consulta cancelada por el query timeout.
+     */
+    @ExceptionHandler({DeadlineExceededException.class, QueryTimeoutException.class})
+    public ResponseEntity<byte[]> handleDeadlineExceeded(RuntimeException ex) {
+        erroresDeadline.increment();
+        String mensaje = ex instanceof DeadlineExceededException
+                ? ex.getMessage()
+                : "Tiempo de respuesta agotado (consulta a la base de datos)";
+        return respuestaError(HttpStatus.GATEWAY_TIMEOUT, mensaje);
     }
 
     /**
@@ -64,7 +121,63 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ResponseDTO<?>> handleGenericException(Exception ex) {
+        contador(ex.getClass()).increment();
         ResponseDTO<?> response = ResponseDTO.error("Error interno del servidor: " + ex.getMessage());
         return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
     }
+
+    /**
+     * Arma el mismo JSON que ResponseDTO.error(mensaje) a partir de la plantilla
+     * cacheada del mensaje, insertando solo el timestamp actual.
+     */
+    private ResponseEntity<byte[]> respuestaError(HttpStatus status, String mensaje) {
+        byte[][] plantilla;
+        if (mensaje == null) {
+            plantilla = crearPlantilla(null);
+        } else {
+            synchronized (cuerpos) {
+                plantilla = cuerpos.get(mensaje);
+            }
+            if (plantilla == null) {
+                // Se serializa fuera del lock; dos hilos pueden crearla a la vez, da igual
+                plantilla = crearPlantilla(mensaje);
+                synchronized (cuerpos) {
+                    cuerpos.put(mensaje, plantilla);
+                }
+            }
+        }
+        byte[] timestamp = Long.toString(System.currentTimeMillis()).getBytes(StandardCharsets.US_ASCII);
+        byte[] cuerpo = Arrays.copyOf(plantilla[0], plantilla[0].length + timestamp.length + plantilla[1].length);
+        System.arraycopy(timestamp, 0, cuerpo, plantilla[0].length, timestamp.length);
+        System.arraycopy(plantilla[1], 0, cuerpo, plantilla[0].length + timestamp.length, plantilla[1].length);
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON).body(cuerpo);
+    }
+
+    /**
+     * Serializa una sola vez el ResponseDTO de error con un timestamp centinela
+     * y lo parte en [antes del timestamp, después del timestamp].
+     */
+    private byte[][] crearPlantilla(String mensaje) {
+        ResponseDTO<?> response = ResponseDTO.error(mensaje);
+        response.setTimestamp(CENTINELA);
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar la respuesta de error", e);
+        }
+        String centinela = Long.toString(CENTINELA);
+        int i = json.lastIndexOf(centinela);
+        return new byte[][] {
+            json.substring(0, i).getBytes(StandardCharsets.UTF_8),
+            json.substring(i + centinela.length()).getBytes(StandardCharsets.UTF_8)
+        };
+    }
+
+    private Counter contador(Class<?> tipo) {
+        return Counter.builder("app.errors")
+                .description("Errores respondidos por tipo de excepción")
+                .tag("type", tipo.getSimpleName())
+                .register(meterRegistry);
+    }
 }
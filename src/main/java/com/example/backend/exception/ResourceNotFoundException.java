@@ -3,14 +3,18 @@ package com.example.backend.exception;
 /**
  * Excepción personalizada para cuando no se encuentra un recurso.
  * Se lanza cuando se intenta acceder a un recurso que no existe.
+ * 
+ * OPTIMIZACIÓN:
+ * - Sin stack trace: un 404 es flujo normal, no un error a depurar
  */
 public class ResourceNotFoundException extends RuntimeException {
     
     public ResourceNotFoundException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 
     public ResourceNotFoundException(String resourceName, String fieldName, Object fieldValue) {
-        super(String.format("%s no encontrado con %s: %s", resourceName, fieldName, fieldValue));
+        // Mismo texto que String.format("%s no encontrado con %s: %s", ...) sin parsear el patrón
+        this(resourceName + " no encontrado con " + fieldName + ": " + fieldValue);
     }
 }
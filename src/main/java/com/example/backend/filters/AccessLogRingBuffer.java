@@ -0,0 +1,198 @@
+package com.example.backend.filters;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Buffer circular de tamaño fijo para el access log.
+ *
+ * Los hilos de request reservan un slot con CAS y copian referencias y primitivos
+ * (sin locks ni construcción de strings). Un hilo de fondo drena los slots publicados
+ * y los escribe como líneas JSON. Si el buffer está lleno la entrada se descarta
+ * y se cuenta en la métrica access_log.dropped; nunca se bloquea una petición.
+ */
+@Component
+public class AccessLogRingBuffer {
+
+  private static final Logger log = LoggerFactory.getLogger(AccessLogRingBuffer.class);
+
+  private final int capacidad;
+  private final int mascara;
+
+  // Un arreglo por campo: sin objetos por entrada
+  private final long[] timestamps;
+  private final String[] metodos;
+  private final String[] rutas;
+  private final String[] ips;
+  private final int[] status;
+  private final long[] duracionesNanos;
+  private final long[] bytes;
+  private final AtomicLongArray publicados;
+
+  private final AtomicLong cursor = new AtomicLong();
+  private final AtomicLong descartados = new AtomicLong();
+  private volatile long consumido;
+
+  private final String destino;
+  private Thread escritor;
+  private volatile boolean activo;
+
+  public AccessLogRingBuffer(@Value("${app.access-log.buffer-size:8192}") int tamano,
+                             @Value("${app.access-log.path:logs/access.log}") String destino,
+                             MeterRegistry meterRegistry) {
+    this.capacidad = Integer.highestOneBit(Math.max(2, tamano - 1)) << 1;
+    this.mascara = capacidad - 1;
+    this.timestamps = new long[capacidad];
+    this.metodos = new String[capacidad];
+    this.rutas = new String[capacidad];
+    this.ips = new String[capacidad];
+    this.status = new int[capacidad];
+    this.duracionesNanos = new long[capacidad];
+    this.bytes = new long[capacidad];
+    this.publicados = new AtomicLongArray(capacidad);
+    for (int i = 0; i < capacidad; i++) {
+      publicados.set(i, -1);
+    }
+    this.destino = destino;
+    Gauge.builder("access_log.dropped", descartados, AtomicLong::get)
+        .description("Entradas del access log descartadas por buffer lleno")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Registra una petición. Nunca bloquea: si no hay espacio la descarta.
+   */
+  public void registrar(long timestamp, String metodo, String ruta, String ip, int codigo,
+                        long duracionNanos, long tamanoRespuesta) {
+    long seq;
+    do {
+      seq = cursor.get();
+      if (seq - consumido >= capacidad) {
+        descartados.incrementAndGet();
+        return;
+      }
+    } while (!cursor.compareAndSet(seq, seq + 1));
+
+    int slot = (int) (seq & mascara);
+    timestamps[slot] = timestamp;
+    metodos[slot] = metodo;
+    rutas[slot] = ruta;
+    ips[slot] = ip;
+    status[slot] = codigo;
+    duracionesNanos[slot] = duracionNanos;
+    bytes[slot] = tamanoRespuesta;
+    // Escritura con semántica release: el consumidor ve los campos completos
+    publicados.lazySet(slot, seq);
+  }
+
+  @PostConstruct
+  void iniciar() {
+    activo = true;
+    escritor = new Thread(this::drenar, "access-log-writer");
+    escritor.setDaemon(true);
+    escritor.start();
+  }
+
+  @PreDestroy
+  void detener() throws InterruptedException {
+    activo = false;
+    escritor.join(TimeUnit.SECONDS.toMillis(5));
+  }
+
+  private void drenar() {
+    try (Writer out = abrirDestino()) {
+      StringBuilder linea = new StringBuilder(256);
+      long siguiente = 0;
+      while (activo || publicados.get((int) (siguiente & mascara)) == siguiente) {
+        int escritas = 0;
+        int slot;
+        while (publicados.get(slot = (int) (siguiente & mascara)) == siguiente) {
+          linea.setLength(0);
+          formatear(linea, slot);
+          out.write(linea.toString());
+          // Libera referencias y el slot para los productores
+          metodos[slot] = null;
+          rutas[slot] = null;
+          ips[slot] = null;
+          siguiente++;
+          consumido = siguiente;
+          escritas++;
+        }
+        if (escritas > 0) {
+          out.flush();
+        } else {
+          LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(20));
+        }
+      }
+    } catch (IOException e) {
+      log.error("El access log dejó de escribirse", e);
+    }
+  }
+
+  private void formatear(StringBuilder sb, int slot) {
+    sb.append("{\"ts\":").append(timestamps[slot])
+      .append(",\"method\":\"").append(metodos[slot])
+      .append("\",\"path\":\"");
+    escaparJson(sb, rutas[slot]);
+    sb.append("\",\"status\":").append(status[slot])
+      .append(",\"durationMs\":").append(duracionesNanos[slot] / 1_000_000.0)
+      .append(",\"bytes\":").append(bytes[slot])
+      .append(",\"ip\":\"");
+    escaparJson(sb, ips[slot]);
+    sb.append("\"}\n");
+  }
+
+  private static void escaparJson(StringBuilder sb, String s) {
+    if (s == null) {
+      return;
+    }
+    for (int i = 0; i < s.length(); i++) {
+      char c = s.charAt(i);
+      if (c == '"' || c == '\\') {
+        sb.append('\\').append(c);
+      } else if (c < 0x20) {
+        sb.append(String.format("\\u%04x", (int) c));
+      } else {
+        sb.append(c);
+      }
+    }
+  }
+
+  private Writer abrirDestino() throws IOException {
+    if ("-".equals(destino)) {
+      // Útil en plataformas que solo conservan stdout (p. ej. Render)
+      return new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8)) {
+        @Override
+        public void close() throws IOException {
+          flush();
+        }
+      };
+    }
+    Path ruta = Path.of(destino);
+    if (ruta.toAbsolutePath().getParent() != null) {
+      Files.createDirectories(ruta.toAbsolutePath().getParent());
+    }
+    return Files.newBufferedWriter(ruta, StandardCharsets.UTF_8,
+        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+  }
+}
@@ -0,0 +1,206 @@
+package com.example.backend.filters;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Control de admisión para los endpoints sin autenticación
+ * (/api/public/** y /api/auth/**).
+ *
+ * Cada request se clasifica en menu, checkout o auth y pasa, en orden, por:
+ * - Tamaño del body (app.admission.&lt;clase&gt;.max-body-bytes): 413, o 411 si llega chunked
+ * - Token bucket por IP ({@link TokenBucketTable}): 429 con Retry-After
+ * - Descarte por latencia: si la media móvil supera latency-slo-ms se rechaza
+ *   una fracción proporcional al exceso (máx. 90%, para seguir midiendo): 503.
+ *   Las rutas que esperan a Google Script (app.admission.upstream-routes) ni
+ *   se descartan ni alimentan la media: su latencia es la del script, no la
+ *   carga de este servidor
+ * - Límite de concurrencia de la clase (Semaphore.tryAcquire, sin esperar): 503
+ *
+ * Va después del access log para que los rechazos queden registrados, y antes
+ * de Spring Security para que el tráfico rechazado no cueste un parseo de JWT.
+ * Métricas: admission.rejected{clase,motivo}, admission.inflight{clase},
+ * admission.latency.ewma{clase} y admission.buckets{clase}.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+  enum Clase { MENU, CHECKOUT, AUTH }
+
+  enum Motivo { SIZE, RATE, SLO, CONCURRENCY }
+
+  // Peso de la última muestra en la media móvil de latencia
+  private static final double ALFA = 0.1;
+
+  private final boolean habilitado;
+  private final Set<String> rutasUpstream;
+  private final Map<Clase, Politica> politicas = new EnumMap<>(Clase.class);
+
+  public AdmissionControlFilter(Environment env, MeterRegistry registry,
+                                @Value("${app.admission.enabled:true}") boolean habilitado,
+                                @Value("${app.admission.stripes:64}") int stripes,
+                                @Value("${app.admission.max-clients:100000}") int maxClientes,
+                                @Value("${app.admission.upstream-routes:/api/public/menu,/api/public/pedidos}") String[] rutasUpstream) {
+    this.habilitado = habilitado;
+    this.rutasUpstream = Set.of(rutasUpstream);
+    politicas.put(Clase.MENU, new Politica(env, registry, Clase.MENU, stripes, maxClientes, 10, 40, 64, 500, 4096));
+    politicas.put(Clase.CHECKOUT, new Politica(env, registry, Clase.CHECKOUT, stripes, maxClientes, 1, 10, 16, 2000, 16384));
+    politicas.put(Clase.AUTH, new Politica(env, registry, Clase.AUTH, stripes, maxClientes, 0.2, 5, 8, 1000, 4096));
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest req) {
+    return !habilitado || "OPTIONS".equals(req.getMethod()) || clasificar(req) == null;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest req, HttpServletResponse res, FilterChain chain)
+      throws ServletException, IOException {
+    Politica p = politicas.get(clasificar(req));
+
+    if ("POST".equals(req.getMethod()) || "PUT".equals(req.getMethod())) {
+      long longitud = req.getContentLengthLong();
+      // Sin Content-Length ni Transfer-Encoding no hay body (p. ej. logout)
+      if (longitud < 0 && req.getHeader(HttpHeaders.TRANSFER_ENCODING) != null) {
+        rechazar(res, p, Motivo.SIZE, HttpServletResponse.SC_LENGTH_REQUIRED, "Se requiere Content-Length");
+        return;
+      }
+      if (longitud > p.maxBody) {
+        rechazar(res, p, Motivo.SIZE, HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE, "Solicitud demasiado grande");
+        return;
+      }
+    }
+
+    long ahora = System.nanoTime();
+    long espera = p.buckets.tomar(req.getRemoteAddr(), ahora);
+    if (espera > 0) {
+      res.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(espera) + 1)));
+      rechazar(res, p, Motivo.RATE, 429, "Demasiadas solicitudes, intenta más tarde");
+      return;
+    }
+
+    boolean upstream = rutasUpstream.contains(req.getRequestURI());
+    if (!upstream && p.descartarPorLatencia()) {
+      res.setHeader(HttpHeaders.RETRY_AFTER, "1");
+      rechazar(res, p, Motivo.SLO, HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Servicio saturado, intenta más tarde");
+      return;
+    }
+
+    if (!p.enCurso.tryAcquire()) {
+      res.setHeader(HttpHeaders.RETRY_AFTER, "1");
+      rechazar(res, p, Motivo.CONCURRENCY, HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Servicio saturado, intenta más tarde");
+      return;
+    }
+    try {
+      chain.doFilter(req, res);
+    } finally {
+      p.enCurso.release();
+      if (!upstream) {
+        p.registrarLatencia(System.nanoTime() - ahora);
+      }
+    }
+  }
+
+  static Clase clasificar(HttpServletRequest req) {
+    String uri = req.getRequestURI();
+    if (uri.startsWith("/api/auth/") || uri.equals("/api/public/login") || uri.equals("/api/public/register")) {
+      return Clase.AUTH;
+    }
+    if (!uri.startsWith("/api/public/")) {
+      return null;
+    }
+    // Los POST públicos restantes (pedidos, echo) escriben; los GET solo leen
+    return "POST".equals(req.getMethod()) ? Clase.CHECKOUT : Clase.MENU;
+  }
+
+  private static void rechazar(HttpServletResponse res, Politica p, Motivo motivo, int status, String mensaje)
+      throws IOException {
+    p.rechazos.get(motivo).increment();
+    byte[] body = ("{\"ok\":false,\"error\":\"" + mensaje + "\"}").getBytes(StandardCharsets.UTF_8);
+    res.setStatus(status);
+    res.setContentType("application/json;charset=UTF-8");
+    res.setContentLength(body.length);
+    res.getOutputStream().write(body);
+  }
+
+  /**
+   * Límites y estado de una clase de rutas (app.admission.&lt;clase&gt;.*).
+   */
+  private static final class Politica {
+    final TokenBucketTable buckets;
+    final Semaphore enCurso;
+    final long maxBody;
+    final long sloNanos;
+    final AtomicLong latenciaMedia = new AtomicLong();
+    final Map<Motivo, Counter> rechazos = new EnumMap<>(Motivo.class);
+
+    Politica(Environment env, MeterRegistry registry, Clase clase, int stripes, int maxClientes,
+             double tasa, double rafaga, int concurrencia, long sloMs, long maxBody) {
+      String nombre = clase.name().toLowerCase(Locale.ROOT);
+      String prefijo = "app.admission." + nombre + ".";
+      this.buckets = new TokenBucketTable(stripes, maxClientes,
+          env.getProperty(prefijo + "rate-per-second", Double.class, tasa),
+          env.getProperty(prefijo + "burst", Double.class, rafaga));
+      int maxConcurrencia = env.getProperty(prefijo + "max-concurrent", Integer.class, concurrencia);
+      this.enCurso = new Semaphore(maxConcurrencia);
+      this.sloNanos = TimeUnit.MILLISECONDS.toNanos(env.getProperty(prefijo + "latency-slo-ms", Long.class, sloMs));
+      this.maxBody = env.getProperty(prefijo + "max-body-bytes", Long.class, maxBody);
+
+      for (Motivo motivo : Motivo.values()) {
+        rechazos.put(motivo, Counter.builder("admission.rejected")
+            .description("Solicitudes rechazadas por el control de admisión")
+            .tag("clase", nombre)
+            .tag("motivo", motivo.name().toLowerCase(Locale.ROOT))
+            .register(registry));
+      }
+      Gauge.builder("admission.inflight", enCurso, s -> maxConcurrencia - s.availablePermits())
+          .tag("clase", nombre).register(registry);
+      Gauge.builder("admission.latency.ewma", latenciaMedia, l -> l.get() / 1_000_000.0)
+          .description("Media móvil de latencia de las solicitudes admitidas (ms)")
+          .tag("clase", nombre).register(registry);
+      Gauge.builder("admission.buckets", buckets, TokenBucketTable::tamano)
+          .tag("clase", nombre).register(registry);
+    }
+
+    boolean descartarPorLatencia() {
+      long media = latenciaMedia.get();
+      if (sloNanos <= 0 || media <= sloNanos) {
+        return false;
+      }
+      double fraccion = Math.min(0.9, (double) (media - sloNanos) / sloNanos);
+      return ThreadLocalRandom.current().nextDouble() < fraccion;
+    }
+
+    void registrarLatencia(long nanos) {
+      // Parte de 0: una sola request lenta (p. ej. la primera tras arrancar) no dispara el descarte.
+      // Actualización con pérdida: bajo carrera se pierde alguna muestra, no importa
+      long media = latenciaMedia.get();
+      latenciaMedia.set((long) (media + ALFA * (nanos - media)));
+    }
+  }
+}
@@ -0,0 +1,99 @@
+package com.example.backend.filters;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.cors.CorsUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Único punto de CORS de la aplicación (app.cors.*).
+ *
+ * Es el primer filtro de la cadena: los preflight (OPTIONS con
+ * Access-Control-Request-Method) se responden aquí mismo, sin pasar por
+ * Spring Security, JwtAuthFilter ni el access log. Los orígenes se comparan
+ * contra un HashSet y los headers de respuesta se precalculan al arrancar.
+ * Con Access-Control-Max-Age alto el navegador reutiliza el preflight.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class CorsPolicyFilter extends OncePerRequestFilter {
+
+  private final Set<String> origenes;
+  private final Set<String> metodos;
+  private final String metodosPermitidos;
+  private final String maxAge;
+
+  public CorsPolicyFilter(@Value("${app.cors.allowed-origins}") String[] origenes,
+                          @Value("${app.cors.allowed-methods:GET,POST,PUT,DELETE,OPTIONS}") String[] metodos,
+                          @Value("${app.cors.max-age-seconds:86400}") long maxAgeSegundos) {
+    this.origenes = new HashSet<>(Arrays.asList(recortar(origenes)));
+    this.metodos = new HashSet<>(Arrays.asList(recortar(metodos)));
+    this.metodosPermitidos = String.join(",", recortar(metodos));
+    this.maxAge = Long.toString(maxAgeSegundos);
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest req, HttpServletResponse res, FilterChain chain)
+      throws ServletException, IOException {
+    String origen = req.getHeader(HttpHeaders.ORIGIN);
+    if (origen == null || !CorsUtils.isCorsRequest(req)) {
+      chain.doFilter(req, res);
+      return;
+    }
+
+    res.addHeader(HttpHeaders.VARY, HttpHeaders.ORIGIN);
+    boolean permitido = origenes.contains(origen);
+    String metodoPreflight = req.getHeader(HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD);
+
+    if ("OPTIONS".equals(req.getMethod()) && metodoPreflight != null) {
+      if (!permitido || !metodos.contains(metodoPreflight.toUpperCase(Locale.ROOT))) {
+        res.setStatus(HttpServletResponse.SC_FORBIDDEN);
+        return;
+      }
+      escribirPermiso(res, origen);
+      res.setHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_METHODS, metodosPermitidos);
+      String headers = req.getHeader(HttpHeaders.ACCESS_CONTROL_REQUEST_HEADERS);
+      if (headers != null) {
+        // Se aceptan todos los headers solicitados (equivale a allowedHeaders=*)
+        res.setHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_HEADERS, headers);
+      }
+      res.setHeader(HttpHeaders.ACCESS_CONTROL_MAX_AGE, maxAge);
+      res.setStatus(HttpServletResponse.SC_OK);
+      return;
+    }
+
+    if (!permitido) {
+      res.setStatus(HttpServletResponse.SC_FORBIDDEN);
+      return;
+    }
+    escribirPermiso(res, origen);
+    chain.doFilter(req, res);
+  }
+
+  private static void escribirPermiso(HttpServletResponse res, String origen) {
+    res.setHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, origen);
+    res.setHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_CREDENTIALS, "true");
+  }
+
+  private static String[] recortar(String[] valores) {
+    String[] resultado = new String[valores.length];
+    for (int i = 0; i < valores.length; i++) {
+      resultado[i] = valores[i].trim();
+    }
+    return resultado;
+  }
+}
@@ -0,0 +1,101 @@
+package com.example.backend.filters;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.example.backend.exception.DeadlineExceededException;
+import com.example.backend.service.Deadline;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Fija el presupuesto de tiempo de cada request según su ruta
+ * (app.deadline.routes, p. ej. /api/public/menu=3000; gana el primer prefijo
+ * que coincide). Las rutas sin regla usan app.deadline.default-ms; 0 = sin límite.
+ *
+ * Corre después del control de admisión: el tiempo en cola del servlet
+ * container no se descuenta, solo el trabajo propio de la solicitud.
+ * Un deadline vencido fuera de los controladores (p. ej. al cargar el usuario
+ * del JWT) no llega a GlobalExceptionHandler: aquí se responde 504.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 30)
+public class DeadlineFilter extends OncePerRequestFilter {
+
+  private final boolean habilitado;
+  private final String[] prefijos;
+  private final long[] presupuestos;
+  private final long presupuestoPorDefecto;
+
+  public DeadlineFilter(@Value("${app.deadline.enabled:true}") boolean habilitado,
+                        @Value("${app.deadline.routes:}") String[] reglas,
+                        @Value("${app.deadline.default-ms:0}") long presupuestoPorDefecto) {
+    this.habilitado = habilitado;
+    this.presupuestoPorDefecto = presupuestoPorDefecto;
+    this.prefijos = new String[reglas.length];
+    this.presupuestos = new long[reglas.length];
+    for (int i = 0; i < reglas.length; i++) {
+      String[] partes = reglas[i].trim().split("=", 2);
+      prefijos[i] = partes[0].trim();
+      presupuestos[i] = partes.length > 1 ? Long.parseLong(partes[1].trim()) : presupuestoPorDefecto;
+    }
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest req) {
+    return !habilitado;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest req, HttpServletResponse res, FilterChain chain)
+      throws ServletException, IOException {
+    long presupuesto = presupuesto(req.getRequestURI());
+    if (presupuesto <= 0) {
+      chain.doFilter(req, res);
+      return;
+    }
+    Deadline.iniciar(presupuesto);
+    try {
+      chain.doFilter(req, res);
+    } catch (ServletException | RuntimeException e) {
+      DeadlineExceededException vencido = buscarVencido(e);
+      if (vencido == null || res.isCommitted()) {
+        throw e;
+      }
+      byte[] body = ("{\"ok\":false,\"error\":\"" + vencido.getMessage() + "\"}").getBytes(StandardCharsets.UTF_8);
+      res.setStatus(HttpServletResponse.SC_GATEWAY_TIMEOUT);
+      res.setContentType("application/json;charset=UTF-8");
+      res.setContentLength(body.length);
+      res.getOutputStream().write(body);
+    } finally {
+      Deadline.limpiar();
+    }
+  }
+
+  private static DeadlineExceededException buscarVencido(Throwable e) {
+    for (Throwable t = e; t != null; t = t.getCause()) {
+      if (t instanceof DeadlineExceededException d) {
+        return d;
+      }
+    }
+    return null;
+  }
+
+  private long presupuesto(String uri) {
+    for (int i = 0; i < prefijos.length; i++) {
+      if (uri.startsWith(prefijos[i])) {
+        return presupuestos[i];
+      }
+    }
+    return presupuestoPorDefecto;
+  }
+}
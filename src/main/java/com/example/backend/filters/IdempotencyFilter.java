@@ -0,0 +1,125 @@
+package com.example.backend.filters;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import com.example.backend.service.IdempotencyService;
+import com.example.backend.service.IdempotencyService.RespuestaGuardada;
+import com.example.backend.service.IdempotencyService.Reserva;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Deduplica envíos repetidos de pedidos usando el header Idempotency-Key.
+ * La primera respuesta se guarda y los reintentos con la misma clave la reciben
+ * tal cual, sin crear otro Pedido ni volver a escribir en Google Script.
+ *
+ * La clave es por llamador (usuario autenticado o, si es anónimo, IP del
+ * cliente): otro cliente que reutilice o adivine la clave no recibe la
+ * respuesta guardada, con los datos del pedido, de otro. Corre después de
+ * Spring Security (orden por defecto), así que el usuario ya está resuelto.
+ */
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+  public static final String HEADER = "Idempotency-Key";
+  private static final int MAX_LONGITUD_CLAVE = 128;
+
+  private final IdempotencyService idempotencyService;
+  private final Set<String> rutas;
+
+  public IdempotencyFilter(IdempotencyService idempotencyService,
+                           @Value("${app.idempotency.paths:/api/public/pedidos,/api/pedidos}") String[] rutas) {
+    this.idempotencyService = idempotencyService;
+    this.rutas = Set.of(rutas);
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest req) {
+    return !"POST".equals(req.getMethod())
+        || !rutas.contains(req.getRequestURI())
+        || !StringUtils.hasText(req.getHeader(HEADER));
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest req, HttpServletResponse res, FilterChain chain)
+      throws ServletException, IOException {
+    String clave = req.getHeader(HEADER);
+    if (clave.length() > MAX_LONGITUD_CLAVE) {
+      escribirError(res, HttpServletResponse.SC_BAD_REQUEST, "Idempotency-Key demasiado larga");
+      return;
+    }
+    String claveCompleta = req.getMethod() + " " + req.getRequestURI() + " " + clave + " " + huellaLlamador(req);
+
+    Reserva reserva = idempotencyService.reservar(claveCompleta);
+    switch (reserva.estado()) {
+      case COMPLETADA -> {
+        reproducir(res, reserva.respuesta());
+        return;
+      }
+      case EN_CURSO -> {
+        escribirError(res, HttpServletResponse.SC_CONFLICT, "Ya hay una solicitud en curso con esta Idempotency-Key");
+        return;
+      }
+      default -> { }
+    }
+
+    ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(res);
+    boolean completado = false;
+    try {
+      chain.doFilter(req, wrapper);
+      int status = wrapper.getStatus();
+      // Solo se guardan respuestas exitosas: tras un error el cliente puede corregir y reintentar
+      if (status >= 200 && status < 300) {
+        idempotencyService.completar(claveCompleta,
+            new RespuestaGuardada(status, wrapper.getContentType(), wrapper.getContentAsByteArray()));
+        completado = true;
+      }
+    } finally {
+      if (!completado) {
+        idempotencyService.liberar(claveCompleta);
+      }
+      wrapper.copyBodyToResponse();
+    }
+  }
+
+  /**
+   * Hash del usuario (o de la IP si es anónimo): longitud fija para que la
+   * clave quepa en idempotency_records.clave con cualquier username.
+   */
+  private static String huellaLlamador(HttpServletRequest req) {
+    Principal usuario = req.getUserPrincipal();
+    String llamador = usuario != null ? "usuario:" + usuario.getName() : "ip:" + req.getRemoteAddr();
+    return DigestUtils.md5DigestAsHex(llamador.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private void reproducir(HttpServletResponse res, RespuestaGuardada respuesta) throws IOException {
+    res.setStatus(respuesta.status());
+    if (respuesta.contentType() != null) {
+      res.setContentType(respuesta.contentType());
+    }
+    res.setHeader("Idempotent-Replayed", "true");
+    res.setContentLength(respuesta.body().length);
+    res.getOutputStream().write(respuesta.body());
+  }
+
+  private void escribirError(HttpServletResponse res, int status, String mensaje) throws IOException {
+    byte[] body = ("{\"ok\":false,\"error\":\"" + mensaje + "\"}").getBytes(StandardCharsets.UTF_8);
+    res.setStatus(status);
+    res.setContentType("application/json;charset=UTF-8");
+    res.setContentLength(body.length);
+    res.getOutputStream().write(body);
+  }
+}
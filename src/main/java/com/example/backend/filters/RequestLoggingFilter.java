@@ -1,21 +1,183 @@
 package com.example.backend.filters;
 
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.concurrent.ThreadLocalRandom;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
 
+/**
+ * Access log estructurado y muestreado.
+ *
+ * Por cada request se decide si se registra según reglas por prefijo de ruta
+ * (app.access-log.sampling, p. ej. /api/public/menu=0.01) y el método OPTIONS;
+ * las respuestas con status >= 400 se registran siempre. El registro solo copia
+ * valores al {@link AccessLogRingBuffer}; el formateo y la escritura a disco
+ * ocurren en su hilo de fondo.
+ *
+ * Si la cadena lanza una excepción se registra 500 (lo que responderá el
+ * contenedor), salvo que la respuesta ya estuviera confirmada.
+ */
 @Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
 public class RequestLoggingFilter extends OncePerRequestFilter {
+
+  private final AccessLogRingBuffer buffer;
+  private final boolean habilitado;
+  private final String[] prefijos;
+  private final double[] tasas;
+  private final double tasaPorDefecto;
+  private final double tasaOptions;
+
+  public RequestLoggingFilter(AccessLogRingBuffer buffer,
+                              @Value("${app.access-log.enabled:true}") boolean habilitado,
+                              @Value("${app.access-log.sampling:}") String[] reglas,
+                              @Value("${app.access-log.default-sample-rate:1.0}") double tasaPorDefecto,
+                              @Value("${app.access-log.options-sample-rate:0.0}") double tasaOptions) {
+    this.buffer = buffer;
+    this.habilitado = habilitado;
+    this.tasaPorDefecto = tasaPorDefecto;
+    this.tasaOptions = tasaOptions;
+    this.prefijos = new String[reglas.length];
+    this.tasas = new double[reglas.length];
+    for (int i = 0; i < reglas.length; i++) {
+      String[] partes = reglas[i].trim().split("=", 2);
+      prefijos[i] = partes[0].trim();
+      tasas[i] = partes.length > 1 ? Double.parseDouble(partes[1].trim()) : tasaPorDefecto;
+    }
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest req) {
+    return !habilitado;
+  }
+
   @Override
   protected void doFilterInternal(HttpServletRequest req, HttpServletResponse res, FilterChain chain)
       throws ServletException, IOException {
-    logger.info("REQ " + req.getMethod() + " " + req.getRequestURI() + " from " + req.getRemoteAddr());
-    chain.doFilter(req, res);
+    long inicio = System.nanoTime();
+    ContadorBytes contador = new ContadorBytes(res);
+    boolean fallo = true;
+    try {
+      chain.doFilter(req, contador);
+      contador.terminar();
+      fallo = false;
+    } finally {
+      int status = fallo && !res.isCommitted() ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : res.getStatus();
+      if (status >= 400 || muestrear(req)) {
+        buffer.registrar(System.currentTimeMillis(), req.getMethod(), req.getRequestURI(),
+            req.getRemoteAddr(), status, System.nanoTime() - inicio, contador.bytes);
+      }
+    }
+  }
+
+  private boolean muestrear(HttpServletRequest req) {
+    double tasa = tasaPorDefecto;
+    if ("OPTIONS".equals(req.getMethod())) {
+      tasa = tasaOptions;
+    } else {
+      String uri = req.getRequestURI();
+      for (int i = 0; i < prefijos.length; i++) {
+        if (uri.startsWith(prefijos[i])) {
+          tasa = tasas[i];
+          break;
+        }
+      }
+    }
+    return tasa >= 1.0 || (tasa > 0 && ThreadLocalRandom.current().nextDouble() < tasa);
+  }
+
+  /**
+   * Cuenta los bytes del cuerpo escritos por la respuesta, por getOutputStream()
+   * o por getWriter() (que codifica sobre el mismo flujo contado).
+   */
+  private static final class ContadorBytes extends HttpServletResponseWrapper {
+
+    private long bytes;
+    private ServletOutputStream salida;
+    private PrintWriter escritor;
+
+    ContadorBytes(HttpServletResponse res) {
+      super(res);
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+      if (salida == null) {
+        ServletOutputStream original = super.getOutputStream();
+        salida = new ServletOutputStream() {
+          @Override
+          public void write(int b) throws IOException {
+            original.write(b);
+            bytes++;
+          }
+
+          @Override
+          public void write(byte[] b, int off, int len) throws IOException {
+            original.write(b, off, len);
+            bytes += len;
+          }
+
+          @Override
+          public void flush() throws IOException {
+            original.flush();
+          }
+
+          @Override
+          public void close() throws IOException {
+            original.close();
+          }
+
+          @Override
+          public boolean isReady() {
+            return original.isReady();
+          }
+
+          @Override
+          public void setWriteListener(WriteListener listener) {
+            original.setWriteListener(listener);
+          }
+        };
+      }
+      return salida;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+      if (escritor == null) {
+        escritor = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+      }
+      return escritor;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+      if (escritor != null) {
+        escritor.flush();
+      }
+      super.flushBuffer();
+    }
+
+    /**
+     * Vacía el texto pendiente del writer: el contenedor solo vacía su propio buffer.
+     */
+    void terminar() {
+      if (escritor != null) {
+        escritor.flush();
+      }
+    }
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,103 @@
+package com.example.backend.filters;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Token buckets por clave (IP del cliente) con memoria acotada.
+ *
+ * OPTIMIZACIÓN:
+ * - La tabla se divide en stripes, cada uno con su propio lock: clientes
+ *   distintos casi nunca compiten por el mismo monitor
+ * - Cada stripe es un LinkedHashMap en orden de acceso que descarta la
+ *   entrada menos usada al superar su capacidad: un barrido de IPs no hace
+ *   crecer la memoria (la IP descartada vuelve con la cubeta llena)
+ * - El rellenado es perezoso: se calcula con el tiempo transcurrido al tomar
+ *   una ficha, sin hilos ni timers
+ */
+public final class TokenBucketTable {
+
+  private static final long NANOS_POR_SEGUNDO = 1_000_000_000L;
+
+  private static final class Cubeta {
+    double fichas;
+    long ultimoRelleno;
+  }
+
+  private final Stripe[] stripes;
+  private final int mascara;
+  private final double fichasPorNano;
+  private final double rafaga;
+
+  /**
+   * @param stripes Cantidad de stripes (se redondea a potencia de 2)
+   * @param capacidad Máximo de claves en memoria entre todos los stripes
+   * @param tasaPorSegundo Fichas que se reponen por segundo
+   * @param rafaga Capacidad de la cubeta (peticiones seguidas permitidas)
+   */
+  public TokenBucketTable(int stripes, int capacidad, double tasaPorSegundo, double rafaga) {
+    int n = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+    this.stripes = new Stripe[n];
+    int porStripe = Math.max(1, capacidad / n);
+    for (int i = 0; i < n; i++) {
+      this.stripes[i] = new Stripe(porStripe);
+    }
+    this.mascara = n - 1;
+    this.fichasPorNano = tasaPorSegundo / NANOS_POR_SEGUNDO;
+    this.rafaga = Math.max(1, rafaga);
+  }
+
+  /**
+   * Intenta consumir una ficha de la cubeta de la clave.
+   *
+   * @param clave Clave del cliente
+   * @param ahoraNanos Reloj monotónico (System.nanoTime())
+   * @return 0 si se admitió; si no, nanos hasta que haya una ficha disponible
+   */
+  public long tomar(String clave, long ahoraNanos) {
+    int h = clave.hashCode();
+    Stripe stripe = stripes[(h ^ (h >>> 16)) & mascara];
+    synchronized (stripe) {
+      Cubeta c = stripe.get(clave);
+      if (c == null) {
+        c = new Cubeta();
+        c.fichas = rafaga;
+        c.ultimoRelleno = ahoraNanos;
+        stripe.put(clave, c);
+      } else {
+        c.fichas = Math.min(rafaga, c.fichas + (ahoraNanos - c.ultimoRelleno) * fichasPorNano);
+        c.ultimoRelleno = ahoraNanos;
+      }
+      if (c.fichas >= 1) {
+        c.fichas -= 1;
+        return 0;
+      }
+      return fichasPorNano > 0 ? Math.max(1, (long) ((1 - c.fichas) / fichasPorNano)) : Long.MAX_VALUE;
+    }
+  }
+
+  /**
+   * Claves actualmente en memoria (aproximado, sin bloquear).
+   */
+  public int tamano() {
+    int total = 0;
+    for (Stripe s : stripes) {
+      total += s.size();
+    }
+    return total;
+  }
+
+  private static final class Stripe extends LinkedHashMap<String, Cubeta> {
+    private final int capacidad;
+
+    Stripe(int capacidad) {
+      super(16, 0.75f, true);
+      this.capacidad = capacidad;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, Cubeta> mayor) {
+      return size() > capacidad;
+    }
+  }
+}
@@ -0,0 +1,56 @@
+package com.example.backend.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * Evento del bus de invalidación JDBC: "cambió {clave} de {canal}".
+ * Los demás nodos lo leen por id creciente; las filas se podan tras
+ * app.cache.bus.retention-minutes.
+ */
+@Entity
+@Table(name = "eventos_invalidacion", indexes = {
+    @Index(name = "idx_evento_creado", columnList = "creadoEn")
+})
+public class EventoInvalidacion {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 32)
+    private String canal;
+
+    @Column(nullable = false, length = 128)
+    private String clave;
+
+    @Column(nullable = false, length = 36)
+    private String origen; // nodo que publicó (no se lo re-entrega a sí mismo)
+
+    private Long creadoEn; // epoch millis
+
+    public EventoInvalidacion() {}
+
+    public EventoInvalidacion(String canal, String clave, String origen, Long creadoEn) {
+        this.canal = canal;
+        this.clave = clave;
+        this.origen = origen;
+        this.creadoEn = creadoEn;
+    }
+
+    // getters y setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getCanal() { return canal; }
+    public void setCanal(String canal) { this.canal = canal; }
+    public String getClave() { return clave; }
+    public void setClave(String clave) { this.clave = clave; }
+    public String getOrigen() { return origen; }
+    public void setOrigen(String origen) { this.origen = origen; }
+    public Long getCreadoEn() { return creadoEn; }
+    public void setCreadoEn(Long creadoEn) { this.creadoEn = creadoEn; }
+}
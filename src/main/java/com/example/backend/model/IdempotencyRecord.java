@@ -0,0 +1,50 @@
+package com.example.backend.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+
+/**
+ * Respuesta persistida para una clave de idempotencia.
+ * Solo se usa cuando app.idempotency.persist=true, para que los reintentos
+ * sobrevivan a un reinicio del nodo.
+ */
+@Entity
+@Table(name = "idempotency_keys")
+public class IdempotencyRecord {
+    @Id
+    @Column(length = 300)
+    private String clave; // METODO + URI + Idempotency-Key + huella del llamador
+
+    private Integer status;
+    private String contentType;
+
+    @Lob
+    private byte[] body;
+
+    private Long creadoEn; // epoch millis
+
+    public IdempotencyRecord() {}
+
+    public IdempotencyRecord(String clave, Integer status, String contentType, byte[] body, Long creadoEn) {
+        this.clave = clave;
+        this.status = status;
+        this.contentType = contentType;
+        this.body = body;
+        this.creadoEn = creadoEn;
+    }
+
+    // getters y setters
+    public String getClave() { return clave; }
+    public void setClave(String clave) { this.clave = clave; }
+    public Integer getStatus() { return status; }
+    public void setStatus(Integer status) { this.status = status; }
+    public String getContentType() { return contentType; }
+    public void setContentType(String contentType) { this.contentType = contentType; }
+    public byte[] getBody() { return body; }
+    public void setBody(byte[] body) { this.body = body; }
+    public Long getCreadoEn() { return creadoEn; }
+    public void setCreadoEn(Long creadoEn) { this.creadoEn = creadoEn; }
+}
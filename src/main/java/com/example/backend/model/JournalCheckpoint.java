@@ -0,0 +1,38 @@
+package com.example.backend.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Hasta dónde se aplicó un journal a la BD. Se escribe en la misma
+ * transacción que los cambios aplicados: al reiniciar, la repetición
+ * empieza justo después.
+ */
+@Entity
+@Table(name = "journal_checkpoint")
+public class JournalCheckpoint {
+    @Id
+    @Column(length = 32)
+    private String nombre;
+
+    private Long segmento;
+    private Integer posicion; // offset dentro del segmento tras el último registro aplicado
+
+    public JournalCheckpoint() {}
+
+    public JournalCheckpoint(String nombre, Long segmento, Integer posicion) {
+        this.nombre = nombre;
+        this.segmento = segmento;
+        this.posicion = posicion;
+    }
+
+    // getters y setters
+    public String getNombre() { return nombre; }
+    public void setNombre(String nombre) { this.nombre = nombre; }
+    public Long getSegmento() { return segmento; }
+    public void setSegmento(Long segmento) { this.segmento = segmento; }
+    public Integer getPosicion() { return posicion; }
+    public void setPosicion(Integer posicion) { this.posicion = posicion; }
+}
@@ -5,12 +5,15 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 
 @Entity
 @Table(name = "pedidos")
 public class Pedido {
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Secuencia con bloques pre-asignados: permite inserts en batch (IDENTITY los impide)
+    @Id @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pedidos_seq")
+    @SequenceGenerator(name = "pedidos_seq", sequenceName = "pedidos_seq", allocationSize = 50)
     private Long id;
 
     private String nombreCliente;
@@ -21,8 +24,13 @@ public class Pedido {
     @Column(length=2000)
     private String itemsJson; // guardamos array JSON de items
 
+    @Column(length=6000) // PedidoItemsCodec.MAX_BYTES: peor caso de un itemsJson de 2000 caracteres
+    private byte[] itemsBin; // items empaquetados (modo compacto); itemsJson queda null
+
     private String estado; // PENDIENTE, ATENDIDO
 
+    private Long creadoEn; // epoch millis; null en filas anteriores a esta columna
+
     public Pedido() {}
     // getters y setters
     public Long getId() { return id; }
@@ -37,6 +45,10 @@ public class Pedido {
     public void setTotal(Integer total) { this.total = total; }
     public String getItemsJson() { return itemsJson; }
     public void setItemsJson(String itemsJson) { this.itemsJson = itemsJson; }
+    public byte[] getItemsBin() { return itemsBin; }
+    public void setItemsBin(byte[] itemsBin) { this.itemsBin = itemsBin; }
     public String getEstado() { return estado; }
     public void setEstado(String estado) { this.estado = estado; }
+    public Long getCreadoEn() { return creadoEn; }
+    public void setCreadoEn(Long creadoEn) { this.creadoEn = creadoEn; }
 }
\ No newline at end of file
@@ -0,0 +1,87 @@
+package com.example.backend.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+
+import org.springframework.data.domain.Persistable;
+
+/**
+ * Pedido cerrado (ATENDIDO / CANCELADO) movido fuera de la tabla caliente.
+ * Conserva el id original; solo se consulta cuando un id no está en pedidos.
+ */
+@Entity
+@Table(name = "pedidos_archivo")
+public class PedidoArchivado implements Persistable<Long> {
+    @Id
+    private Long id; // mismo id que tenía en pedidos
+
+    private String nombreCliente;
+    private String telefono;
+    private String direccion;
+    private Integer total;
+
+    @Column(length=2000)
+    private String itemsJson;
+
+    @Column(length=6000) // PedidoItemsCodec.MAX_BYTES
+    private byte[] itemsBin;
+
+    private String estado;
+    private Long creadoEn; // epoch millis
+    private Long archivadoEn; // epoch millis
+
+    // El id viene asignado: sin esto save() haría un SELECT previo (merge) por fila
+    @Transient
+    private boolean nuevo = true;
+
+    public PedidoArchivado() {}
+
+    public PedidoArchivado(Pedido p, long archivadoEn) {
+        this.id = p.getId();
+        this.nombreCliente = p.getNombreCliente();
+        this.telefono = p.getTelefono();
+        this.direccion = p.getDireccion();
+        this.total = p.getTotal();
+        this.itemsJson = p.getItemsJson();
+        this.itemsBin = p.getItemsBin();
+        this.estado = p.getEstado();
+        this.creadoEn = p.getCreadoEn();
+        this.archivadoEn = archivadoEn;
+    }
+
+    /**
+     * Copia no gestionada como Pedido, para reutilizar la conversión a DTO.
+     */
+    public Pedido aPedido() {
+        Pedido p = new Pedido();
+        p.setId(id);
+        p.setNombreCliente(nombreCliente);
+        p.setTelefono(telefono);
+        p.setDireccion(direccion);
+        p.setTotal(total);
+        p.setItemsJson(itemsJson);
+        p.setItemsBin(itemsBin);
+        p.setEstado(estado);
+        p.setCreadoEn(creadoEn);
+        return p;
+    }
+
+    @PostLoad
+    @PostPersist
+    void marcarPersistido() { this.nuevo = false; }
+
+    @Override
+    public boolean isNew() { return nuevo; }
+
+    // getters
+    @Override
+    public Long getId() { return id; }
+    public String getEstado() { return estado; }
+    public Long getCreadoEn() { return creadoEn; }
+    public Long getArchivadoEn() { return archivadoEn; }
+}
@@ -0,0 +1,61 @@
+package com.example.backend.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Entrada del registro de cambios de pedidos (solo se agregan filas).
+ * Se escribe en la misma transacción que el cambio que describe.
+ */
+@Entity
+@Table(name = "pedidos_cambios")
+public class PedidoCambio {
+
+    public static final String TIPO_CREADO = "CREADO";
+    public static final String TIPO_ESTADO = "ESTADO";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long seq; // orden de los cambios; los consumidores piden ?since=seq
+
+    @Column(nullable = false)
+    private Long pedidoId;
+
+    @Column(nullable = false, length = 16)
+    private String tipo;
+
+    @Column(nullable = false, length = 20)
+    private String estado; // estado del pedido tras el cambio
+
+    private Integer total;
+
+    private Long ocurridoEn; // epoch millis
+
+    public PedidoCambio() {}
+
+    public PedidoCambio(Long pedidoId, String tipo, String estado, Integer total, Long ocurridoEn) {
+        this.pedidoId = pedidoId;
+        this.tipo = tipo;
+        this.estado = estado;
+        this.total = total;
+        this.ocurridoEn = ocurridoEn;
+    }
+
+    // getters y setters
+    public Long getSeq() { return seq; }
+    public void setSeq(Long seq) { this.seq = seq; }
+    public Long getPedidoId() { return pedidoId; }
+    public void setPedidoId(Long pedidoId) { this.pedidoId = pedidoId; }
+    public String getTipo() { return tipo; }
+    public void setTipo(String tipo) { this.tipo = tipo; }
+    public String getEstado() { return estado; }
+    public void setEstado(String estado) { this.estado = estado; }
+    public Integer getTotal() { return total; }
+    public void setTotal(Integer total) { this.total = total; }
+    public Long getOcurridoEn() { return ocurridoEn; }
+    public void setOcurridoEn(Long ocurridoEn) { this.ocurridoEn = ocurridoEn; }
+}
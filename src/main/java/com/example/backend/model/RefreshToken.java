@@ -0,0 +1,81 @@
+package com.example.backend.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+
+import org.springframework.data.domain.Persistable;
+
+/**
+ * Refresh token rotativo. Solo se guarda el SHA-256 del token: una fuga de
+ * la tabla no permite renovar sesiones.
+ *
+ * Cada renovación marca la fila como usada y emite otra de la misma familia;
+ * presentar de nuevo un token usado indica robo y revoca toda la familia.
+ */
+@Entity
+@Table(name = "refresh_tokens", indexes = {
+    @Index(name = "idx_refresh_familia", columnList = "familia"),
+    @Index(name = "idx_refresh_username", columnList = "username")
+})
+public class RefreshToken implements Persistable<String> {
+    @Id
+    @Column(length = 64)
+    private String hash; // SHA-256 en hex del token entregado al cliente
+
+    @Column(nullable = false)
+    private String username;
+
+    @Column(nullable = false)
+    private String rol; // rol al emitirse (al renovar se usa el rol actual del usuario)
+
+    @Column(nullable = false, length = 36)
+    private String familia; // UUID compartido por todas las rotaciones de un login
+
+    private Long expiraEn; // epoch millis, el mismo para toda la familia
+
+    private boolean usado;
+
+    // El hash es un id asignado: sin esto save() haría un SELECT (merge) antes del INSERT
+    @Transient
+    private boolean nuevo = true;
+
+    public RefreshToken() {}
+
+    public RefreshToken(String hash, String username, String rol, String familia, Long expiraEn) {
+        this.hash = hash;
+        this.username = username;
+        this.rol = rol;
+        this.familia = familia;
+        this.expiraEn = expiraEn;
+    }
+
+    @PostLoad
+    @PostPersist
+    void marcarPersistido() { this.nuevo = false; }
+
+    @Override
+    public boolean isNew() { return nuevo; }
+
+    @Override
+    public String getId() { return hash; }
+
+    // getters y setters
+    public String getHash() { return hash; }
+    public void setHash(String hash) { this.hash = hash; }
+    public String getUsername() { return username; }
+    public void setUsername(String username) { this.username = username; }
+    public String getRol() { return rol; }
+    public void setRol(String rol) { this.rol = rol; }
+    public String getFamilia() { return familia; }
+    public void setFamilia(String familia) { this.familia = familia; }
+    public Long getExpiraEn() { return expiraEn; }
+    public void setExpiraEn(Long expiraEn) { this.expiraEn = expiraEn; }
+    public boolean isUsado() { return usado; }
+    public void setUsado(boolean usado) { this.usado = usado; }
+}
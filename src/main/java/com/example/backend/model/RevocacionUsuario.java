@@ -0,0 +1,36 @@
+package com.example.backend.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Revocación de todos los tokens de un usuario emitidos antes de un instante.
+ * Deja de hacer falta cuando el último de esos tokens vence (expiraEn).
+ */
+@Entity
+@Table(name = "revocaciones_usuario")
+public class RevocacionUsuario {
+    @Id
+    private String username;
+
+    private Long revocadoAntes; // epoch millis: se rechazan los tokens con iat anterior
+
+    private Long expiraEn; // epoch millis
+
+    public RevocacionUsuario() {}
+
+    public RevocacionUsuario(String username, Long revocadoAntes, Long expiraEn) {
+        this.username = username;
+        this.revocadoAntes = revocadoAntes;
+        this.expiraEn = expiraEn;
+    }
+
+    // getters y setters
+    public String getUsername() { return username; }
+    public void setUsername(String username) { this.username = username; }
+    public Long getRevocadoAntes() { return revocadoAntes; }
+    public void setRevocadoAntes(Long revocadoAntes) { this.revocadoAntes = revocadoAntes; }
+    public Long getExpiraEn() { return expiraEn; }
+    public void setExpiraEn(Long expiraEn) { this.expiraEn = expiraEn; }
+}
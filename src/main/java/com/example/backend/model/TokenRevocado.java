@@ -0,0 +1,38 @@
+package com.example.backend.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Token JWT revocado (logout), identificado por su jti.
+ * La fila se borra cuando el token habría vencido de todos modos.
+ */
+@Entity
+@Table(name = "tokens_revocados")
+public class TokenRevocado {
+    @Id
+    @Column(length = 64)
+    private String jti;
+
+    private String username;
+
+    private Long expiraEn; // epoch millis del exp del token
+
+    public TokenRevocado() {}
+
+    public TokenRevocado(String jti, String username, Long expiraEn) {
+        this.jti = jti;
+        this.username = username;
+        this.expiraEn = expiraEn;
+    }
+
+    // getters y setters
+    public String getJti() { return jti; }
+    public void setJti(String jti) { this.jti = jti; }
+    public String getUsername() { return username; }
+    public void setUsername(String username) { this.username = username; }
+    public Long getExpiraEn() { return expiraEn; }
+    public void setExpiraEn(Long expiraEn) { this.expiraEn = expiraEn; }
+}
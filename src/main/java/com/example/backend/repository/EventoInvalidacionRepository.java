@@ -0,0 +1,47 @@
+package com.example.backend.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.backend.model.EventoInvalidacion;
+
+public interface EventoInvalidacionRepository extends JpaRepository<EventoInvalidacion, Long> {
+
+    /**
+     * Eventos posteriores al último leído, en orden de publicación.
+     *
+     * OPTIMIZACIÓN:
+     * - Rango sobre la PK: el sondeo sin novedades es una búsqueda vacía en el índice
+     * - Lotes acotados (Limit) tras una ráfaga de escrituras
+     *
+     * @param desde Último id ya procesado
+     * @param lote Máximo de eventos
+     * @return Eventos ordenados por id
+     */
+    @Query("SELECT e FROM EventoInvalidacion e WHERE e.id > :desde ORDER BY e.id")
+    List<EventoInvalidacion> obtenerDesde(@Param("desde") Long desde, Limit lote);
+
+    /**
+     * Id del último evento publicado (0 si no hay); un nodo que arranca
+     * empieza a leer desde aquí porque sus cachés se hidratan de la BD.
+     */
+    @Query("SELECT COALESCE(MAX(e.id), 0) FROM EventoInvalidacion e")
+    long ultimoId();
+
+    /**
+     * Elimina los eventos ya leídos por todos los nodos.
+     *
+     * @param limite Epoch millis; se borran los publicados antes
+     * @return Filas eliminadas
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM EventoInvalidacion e WHERE e.creadoEn < :limite")
+    int eliminarAnteriores(@Param("limite") Long limite);
+}
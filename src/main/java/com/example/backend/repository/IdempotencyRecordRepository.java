@@ -0,0 +1,26 @@
+package com.example.backend.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.backend.model.IdempotencyRecord;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    /**
+     * Elimina las respuestas cuyo TTL ya venció.
+     *
+     * OPTIMIZACIÓN:
+     * - Un solo DELETE en lugar de cargar y borrar fila por fila
+     *
+     * @param limite Epoch millis; se borran los registros creados antes
+     * @return Filas eliminadas
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.creadoEn < :limite")
+    int eliminarAnterioresA(@Param("limite") Long limite);
+}
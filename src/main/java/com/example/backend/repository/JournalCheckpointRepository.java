@@ -0,0 +1,8 @@
+package com.example.backend.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.example.backend.model.JournalCheckpoint;
+
+public interface JournalCheckpointRepository extends JpaRepository<JournalCheckpoint, String> {
+}
@@ -0,0 +1,27 @@
+package com.example.backend.repository;
+
+import java.util.Optional;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import com.example.backend.model.PedidoArchivado;
+
+import jakarta.persistence.QueryHint;
+
+public interface PedidoArchivadoRepository extends JpaRepository<PedidoArchivado, Long> {
+
+    /**
+     * Busca un pedido archivado por ID (solo lectura).
+     * Se usa únicamente cuando el id no está en la tabla caliente.
+     * 
+     * @param id ID original del pedido
+     * @return Optional con el pedido archivado
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT p FROM PedidoArchivado p WHERE p.id = :id")
+    Optional<PedidoArchivado> obtenerPorId(@Param("id") Long id);
+}
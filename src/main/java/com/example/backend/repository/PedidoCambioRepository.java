@@ -0,0 +1,27 @@
+package com.example.backend.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.example.backend.model.PedidoCambio;
+
+public interface PedidoCambioRepository extends JpaRepository<PedidoCambio, Long> {
+
+    /**
+     * Cambios posteriores a una secuencia, en orden.
+     *
+     * OPTIMIZACIÓN:
+     * - Rango sobre la PK: ponerse al día cuesta lo que cambió, no el total de pedidos
+     * - Lotes acotados (Limit)
+     *
+     * @param desde Última secuencia ya procesada por el consumidor
+     * @param lote Máximo de cambios
+     * @return Cambios ordenados por seq
+     */
+    @Query("SELECT c FROM PedidoCambio c WHERE c.seq > :desde ORDER BY c.seq")
+    List<PedidoCambio> obtenerDesde(@Param("desde") Long desde, Limit lote);
+}
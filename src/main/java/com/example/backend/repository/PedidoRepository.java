@@ -1,11 +1,22 @@
 package com.example.backend.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
+import org.hibernate.jpa.HibernateHints;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+import com.example.backend.dto.PedidoDTO;
+import com.example.backend.dto.PedidoPendienteDTO;
+import com.example.backend.dto.PedidoResumenDTO;
 import com.example.backend.model.Pedido;
 
 import java.util.List;
@@ -18,15 +29,43 @@ public interface PedidoRepository extends JpaRepository<Pedido, Long> {
      * 
      * @return Lista de pedidos
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     @Query("SELECT p FROM Pedido p ORDER BY p.id DESC")
     List<Pedido> obtenerTodos();
 
+    /**
+     * Obtiene el resumen de todos los pedidos (sin items).
+     * 
+     * OPTIMIZACIÓN:
+     * - Constructor expression: no lee las columnas de items
+     * - Los DTOs no quedan en el contexto de persistencia
+     * 
+     * @return Lista de resúmenes
+     */
+    @Query("SELECT new com.example.backend.dto.PedidoDTO(p.id, p.nombreCliente, p.telefono, p.direccion, p.total, p.estado) " +
+           "FROM Pedido p ORDER BY p.id DESC")
+    List<PedidoDTO> obtenerResumenes();
+
+    /**
+     * Obtiene la proyección mínima para la tabla del panel (id, cliente, total, estado).
+     * 
+     * OPTIMIZACIÓN:
+     * - Solo 4 columnas: no lee teléfono, dirección ni items
+     * - Record de solo lectura, sin dirty checking
+     * 
+     * @return Lista de proyecciones
+     */
+    @Query("SELECT new com.example.backend.dto.PedidoResumenDTO(p.id, p.nombreCliente, p.total, p.estado) " +
+           "FROM Pedido p ORDER BY p.id DESC")
+    List<PedidoResumenDTO> obtenerResumenesMinimos();
+
     /**
      * Obtiene un pedido por ID de forma optimizada.
      * 
      * @param id ID del pedido
      * @return Optional con el pedido
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     @Query("SELECT p FROM Pedido p WHERE p.id = :id")
     Optional<Pedido> obtenerPorId(@Param("id") Long id);
 
@@ -43,6 +82,7 @@ public interface PedidoRepository extends JpaRepository<Pedido, Long> {
      * 
      * @return Lista de pedidos pendientes
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     @Query("SELECT p FROM Pedido p WHERE p.estado = 'PENDIENTE' ORDER BY p.id DESC")
     List<Pedido> obtenerPendientes();
 
@@ -51,6 +91,7 @@ public interface PedidoRepository extends JpaRepository<Pedido, Long> {
      * 
      * @return Lista de pedidos atendidos
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     @Query("SELECT p FROM Pedido p WHERE p.estado = 'ATENDIDO' ORDER BY p.id DESC")
     List<Pedido> obtenerAtendidos();
 
@@ -59,6 +100,7 @@ public interface PedidoRepository extends JpaRepository<Pedido, Long> {
      * 
      * @return Lista de pedidos cancelados
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     @Query("SELECT p FROM Pedido p WHERE p.estado = 'CANCELADO' ORDER BY p.id DESC")
     List<Pedido> obtenerCancelados();
 
@@ -73,9 +115,20 @@ public interface PedidoRepository extends JpaRepository<Pedido, Long> {
      * @param estado Estado a filtrar
      * @return Lista de pedidos
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     @Query("SELECT p FROM Pedido p WHERE p.estado = :estado ORDER BY p.id DESC")
     List<Pedido> obtenerPorEstado(@Param("estado") String estado);
 
+    /**
+     * Obtiene el resumen (sin items) de los pedidos con un estado.
+     * 
+     * @param estado Estado a filtrar
+     * @return Lista de resúmenes
+     */
+    @Query("SELECT new com.example.backend.dto.PedidoDTO(p.id, p.nombreCliente, p.telefono, p.direccion, p.total, p.estado) " +
+           "FROM Pedido p WHERE p.estado = :estado ORDER BY p.id DESC")
+    List<PedidoDTO> obtenerResumenesPorEstado(@Param("estado") String estado);
+
     /**
      * Busca pedidos por nombre de cliente (búsqueda parcial).
      * 
@@ -86,6 +139,7 @@ public interface PedidoRepository extends JpaRepository<Pedido, Long> {
      * @param nombreCliente Nombre a buscar
      * @return Pedidos coincidentes
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     @Query("SELECT p FROM Pedido p WHERE LOWER(p.nombreCliente) LIKE LOWER(CONCAT('%', :nombre, '%')) ORDER BY p.id DESC")
     List<Pedido> buscarPorCliente(@Param("nombre") String nombreCliente);
 
@@ -96,6 +150,7 @@ public interface PedidoRepository extends JpaRepository<Pedido, Long> {
      * @param maxTotal Monto máximo
      * @return Pedidos en rango
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     @Query("SELECT p FROM Pedido p WHERE p.total >= :minTotal AND p.total <= :maxTotal ORDER BY p.total DESC")
     List<Pedido> obtenerPorRangoTotal(@Param("minTotal") Integer minTotal, @Param("maxTotal") Integer maxTotal);
 
@@ -109,6 +164,7 @@ public interface PedidoRepository extends JpaRepository<Pedido, Long> {
      * @param limite Cantidad máxima
      * @return Últimos N pedidos
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     @Query("SELECT p FROM Pedido p ORDER BY p.id DESC LIMIT :limite")
     List<Pedido> obtenerUltimos(@Param("limite") int limite);
 
@@ -208,6 +264,56 @@ public interface PedidoRepository extends JpaRepository<Pedido, Long> {
     @Query("SELECT p.id FROM Pedido p WHERE p.estado = 'PENDIENTE'")
     List<Long> obtenerIdsPendientes();
 
+    /**
+     * Obtiene los pendientes con lo necesario para priorizarlos (cola de cocina).
+     * 
+     * OPTIMIZACIÓN:
+     * - Solo 3 columnas; se lee una vez al arrancar, no en cada refresco
+     * 
+     * @return Proyecciones de los pedidos pendientes
+     */
+    @Query("SELECT new com.example.backend.dto.PedidoPendienteDTO(p.id, p.creadoEn, p.total) " +
+           "FROM Pedido p WHERE p.estado = 'PENDIENTE'")
+    List<PedidoPendienteDTO> obtenerColaPendientes();
+
+    /**
+     * Datos de cola de un pedido si sigue PENDIENTE (avisos de otros nodos).
+     */
+    @Query("SELECT new com.example.backend.dto.PedidoPendienteDTO(p.id, p.creadoEn, p.total) " +
+           "FROM Pedido p WHERE p.id = :id AND p.estado = 'PENDIENTE'")
+    Optional<PedidoPendienteDTO> obtenerPendiente(@Param("id") Long id);
+
+    /**
+     * Obtiene un lote de pedidos cerrados creados antes del límite, para archivar.
+     * 
+     * OPTIMIZACIÓN:
+     * - SELECT ... FOR UPDATE: un cambio de estado concurrente espera al
+     *   archivado en lugar de perderse
+     * - Lotes acotados (Limit) para no bloquear muchas filas a la vez
+     * 
+     * @param limite Epoch millis; las filas sin fecha no entran (ver fecharCerradosSinFecha)
+     * @param lote Cantidad máxima de pedidos
+     * @return Pedidos a archivar
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Pedido p WHERE p.estado IN ('ATENDIDO', 'CANCELADO') " +
+           "AND p.creadoEn < :limite ORDER BY p.id")
+    List<Pedido> obtenerParaArchivar(@Param("limite") Long limite, Limit lote);
+
+    /**
+     * Fecha los pedidos cerrados sin creadoEn (filas anteriores a la columna)
+     * con el momento actual: su edad real se desconoce, así que cuentan
+     * age-days desde que el archivador los ve, no entran todos de una vez.
+     * Los PENDIENTES conservan null (prioridad máxima en la cola de cocina).
+     * 
+     * @param ahora Epoch millis
+     * @return Filas fechadas
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Pedido p SET p.creadoEn = :ahora WHERE p.creadoEn IS NULL AND p.estado IN ('ATENDIDO', 'CANCELADO')")
+    int fecharCerradosSinFecha(@Param("ahora") long ahora);
+
     /**
      * Obtiene estadísticas generales de pedidos.
      * 
@@ -2,10 +2,16 @@ package com.example.backend.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
+import org.hibernate.jpa.HibernateHints;
+
+import jakarta.persistence.QueryHint;
+
+import com.example.backend.dto.ProductoDTO;
 import com.example.backend.model.Producto;
 
 import java.util.List;
@@ -36,9 +42,23 @@ public interface ProductoRepository extends JpaRepository<Producto, Long> {
      * 
      * @return Lista de productos
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     @Query("SELECT p FROM Producto p")
     List<Producto> obtenerTodos();
 
+    /**
+     * Obtiene todos los productos directamente como DTO.
+     * 
+     * OPTIMIZACIÓN:
+     * - Constructor expression: no se materializan entidades
+     * - Nada queda en el contexto de persistencia (sin dirty checking)
+     * 
+     * @return Lista de ProductoDTO
+     */
+    @Query("SELECT new com.example.backend.dto.ProductoDTO(p.id, p.nombre, p.descripcion, p.precio, p.imagenUrl) " +
+           "FROM Producto p")
+    List<ProductoDTO> obtenerTodosDTO();
+
     /**
      * Obtiene un producto por ID de forma optimizada.
      * 
@@ -49,6 +69,7 @@ public interface ProductoRepository extends JpaRepository<Producto, Long> {
      * @param id ID del producto
      * @return Optional con el producto
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     @Query("SELECT p FROM Producto p WHERE p.id = :id")
     Optional<Producto> obtenerPorId(@Param("id") Long id);
 
@@ -65,6 +86,7 @@ public interface ProductoRepository extends JpaRepository<Producto, Long> {
      * @param nombre Nombre a buscar (parcial)
      * @return Lista de productos coincidentes
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     @Query("SELECT p FROM Producto p WHERE LOWER(p.nombre) LIKE LOWER(CONCAT('%', :nombre, '%'))")
     List<Producto> buscarPorNombre(@Param("nombre") String nombre);
 
@@ -80,6 +102,7 @@ public interface ProductoRepository extends JpaRepository<Producto, Long> {
      * @param precioMax Precio máximo (inclusive)
      * @return Productos en el rango
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     @Query("SELECT p FROM Producto p WHERE p.precio >= :precioMin AND p.precio <= :precioMax ORDER BY p.precio ASC")
     List<Producto> obtenerPorRangoPrecio(@Param("precioMin") Integer precioMin, @Param("precioMax") Integer precioMax);
 
@@ -105,6 +128,7 @@ public interface ProductoRepository extends JpaRepository<Producto, Long> {
      * 
      * @return Optional con el producto más caro
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     @Query("SELECT p FROM Producto p ORDER BY p.precio DESC LIMIT 1")
     Optional<Producto> obtenerMasCaro();
 
@@ -116,6 +140,7 @@ public interface ProductoRepository extends JpaRepository<Producto, Long> {
      * 
      * @return Optional con el producto más barato
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     @Query("SELECT p FROM Producto p ORDER BY p.precio ASC LIMIT 1")
     Optional<Producto> obtenerMasBarato();
 
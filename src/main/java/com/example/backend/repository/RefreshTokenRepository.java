@@ -0,0 +1,63 @@
+package com.example.backend.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.backend.dto.RefreshTokenVigenteDTO;
+import com.example.backend.model.RefreshToken;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, String> {
+
+    /**
+     * Busca un refresh token junto con el rol actual de su usuario.
+     *
+     * OPTIMIZACIÓN:
+     * - Una sola consulta: PK del token + índice único de usuarios.username
+     *
+     * @param hash SHA-256 del token
+     * @return Token y rol actual; vacío si el token no existe o el usuario fue eliminado
+     */
+    @Query("SELECT new com.example.backend.dto.RefreshTokenVigenteDTO(r.username, r.familia, r.expiraEn, r.usado, u.role) " +
+           "FROM RefreshToken r JOIN Usuario u ON u.username = r.username WHERE r.hash = :hash")
+    Optional<RefreshTokenVigenteDTO> buscarConRolActual(@Param("hash") String hash);
+
+    /**
+     * Marca el token como usado solo si aún no lo estaba.
+     *
+     * OPTIMIZACIÓN:
+     * - UPDATE condicional por PK: dos renovaciones simultáneas con el mismo
+     *   token no pueden ganar ambas, sin SELECT ... FOR UPDATE
+     *
+     * @param hash SHA-256 del token
+     * @return 1 si se marcó, 0 si ya estaba usado
+     */
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.usado = true WHERE r.hash = :hash AND r.usado = false")
+    int marcarUsado(@Param("hash") String hash);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RefreshToken r WHERE r.familia = :familia")
+    int eliminarFamilia(@Param("familia") String familia);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RefreshToken r WHERE r.username = :username")
+    int eliminarDeUsuario(@Param("username") String username);
+
+    /**
+     * Elimina los refresh tokens vencidos (usados o no).
+     *
+     * @param ahora Epoch millis actual
+     * @return Filas eliminadas
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RefreshToken r WHERE r.expiraEn < :ahora")
+    int eliminarVencidos(@Param("ahora") Long ahora);
+}
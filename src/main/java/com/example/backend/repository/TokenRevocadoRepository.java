@@ -0,0 +1,26 @@
+package com.example.backend.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.backend.model.TokenRevocado;
+
+public interface TokenRevocadoRepository extends JpaRepository<TokenRevocado, String> {
+
+    /**
+     * Elimina las revocaciones cuyos tokens ya vencieron.
+     *
+     * OPTIMIZACIÓN:
+     * - Un solo DELETE en lugar de cargar y borrar fila por fila
+     *
+     * @param ahora Epoch millis actual
+     * @return Filas eliminadas
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM TokenRevocado t WHERE t.expiraEn < :ahora")
+    int eliminarVencidas(@Param("ahora") Long ahora);
+}
@@ -0,0 +1,81 @@
+package com.example.backend.security;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom de strings: responde "seguro que no está" o "quizá está".
+ *
+ * Se usa delante del conjunto exacto de tokens revocados: casi todas las
+ * requests traen un token no revocado y se resuelven con k lecturas de bits,
+ * sin tocar el mapa. No admite borrados; quien lo usa lo reconstruye al
+ * podar entradas vencidas.
+ */
+public final class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long numBits;
+    private final int numHashes;
+    private final int capacidad;
+
+    /**
+     * @param capacidad Elementos esperados
+     * @param falsosPositivos Tasa de falsos positivos objetivo con esa capacidad (p. ej. 0.01)
+     */
+    public BloomFilter(int capacidad, double falsosPositivos) {
+        this.capacidad = Math.max(1, capacidad);
+        long m = (long) Math.ceil(-this.capacidad * Math.log(falsosPositivos) / (Math.log(2) * Math.log(2)));
+        int palabras = (int) Math.max(1, (m + 63) / 64);
+        this.bits = new AtomicLongArray(palabras);
+        this.numBits = palabras * 64L;
+        this.numHashes = Math.max(1, (int) Math.round((double) numBits / this.capacidad * Math.log(2)));
+    }
+
+    public void agregar(String valor) {
+        long h1 = hash(valor);
+        long h2 = mezclar(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < numHashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, numBits);
+            int palabra = (int) (bit >>> 6);
+            long mascara = 1L << bit;
+            long actual;
+            do {
+                actual = bits.get(palabra);
+            } while ((actual & mascara) == 0 && !bits.compareAndSet(palabra, actual, actual | mascara));
+        }
+    }
+
+    /**
+     * @return false si el valor seguro no se agregó; true si quizá se agregó
+     */
+    public boolean puedeContener(String valor) {
+        long h1 = hash(valor);
+        long h2 = mezclar(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < numHashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, numBits);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int capacidad() {
+        return capacidad;
+    }
+
+    // FNV-1a de 64 bits sobre los chars, con mezcla final para repartir los bits altos
+    private static long hash(String valor) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < valor.length(); i++) {
+            h ^= valor.charAt(i);
+            h *= 0x100000001B3L;
+        }
+        return mezclar(h);
+    }
+
+    private static long mezclar(long z) {
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return z ^ (z >>> 33);
+    }
+}
@@ -11,6 +11,9 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import com.example.backend.model.Usuario;
 import com.example.backend.repository.UsuarioRepository;
+import com.example.backend.service.TokenRevocationService;
+
+import io.jsonwebtoken.Claims;
 
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -21,10 +24,12 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtUtils jwtUtils;
     private final UsuarioRepository usuarioRepo;
+    private final TokenRevocationService revocationService;
 
-    public JwtAuthFilter(JwtUtils jwtUtils, UsuarioRepository usuarioRepo) {
+    public JwtAuthFilter(JwtUtils jwtUtils, UsuarioRepository usuarioRepo, TokenRevocationService revocationService) {
         this.jwtUtils = jwtUtils;
         this.usuarioRepo = usuarioRepo;
+        this.revocationService = revocationService;
     }
 
     @Override
@@ -34,14 +39,22 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         String header = request.getHeader("Authorization");
         if (StringUtils.hasText(header) && header.startsWith("Bearer ")) {
             String token = header.substring(7);
-            if (jwtUtils.validateJwtToken(token)) {
-                String username = jwtUtils.getUsernameFromToken(token);
-                Usuario user = usuarioRepo.findByUsername(username).orElse(null);
-                if (user != null) {
+            // Un solo parseo; la lista de revocación se consulta en memoria antes de ir a la BD
+            Claims claims = jwtUtils.obtenerClaims(token);
+            if (claims != null
+                    && !revocationService.estaRevocado(claims.getId(), claims.getSubject(), claims.getIssuedAt())) {
+                String username = claims.getSubject();
+                String rol = claims.get(JwtUtils.CLAIM_ROL, String.class);
+                if (rol == null) {
+                    // Tokens emitidos antes de incluir el rol: se consulta la BD
+                    Usuario user = usuarioRepo.findByUsername(username).orElse(null);
+                    rol = user == null ? null : user.getRole();
+                }
+                if (rol != null) {
                     UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
-                            user.getUsername(),
+                            username,
                             null,
-                            List.of(new SimpleGrantedAuthority(user.getRole()))
+                            List.of(new SimpleGrantedAuthority(rol))
                     );
                     SecurityContextHolder.getContext().setAuthentication(auth);
                 }
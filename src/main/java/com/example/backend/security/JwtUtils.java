@@ -1,46 +1,83 @@
 package com.example.backend.security;
 
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
 import java.util.Date;
+import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
 
 @Component
 public class JwtUtils {
 
-    @Value("${app.jwt.secret}")
-    private String jwtSecret;
+    public static final String CLAIM_ROL = "role";
 
-    @Value("${app.jwt.expiration-ms}")
-    private Long jwtExpirationMs;
+    private final Key clave;
+    private final long jwtExpirationMs;
+    // Inmutable y thread-safe: se arma una vez, no en cada request autenticada
+    private final JwtParser parser;
 
-    public String generateToken(String username) {
+    public JwtUtils(@Value("${app.jwt.secret}") String jwtSecret,
+                    @Value("${app.jwt.expiration-ms}") long jwtExpirationMs) {
+        this.clave = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        this.jwtExpirationMs = jwtExpirationMs;
+        this.parser = Jwts.parserBuilder().setSigningKey(clave).build();
+    }
+
+    /**
+     * Access token autocontenido: lleva el rol, así JwtAuthFilter no consulta
+     * la BD. Es de vida corta (app.jwt.expiration-ms); se renueva con el
+     * refresh token (RefreshTokenService).
+     */
+    public String generateToken(String username, String role) {
         Date now = new Date();
         Date exp = new Date(now.getTime() + jwtExpirationMs);
         return Jwts.builder()
+                // jti: permite revocar este token puntualmente (TokenRevocationService)
+                .setId(UUID.randomUUID().toString())
                 .setSubject(username)
+                .claim(CLAIM_ROL, role)
                 .setIssuedAt(now)
                 .setExpiration(exp)
-                .signWith(SignatureAlgorithm.HS256, jwtSecret.getBytes())
+                .signWith(clave, SignatureAlgorithm.HS256)
                 .compact();
     }
 
     public boolean validateJwtToken(String token) {
         try {
-            Jwts.parser().setSigningKey(jwtSecret.getBytes()).parseClaimsJws(token);
+            parser.parseClaimsJws(token);
             return true;
         } catch (JwtException | IllegalArgumentException e) {
             return false;
         }
     }
 
+    /**
+     * Valida y lee el token con un solo parseo (firma + vencimiento).
+     * @return Claims del token, o null si no es válido
+     */
+    public Claims obtenerClaims(String token) {
+        try {
+            return parser.parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    public long getExpirationMs() {
+        return jwtExpirationMs;
+    }
+
     public String getUsernameFromToken(String token) {
-        Claims claims = Jwts.parser().setSigningKey(jwtSecret.getBytes()).parseClaimsJws(token).getBody();
+        Claims claims = parser.parseClaimsJws(token).getBody();
         return claims.getSubject();
     }
 }
\ No newline at end of file
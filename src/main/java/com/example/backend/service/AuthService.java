@@ -0,0 +1,161 @@
+package com.example.backend.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import com.example.backend.model.Usuario;
+import com.example.backend.repository.UsuarioRepository;
+import com.example.backend.service.RefreshTokenService.ParTokens;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Login y registro, compartidos por AuthController (/api/auth) y
+ * PublicCompatController (/api/public); cada controlador solo arma su
+ * formato de respuesta.
+ *
+ * OPTIMIZACIÓN:
+ * - Registro = un solo INSERT; el duplicado lo detecta la restricción
+ *   unique de usuarios.username (sin existsByUsername previo)
+ * - Caché negativa de usernames inexistentes (LRU con TTL): los intentos
+ *   repetidos contra usuarios que no existen no consultan la BD. Un registro
+ *   se publica en BusInvalidacion.CANAL_USUARIOS y cada nodo quita el
+ *   username de su caché (en los demás, con el retraso del bus)
+ *
+ * Seguridad:
+ * - Con un usuario inexistente (consultado o desde la caché) se compara la
+ *   contraseña contra un hash ficticio con el mismo costo BCrypt: el tiempo
+ *   de respuesta no revela si el usuario existe. El costo de ese hash lo
+ *   acota el control de admisión de la clase auth
+ */
+@Service
+public class AuthService {
+
+    private static final String ROL_USUARIO = "ROLE_USER";
+
+    /**
+     * Usuario autenticado con su par de tokens.
+     * @param username Usuario
+     * @param rol Rol (ROLE_ADMIN, ROLE_USER)
+     * @param tokens Access token + refresh token
+     */
+    public record Sesion(String username, String rol, ParTokens tokens) {}
+
+    private final UsuarioRepository usuarioRepository;
+    private final BCryptPasswordEncoder passwordEncoder;
+    private final RefreshTokenService refreshTokenService;
+    private final BusInvalidacion busInvalidacion;
+    private final String hashFicticio;
+    private final Map<String, Long> inexistentes;
+    private final long ttlInexistentesMs;
+
+    public AuthService(UsuarioRepository usuarioRepository, BCryptPasswordEncoder passwordEncoder,
+                       RefreshTokenService refreshTokenService, BusInvalidacion busInvalidacion,
+                       @Value("${app.auth.negative-cache.max-entries:10000}") int maxInexistentes,
+                       @Value("${app.auth.negative-cache.ttl-seconds:60}") long ttlInexistentesSegundos) {
+        this.usuarioRepository = usuarioRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.refreshTokenService = refreshTokenService;
+        this.busInvalidacion = busInvalidacion;
+        // Mismo encoder (mismo costo) que las contraseñas reales
+        this.hashFicticio = passwordEncoder.encode(UUID.randomUUID().toString());
+        this.ttlInexistentesMs = TimeUnit.SECONDS.toMillis(ttlInexistentesSegundos);
+        this.inexistentes = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> mayor) {
+                return size() > maxInexistentes;
+            }
+        };
+    }
+
+    @PostConstruct
+    void suscribir() {
+        // Usuario registrado en este u otro nodo: deja de contar como inexistente
+        busInvalidacion.suscribir(BusInvalidacion.CANAL_USUARIOS, evento -> {
+            synchronized (inexistentes) {
+                inexistentes.remove(evento.clave());
+            }
+        });
+    }
+
+    /**
+     * Verifica credenciales y emite la sesión.
+     *
+     * @param username Usuario
+     * @param password Contraseña en claro
+     * @return Sesión, vacía si las credenciales no son válidas
+     */
+    public Optional<Sesion> login(String username, String password) {
+        if (username == null || password == null) {
+            return Optional.empty();
+        }
+        Usuario usuario = esInexistente(username) ? null : buscar(username);
+        if (usuario == null) {
+            passwordEncoder.matches(password, hashFicticio);
+            return Optional.empty();
+        }
+        if (!passwordEncoder.matches(password, usuario.getPassword())) {
+            return Optional.empty();
+        }
+        return Optional.of(iniciarSesion(usuario));
+    }
+
+    /**
+     * Crea un usuario con ROLE_USER.
+     *
+     * @param username Usuario
+     * @param password Contraseña en claro
+     * @return Usuario creado, vacío si el username ya existe
+     */
+    public Optional<Usuario> registrar(String username, String password) {
+        Usuario usuario = new Usuario(username, passwordEncoder.encode(password), ROL_USUARIO);
+        try {
+            // IDENTITY: el INSERT sale aquí mismo y la restricción unique responde
+            usuarioRepository.save(usuario);
+        } catch (DataIntegrityViolationException e) {
+            return Optional.empty();
+        }
+        busInvalidacion.publicar(BusInvalidacion.CANAL_USUARIOS, username);
+        return Optional.of(usuario);
+    }
+
+    /**
+     * Emite el par de tokens de un usuario ya verificado (p. ej. tras registrarse).
+     */
+    public Sesion iniciarSesion(Usuario usuario) {
+        return new Sesion(usuario.getUsername(), usuario.getRole(),
+                refreshTokenService.emitir(usuario.getUsername(), usuario.getRole()));
+    }
+
+    private Usuario buscar(String username) {
+        Usuario usuario = usuarioRepository.findByUsername(username).orElse(null);
+        if (usuario == null) {
+            synchronized (inexistentes) {
+                inexistentes.put(username, System.currentTimeMillis() + ttlInexistentesMs);
+            }
+        }
+        return usuario;
+    }
+
+    private boolean esInexistente(String username) {
+        synchronized (inexistentes) {
+            Long expira = inexistentes.get(username);
+            if (expira == null) {
+                return false;
+            }
+            if (expira < System.currentTimeMillis()) {
+                inexistentes.remove(username);
+                return false;
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.backend.service;
+
+import java.util.function.Consumer;
+
+/**
+ * Bus de invalidación de cachés en proceso (catálogo, cola de cocina,
+ * revocaciones JWT, usernames inexistentes) entre nodos.
+ *
+ * Implementaciones (app.cache.bus):
+ * - local: un solo nodo; entrega los eventos en el mismo hilo
+ * - jdbc: además escribe el evento en eventos_invalidacion, de donde lo
+ *   leen los demás nodos que comparten la BD
+ *
+ * Los eventos son avisos ("cambió esta clave"), no datos: cada oyente
+ * relee de la BD lo que necesite. Se publican después del commit.
+ */
+public interface BusInvalidacion {
+
+    String CANAL_CATALOGO = "catalogo";
+    String CANAL_PEDIDOS = "pedidos";
+    String CANAL_PEDIDOS_RECLAMO = "pedidos.reclamo";
+    String CANAL_JWT_TOKEN = "jwt.token";
+    String CANAL_JWT_USUARIO = "jwt.usuario";
+    String CANAL_USUARIOS = "usuarios";
+
+    /**
+     * Aviso recibido por un oyente.
+     * @param canal Canal del cambio
+     * @param clave Qué cambió (id, jti, username; "*" = todo el canal)
+     * @param remoto true si lo publicó otro nodo
+     */
+    record Evento(String canal, String clave, boolean remoto) {}
+
+    /**
+     * Publica un cambio ya confirmado. Los oyentes del nodo actual lo
+     * reciben antes de que el método retorne (remoto = false).
+     *
+     * @param canal Canal
+     * @param clave Clave que cambió
+     */
+    void publicar(String canal, String clave);
+
+    /**
+     * Registra un oyente para los eventos de un canal (de todos los nodos).
+     *
+     * @param canal Canal
+     * @param oyente Oyente; no debe lanzar excepciones
+     */
+    void suscribir(String canal, Consumer<Evento> oyente);
+}
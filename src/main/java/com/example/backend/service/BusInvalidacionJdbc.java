@@ -0,0 +1,150 @@
+package com.example.backend.service;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.domain.Limit;
+
+import com.example.backend.model.EventoInvalidacion;
+import com.example.backend.repository.EventoInvalidacionRepository;
+
+/**
+ * Bus de invalidación entre nodos que comparten la BD
+ * (app.cache.bus.type=jdbc, ver application-cluster.properties).
+ *
+ * OPTIMIZACIÓN:
+ * - Sin puertos ni lista de pares: los eventos viajan por la misma BD que
+ *   ya deben compartir los nodos
+ * - Publicar no bloquea la request: el INSERT lo hace el hilo del bus
+ * - Un sondeo sin novedades es una búsqueda vacía por rango de PK
+ *
+ * Los oyentes locales reciben el evento al publicarlo; los demás nodos,
+ * en el siguiente sondeo (app.cache.bus.poll-interval-ms). Si el INSERT
+ * falla, los otros nodos no se enteran de ese cambio hasta el siguiente
+ * del mismo canal o un reinicio.
+ *
+ * Lo crea y arranca BusInvalidacionConfig; al cerrar el contexto Spring
+ * lo detiene por DisposableBean.
+ */
+public class BusInvalidacionJdbc extends BusInvalidacionLocal implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(BusInvalidacionJdbc.class);
+
+    private final EventoInvalidacionRepository eventoRepository;
+    private final String nodo = UUID.randomUUID().toString();
+
+    // Solo los toca el hilo del bus
+    private long ultimoLeido;
+    private long huecoEn = -1; // id faltante que detiene el sondeo
+    private long huecoVistoEn; // cuándo se vio por primera vez
+
+    private final long intervaloSondeoMs;
+    private final int tamanoLote;
+    private final long esperaHuecoMs;
+    private final long retencionMinutos;
+
+    private ScheduledExecutorService programador;
+
+    /**
+     * @param eventoRepository Tabla de eventos compartida
+     * @param intervaloSondeoMs Pausa entre sondeos (app.cache.bus.poll-interval-ms)
+     * @param tamanoLote Máximo de eventos por sondeo (app.cache.bus.batch-size)
+     * @param esperaHuecoMs Espera ante un id saltado (app.cache.bus.gap-wait-ms)
+     * @param retencionMinutos Antigüedad de los eventos que se borran (app.cache.bus.retention-minutes)
+     */
+    public BusInvalidacionJdbc(EventoInvalidacionRepository eventoRepository, long intervaloSondeoMs,
+                               int tamanoLote, long esperaHuecoMs, long retencionMinutos) {
+        this.eventoRepository = eventoRepository;
+        this.intervaloSondeoMs = intervaloSondeoMs;
+        this.tamanoLote = tamanoLote;
+        this.esperaHuecoMs = esperaHuecoMs;
+        this.retencionMinutos = retencionMinutos;
+    }
+
+    /**
+     * Toma la posición actual de la tabla y arranca el sondeo y la poda.
+     */
+    public void iniciar() {
+        // Las cachés se hidratan de la BD al arrancar: los eventos previos ya están incluidos
+        ultimoLeido = eventoRepository.ultimoId();
+        programador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "cache-bus-jdbc");
+            t.setDaemon(true);
+            return t;
+        });
+        programador.scheduleWithFixedDelay(this::sondearProgramado, intervaloSondeoMs, intervaloSondeoMs, TimeUnit.MILLISECONDS);
+        programador.scheduleWithFixedDelay(this::podarProgramado, retencionMinutos, retencionMinutos, TimeUnit.MINUTES);
+        log.info("Bus de invalidación JDBC activo (nodo {}, desde el evento {})", nodo, ultimoLeido);
+    }
+
+    @Override
+    public void destroy() {
+        if (programador != null) {
+            programador.shutdownNow();
+        }
+    }
+
+    @Override
+    public void publicar(String canal, String clave) {
+        super.publicar(canal, clave);
+        EventoInvalidacion evento = new EventoInvalidacion(canal, clave, nodo, System.currentTimeMillis());
+        programador.execute(() -> {
+            try {
+                eventoRepository.save(evento);
+            } catch (RuntimeException e) {
+                log.warn("No se pudo publicar la invalidación {} {} a los demás nodos", canal, clave, e);
+            }
+        });
+    }
+
+    /**
+     * Lee los eventos nuevos y entrega los de otros nodos.
+     *
+     * Un id saltado puede ser un INSERT de otro nodo aún sin commit: el
+     * sondeo se detiene ahí hasta que aparezca o pasen gap-wait-ms desde que
+     * este nodo vio el hueco (ids perdidos por un rollback o un reinicio de
+     * la secuencia). Un INSERT que tarda más que eso en confirmar se pierde
+     * para este nodo.
+     */
+    void sondear() {
+        List<EventoInvalidacion> eventos = eventoRepository.obtenerDesde(ultimoLeido, Limit.of(tamanoLote));
+        long ahora = System.currentTimeMillis();
+        for (EventoInvalidacion e : eventos) {
+            if (e.getId() != ultimoLeido + 1) {
+                if (huecoEn != ultimoLeido + 1) {
+                    huecoEn = ultimoLeido + 1;
+                    huecoVistoEn = ahora;
+                }
+                if (ahora - huecoVistoEn < esperaHuecoMs) {
+                    break;
+                }
+            }
+            ultimoLeido = e.getId();
+            if (!nodo.equals(e.getOrigen())) {
+                entregar(new Evento(e.getCanal(), e.getClave(), true));
+            }
+        }
+    }
+
+    private void sondearProgramado() {
+        try {
+            sondear();
+        } catch (RuntimeException e) {
+            log.warn("Falló el sondeo del bus de invalidación; se reintenta en el próximo ciclo", e);
+        }
+    }
+
+    private void podarProgramado() {
+        try {
+            eventoRepository.eliminarAnteriores(System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(retencionMinutos));
+        } catch (RuntimeException e) {
+            log.warn("Falló la poda de eventos de invalidación; se reintenta en el próximo ciclo", e);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.backend.service;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bus de invalidación de un solo nodo: los oyentes se llaman en el hilo
+ * que publica (app.cache.bus.type=local, el valor por defecto; el bean lo
+ * crea BusInvalidacionConfig).
+ */
+public class BusInvalidacionLocal implements BusInvalidacion {
+
+    private static final Logger log = LoggerFactory.getLogger(BusInvalidacionLocal.class);
+
+    // Se suscriben al arrancar y se leen en cada evento
+    private final ConcurrentHashMap<String, List<Consumer<Evento>>> oyentes = new ConcurrentHashMap<>();
+
+    @Override
+    public void publicar(String canal, String clave) {
+        entregar(new Evento(canal, clave, false));
+    }
+
+    @Override
+    public void suscribir(String canal, Consumer<Evento> oyente) {
+        oyentes.computeIfAbsent(canal, c -> new CopyOnWriteArrayList<>()).add(oyente);
+    }
+
+    /**
+     * Entrega el evento a los oyentes del canal; un oyente que falla no
+     * impide que reciban el evento los demás.
+     */
+    protected void entregar(Evento evento) {
+        for (Consumer<Evento> oyente : oyentes.getOrDefault(evento.canal(), List.of())) {
+            try {
+                oyente.accept(evento);
+            } catch (RuntimeException e) {
+                log.warn("Falló un oyente de invalidación ({} {})", evento.canal(), evento.clave(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.backend.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+import com.example.backend.dto.ProductoDTO;
+import com.example.backend.dto.ProductoResumenDTO;
+
+/**
+ * Foto inmutable del catálogo: se arma una vez por escritura y se lee sin
+ * locks desde cualquier hilo.
+ *
+ * OPTIMIZACIÓN:
+ * - Listas y mapa precalculados: listar y buscar por id no asignan nada
+ * - Orden por precio precalculado: rango por búsqueda binaria (vista
+ *   subList) y más barato / más caro en O(1)
+ * - Nombres ya normalizados y ordenados para la búsqueda por nombre
+ *
+ * Los ProductoDTO se comparten entre peticiones: no deben modificarse.
+ */
+final class CatalogoSnapshot {
+
+    static final CatalogoSnapshot VACIO = new CatalogoSnapshot(List.of());
+
+    private static final Comparator<ProductoDTO> POR_PRECIO =
+            Comparator.comparing(ProductoDTO::getPrecio).thenComparing(ProductoDTO::getId);
+
+    private final List<ProductoDTO> todos;
+    private final List<ProductoResumenDTO> resumenes;
+    private final Map<Long, ProductoDTO> porId;
+    private final List<ProductoDTO> porPrecio;
+    private final int[] precios;
+    private final ProductoDTO[] porNombre;
+    private final String[] nombresNormalizados;
+
+    /**
+     * @param productos Productos leídos de la BD
+     */
+    CatalogoSnapshot(List<ProductoDTO> productos) {
+        ProductoDTO[] ordenados = productos.toArray(ProductoDTO[]::new);
+        Arrays.sort(ordenados, Comparator.comparing(ProductoDTO::getId));
+        todos = List.of(ordenados);
+
+        List<ProductoResumenDTO> listaResumenes = new ArrayList<>(ordenados.length);
+        Map<Long, ProductoDTO> indice = new HashMap<>(ordenados.length * 2);
+        List<ProductoDTO> conPrecio = new ArrayList<>(ordenados.length);
+        for (ProductoDTO p : ordenados) {
+            listaResumenes.add(new ProductoResumenDTO(p.getId(), p.getNombre(), p.getPrecio()));
+            indice.put(p.getId(), p);
+            if (p.getPrecio() != null) {
+                conPrecio.add(p);
+            }
+        }
+        resumenes = List.copyOf(listaResumenes);
+        porId = Map.copyOf(indice);
+
+        // Sin precio no entran en rangos ni en más barato / más caro (igual que en SQL)
+        conPrecio.sort(POR_PRECIO);
+        porPrecio = Collections.unmodifiableList(conPrecio);
+        precios = conPrecio.stream().mapToInt(ProductoDTO::getPrecio).toArray();
+
+        porNombre = ordenados.clone();
+        Arrays.sort(porNombre, Comparator.comparing(CatalogoSnapshot::normalizar,
+                Comparator.nullsLast(Comparator.naturalOrder())));
+        nombresNormalizados = new String[porNombre.length];
+        for (int i = 0; i < porNombre.length; i++) {
+            nombresNormalizados[i] = normalizar(porNombre[i]);
+        }
+    }
+
+    /**
+     * Todos los productos, por id.
+     */
+    List<ProductoDTO> todos() {
+        return todos;
+    }
+
+    /**
+     * id, nombre y precio de todos los productos, por id.
+     */
+    List<ProductoResumenDTO> resumenes() {
+        return resumenes;
+    }
+
+    Optional<ProductoDTO> porId(Long id) {
+        return Optional.ofNullable(id == null ? null : porId.get(id));
+    }
+
+    /**
+     * Productos con precio entre min y max (inclusive), del más barato al más caro.
+     */
+    List<ProductoDTO> porRangoPrecio(int min, int max) {
+        if (min > max) {
+            return List.of();
+        }
+        return porPrecio.subList(primeroMayorOIgual(min), primeroMayorOIgual(max + 1L));
+    }
+
+    Optional<ProductoDTO> masBarato() {
+        return porPrecio.isEmpty() ? Optional.empty() : Optional.of(porPrecio.get(0));
+    }
+
+    Optional<ProductoDTO> masCaro() {
+        return porPrecio.isEmpty() ? Optional.empty() : Optional.of(porPrecio.get(porPrecio.size() - 1));
+    }
+
+    /**
+     * Productos cuyo nombre contiene el texto (sin distinguir mayúsculas), por nombre.
+     */
+    List<ProductoDTO> buscarPorNombre(String texto) {
+        String buscado = texto == null ? "" : texto.toLowerCase(Locale.ROOT);
+        List<ProductoDTO> encontrados = new ArrayList<>();
+        for (int i = 0; i < porNombre.length; i++) {
+            if (nombresNormalizados[i] != null && nombresNormalizados[i].contains(buscado)) {
+                encontrados.add(porNombre[i]);
+            }
+        }
+        return encontrados;
+    }
+
+    int tamano() {
+        return todos.size();
+    }
+
+    /**
+     * Índice del primer precio >= valor (precios.length si no hay).
+     */
+    private int primeroMayorOIgual(long valor) {
+        int bajo = 0;
+        int alto = precios.length;
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (precios[medio] < valor) {
+                bajo = medio + 1;
+            } else {
+                alto = medio;
+            }
+        }
+        return bajo;
+    }
+
+    private static String normalizar(ProductoDTO p) {
+        return p.getNombre() == null ? null : p.getNombre().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.backend.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.example.backend.exception.BusinessException;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Snapshots de la base H2 en archivo (perfil filedb).
+ * Responsabilidades:
+ * - Crear una imagen comprimida (BACKUP TO) bajo demanda y al apagar
+ * - Restaurar la imagen al arrancar si el archivo de la BD no existe
+ *   (ver {@link #restaurarSiHaceFalta(Path, String, Path)}, invocado antes de abrir el pool)
+ * - Reportar el tiempo de arranque
+ */
+@Service
+public class DatabaseSnapshotService {
+
+    private static final Logger log = LoggerFactory.getLogger(DatabaseSnapshotService.class);
+
+    // Medido por el BeanPostProcessor del DataSource antes de abrir la primera conexión
+    private static volatile long restauracionMs = -1;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${spring.datasource.url}")
+    private String url;
+
+    @Value("${app.db.snapshot.enabled:false}")
+    private boolean habilitado;
+
+    @Value("${app.db.snapshot.path:./data/snapshot.zip}")
+    private Path rutaSnapshot;
+
+    @Value("${app.db.snapshot.on-shutdown:true}")
+    private boolean snapshotAlApagar;
+
+    public DatabaseSnapshotService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Crea un snapshot comprimido de la BD en caliente.
+     * Se escribe a un archivo temporal y se renombra, así un fallo
+     * nunca deja un snapshot a medias.
+     *
+     * @return Ruta del snapshot creado
+     * @throws BusinessException si la BD no es de archivo o los snapshots están deshabilitados
+     */
+    public Path crearSnapshot() {
+        if (!habilitado || !esBaseEnArchivo()) {
+            throw new BusinessException("Los snapshots requieren el perfil filedb (H2 en archivo)");
+        }
+        try {
+            Path tmp = rutaSnapshot.resolveSibling(rutaSnapshot.getFileName() + ".tmp");
+            Files.createDirectories(rutaSnapshot.toAbsolutePath().getParent());
+            Files.deleteIfExists(tmp);
+            long inicio = System.nanoTime();
+            jdbcTemplate.execute("BACKUP TO '" + tmp.toAbsolutePath().toString().replace("'", "''") + "'");
+            Files.move(tmp, rutaSnapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.info("Snapshot de BD creado en {} ({} bytes, {} ms)", rutaSnapshot, Files.size(rutaSnapshot),
+                    (System.nanoTime() - inicio) / 1_000_000);
+            return rutaSnapshot;
+        } catch (IOException e) {
+            throw new BusinessException("No se pudo crear el snapshot de la BD", e);
+        }
+    }
+
+    /**
+     * Restaura el snapshot si el archivo de la BD no existe (nodo nuevo o disco limpio).
+     * Debe llamarse antes de que el pool abra la primera conexión.
+     *
+     * @param directorio Directorio de la BD
+     * @param nombre Nombre de la BD (sin extensión)
+     * @param snapshot Zip creado con BACKUP TO
+     */
+    public static void restaurarSiHaceFalta(Path directorio, String nombre, Path snapshot) throws IOException {
+        Path archivoBd = directorio.resolve(nombre + ".mv.db");
+        if (Files.exists(archivoBd) || !Files.exists(snapshot)) {
+            return;
+        }
+        long inicio = System.nanoTime();
+        Files.createDirectories(directorio);
+        try (ZipInputStream zip = new ZipInputStream(Files.newInputStream(snapshot))) {
+            ZipEntry entrada;
+            while ((entrada = zip.getNextEntry()) != null) {
+                Path destino = directorio.resolve(entrada.getName()).normalize();
+                if (!destino.startsWith(directorio.normalize()) || entrada.isDirectory()) {
+                    continue;
+                }
+                copiar(zip, destino);
+            }
+        }
+        restauracionMs = (System.nanoTime() - inicio) / 1_000_000;
+        log.info("BD restaurada desde {} en {} ms", snapshot, restauracionMs);
+    }
+
+    private static void copiar(InputStream in, Path destino) throws IOException {
+        Path tmp = destino.resolveSibling(destino.getFileName() + ".tmp");
+        Files.copy(in, tmp, StandardCopyOption.REPLACE_EXISTING);
+        Files.move(tmp, destino, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void reportarArranque() {
+        long desdeInicioJvm = ManagementFactory.getRuntimeMXBean().getUptime();
+        log.info("Arranque listo en {} ms (BD: {}, restauración: {})",
+                desdeInicioJvm,
+                esBaseEnArchivo() ? "archivo" : "memoria",
+                restauracionMs >= 0 ? restauracionMs + " ms" : "no");
+    }
+
+    @PreDestroy
+    void snapshotAlApagar() {
+        if (habilitado && snapshotAlApagar && esBaseEnArchivo()) {
+            try {
+                crearSnapshot();
+            } catch (RuntimeException e) {
+                log.warn("No se pudo crear el snapshot al apagar", e);
+            }
+        }
+    }
+
+    private boolean esBaseEnArchivo() {
+        return url.startsWith("jdbc:h2:file:");
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.backend.service;
+
+import java.util.concurrent.TimeUnit;
+
+import com.example.backend.exception.DeadlineExceededException;
+
+/**
+ * Presupuesto de tiempo de la solicitud en curso (hilo actual).
+ *
+ * DeadlineFilter lo fija al entrar según la ruta (app.deadline.routes) y lo
+ * limpia al salir. Las llamadas salientes lo consultan para acotar su espera:
+ * timeouts del RestTemplate (RestClientConfig), query timeout JDBC
+ * (DeadlineDataSource) y la espera de la ingesta de pedidos. Sin deadline
+ * activo (hilos de fondo, rutas sin presupuesto) todo se comporta como antes.
+ */
+public final class Deadline {
+
+    private static final ThreadLocal<long[]> LIMITE = new ThreadLocal<>();
+
+    private Deadline() {}
+
+    /**
+     * Fija el deadline del hilo actual.
+     * @param presupuestoMs Milisegundos disponibles desde ahora
+     */
+    public static void iniciar(long presupuestoMs) {
+        LIMITE.set(new long[] {System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(presupuestoMs)});
+    }
+
+    public static void limpiar() {
+        LIMITE.remove();
+    }
+
+    public static boolean activo() {
+        return LIMITE.get() != null;
+    }
+
+    /**
+     * @return Milisegundos restantes (negativo si ya venció), Long.MAX_VALUE sin deadline
+     */
+    public static long restanteMs() {
+        long[] limite = LIMITE.get();
+        return limite == null ? Long.MAX_VALUE : TimeUnit.NANOSECONDS.toMillis(limite[0] - System.nanoTime());
+    }
+
+    /**
+     * Falla si el presupuesto ya se agotó.
+     * @param etapa Qué se iba a hacer (aparece en el mensaje de error)
+     * @throws DeadlineExceededException si el deadline venció
+     */
+    public static void verificar(String etapa) {
+        if (restanteMs() <= 0) {
+            throw new DeadlineExceededException(etapa);
+        }
+    }
+
+    /**
+     * Timeout para una espera: el menor entre el máximo propio de la
+     * operación y lo que queda del presupuesto.
+     *
+     * @param maximoMs Timeout de la operación sin deadline
+     * @param etapa Qué se va a esperar (para el mensaje de error)
+     * @throws DeadlineExceededException si no queda tiempo
+     */
+    public static long timeoutMs(long maximoMs, String etapa) {
+        long restante = restanteMs();
+        if (restante <= 0) {
+            throw new DeadlineExceededException(etapa);
+        }
+        return Math.min(maximoMs, restante);
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.backend.service;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.backend.model.IdempotencyRecord;
+import com.example.backend.repository.IdempotencyRecordRepository;
+
+/**
+ * Servicio de claves de idempotencia.
+ * Guarda la primera respuesta de cada clave para reproducirla en los reintentos.
+ * Responsabilidades:
+ * - Reservar una clave mientras la primera petición está en curso
+ * - Mantener un mapa concurrente acotado con TTL (expulsión FIFO)
+ * - Persistir opcionalmente las respuestas en BD para sobrevivir reinicios
+ */
+@Service
+public class IdempotencyService {
+
+    /**
+     * Respuesta HTTP capturada para una clave.
+     */
+    public record RespuestaGuardada(int status, String contentType, byte[] body) {}
+
+    /**
+     * Resultado de intentar reservar una clave.
+     */
+    public enum Estado { RESERVADA, EN_CURSO, COMPLETADA }
+
+    public record Reserva(Estado estado, RespuestaGuardada respuesta) {}
+
+    private static final class Entrada {
+        final String clave;
+        final long creadaEn;
+        volatile RespuestaGuardada respuesta; // null mientras la petición está en curso
+
+        Entrada(String clave, long creadaEn) {
+            this.clave = clave;
+            this.creadaEn = creadaEn;
+        }
+    }
+
+    private final IdempotencyRecordRepository recordRepository;
+
+    // Como el TTL es el mismo para todas, el orden de inserción es también el de expiración.
+    // Las entradas liberadas quedan en la cola hasta llegar a la cabeza: se acota por su tamaño
+    private final Map<String, Entrada> entradas = new ConcurrentHashMap<>();
+    private final Queue<Entrada> orden = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger tamanoOrden = new AtomicInteger();
+
+    @Value("${app.idempotency.max-entries:10000}")
+    private int maxEntradas;
+
+    @Value("${app.idempotency.ttl-ms:86400000}")
+    private long ttlMs;
+
+    @Value("${app.idempotency.persist:false}")
+    private boolean persistir;
+
+    private volatile long ultimaPurgaBd;
+
+    public IdempotencyService(IdempotencyRecordRepository recordRepository) {
+        this.recordRepository = recordRepository;
+    }
+
+    /**
+     * Intenta reservar una clave.
+     * Si ya existe una respuesta vigente la devuelve para reproducirla;
+     * si otra petición con la misma clave sigue en curso retorna EN_CURSO.
+     *
+     * @param clave Clave compuesta (método + URI + Idempotency-Key + llamador)
+     * @return Reserva con el estado y, si aplica, la respuesta guardada
+     */
+    public Reserva reservar(String clave) {
+        long ahora = System.currentTimeMillis();
+        Entrada nueva = new Entrada(clave, ahora);
+
+        while (true) {
+            Entrada actual = entradas.putIfAbsent(clave, nueva);
+            if (actual == null) {
+                break;
+            }
+            if (ahora - actual.creadaEn < ttlMs) {
+                RespuestaGuardada respuesta = actual.respuesta;
+                return respuesta != null
+                        ? new Reserva(Estado.COMPLETADA, respuesta)
+                        : new Reserva(Estado.EN_CURSO, null);
+            }
+            // Entrada vencida: se reemplaza si nadie lo hizo antes
+            if (entradas.replace(clave, actual, nueva)) {
+                break;
+            }
+        }
+        orden.add(nueva);
+        tamanoOrden.incrementAndGet();
+        podar(ahora);
+
+        if (persistir) {
+            RespuestaGuardada guardada = buscarEnBd(clave, ahora);
+            if (guardada != null) {
+                nueva.respuesta = guardada;
+                return new Reserva(Estado.COMPLETADA, guardada);
+            }
+        }
+        return new Reserva(Estado.RESERVADA, null);
+    }
+
+    /**
+     * Registra la respuesta final de una clave reservada.
+     */
+    public void completar(String clave, RespuestaGuardada respuesta) {
+        Entrada entrada = entradas.get(clave);
+        if (entrada != null) {
+            entrada.respuesta = respuesta;
+        }
+        if (persistir) {
+            long ahora = System.currentTimeMillis();
+            recordRepository.save(new IdempotencyRecord(
+                    clave, respuesta.status(), respuesta.contentType(), respuesta.body(), ahora));
+            purgarBd(ahora);
+        }
+    }
+
+    /**
+     * Libera una clave reservada sin respuesta reutilizable (p. ej. una respuesta de error),
+     * para que el cliente pueda reintentar.
+     */
+    public void liberar(String clave) {
+        Entrada entrada = entradas.get(clave);
+        if (entrada != null && entrada.respuesta == null) {
+            entradas.remove(clave, entrada);
+        }
+    }
+
+    /**
+     * Expulsa desde la cabeza de la cola las entradas vencidas, las ya
+     * liberadas o reemplazadas y las que exceden el límite. La cola (no solo
+     * el mapa) queda en max-entries: una clave liberada no retiene su nodo
+     * durante todo el TTL. Costo amortizado O(1) por inserción.
+     */
+    private void podar(long ahora) {
+        Entrada cabeza;
+        while ((cabeza = orden.peek()) != null
+                && (tamanoOrden.get() > maxEntradas || ahora - cabeza.creadaEn >= ttlMs
+                        || entradas.get(cabeza.clave) != cabeza)) {
+            if (orden.remove(cabeza)) {
+                tamanoOrden.decrementAndGet();
+                entradas.remove(cabeza.clave, cabeza);
+            }
+        }
+    }
+
+    private RespuestaGuardada buscarEnBd(String clave, long ahora) {
+        return recordRepository.findById(clave)
+                .filter(r -> ahora - r.getCreadoEn() < ttlMs)
+                .map(r -> new RespuestaGuardada(r.getStatus(), r.getContentType(), r.getBody()))
+                .orElse(null);
+    }
+
+    private void purgarBd(long ahora) {
+        // Como máximo una purga por ventana de TTL
+        if (ahora - ultimaPurgaBd >= ttlMs) {
+            ultimaPurgaBd = ahora;
+            recordRepository.eliminarAnterioresA(ahora - ttlMs);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.backend.service;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.backend.model.Pedido;
+import com.example.backend.model.PedidoArchivado;
+import com.example.backend.repository.PedidoArchivadoRepository;
+import com.example.backend.repository.PedidoRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Archivado de pedidos cerrados (particionado caliente / frío).
+ *
+ * Los pedidos ATENDIDO o CANCELADO creados hace más de app.pedidos.archive.age-days
+ * se mueven de pedidos a pedidos_archivo, por lotes y cada uno en su transacción.
+ * Así las consultas del panel (listas, pendientes, estadísticas) recorren
+ * solo el conjunto caliente. La búsqueda por id consulta el archivo solo
+ * cuando el id no está en la tabla caliente (ver PedidoService.obtenerPorId).
+ *
+ * Los pedidos cerrados sin creadoEn (anteriores a la columna) se fechan al
+ * verlos y se archivan age-days después, no todos en la primera pasada.
+ */
+@Service
+public class PedidoArchivoService {
+
+    private static final Logger log = LoggerFactory.getLogger(PedidoArchivoService.class);
+
+    private final PedidoRepository pedidoRepository;
+    private final PedidoArchivadoRepository archivoRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.pedidos.archive.enabled:true}")
+    private boolean habilitado;
+
+    @Value("${app.pedidos.archive.age-days:30}")
+    private long edadDias;
+
+    @Value("${app.pedidos.archive.interval-minutes:60}")
+    private long intervaloMinutos;
+
+    @Value("${app.pedidos.archive.batch-size:500}")
+    private int tamanoLote;
+
+    private ScheduledExecutorService programador;
+
+    public PedidoArchivoService(PedidoRepository pedidoRepository, PedidoArchivadoRepository archivoRepository,
+                                PlatformTransactionManager transactionManager) {
+        this.pedidoRepository = pedidoRepository;
+        this.archivoRepository = archivoRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    void iniciar() {
+        if (!habilitado) {
+            return;
+        }
+        programador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "pedido-archiver");
+            t.setDaemon(true);
+            return t;
+        });
+        programador.scheduleWithFixedDelay(this::archivarProgramado, intervaloMinutos, intervaloMinutos, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    void detener() {
+        if (programador != null) {
+            programador.shutdownNow();
+        }
+    }
+
+    /**
+     * Archiva todos los pedidos cerrados más antiguos que la edad configurada.
+     *
+     * @return Cantidad de pedidos archivados
+     */
+    public int archivar() {
+        long ahora = System.currentTimeMillis();
+        int fechados = pedidoRepository.fecharCerradosSinFecha(ahora);
+        if (fechados > 0) {
+            log.info("Pedidos cerrados sin fecha de creación: {}; se archivarán en {} días", fechados, edadDias);
+        }
+        long limite = ahora - TimeUnit.DAYS.toMillis(edadDias);
+        int total = 0;
+        int movidos;
+        do {
+            movidos = transactionTemplate.execute(status -> archivarLote(limite));
+            total += movidos;
+        } while (movidos == tamanoLote);
+        if (total > 0) {
+            log.info("Pedidos archivados: {} (creados antes de {} días)", total, edadDias);
+        }
+        return total;
+    }
+
+    /**
+     * Copia un lote al archivo y lo borra de la tabla caliente en la misma transacción.
+     */
+    private int archivarLote(long limite) {
+        List<Pedido> lote = pedidoRepository.obtenerParaArchivar(limite, Limit.of(tamanoLote));
+        if (lote.isEmpty()) {
+            return 0;
+        }
+        long ahora = System.currentTimeMillis();
+        archivoRepository.saveAll(lote.stream().map(p -> new PedidoArchivado(p, ahora)).toList());
+        pedidoRepository.deleteAllInBatch(lote);
+        return lote.size();
+    }
+
+    private void archivarProgramado() {
+        try {
+            archivar();
+        } catch (RuntimeException e) {
+            log.warn("Falló el archivado de pedidos; se reintenta en el próximo ciclo", e);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.backend.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.backend.model.Pedido;
+import com.example.backend.model.PedidoCambio;
+import com.example.backend.repository.PedidoCambioRepository;
+
+/**
+ * Registro de cambios de pedidos (creación y cambios de estado) para
+ * consumidores que se ponen al día con GET /api/pedidos/changes?since=seq.
+ *
+ * OPTIMIZACIÓN:
+ * - El consumidor lee solo lo nuevo desde su última secuencia, en lotes,
+ *   en lugar de releer todos los pedidos
+ * - Cada entrada se escribe en la transacción del cambio: no hay cambios
+ *   confirmados sin entrada ni entradas de cambios revertidos
+ */
+@Service
+@Transactional(readOnly = true)
+public class PedidoCambioService {
+
+    /**
+     * Lote de cambios para un consumidor.
+     * @param cambios Cambios en orden de seq
+     * @param siguiente Valor de since para la próxima llamada
+     * @param hayMas true si el lote se cortó por el límite (conviene pedir de nuevo ya)
+     */
+    public record Lote(List<PedidoCambio> cambios, long siguiente, boolean hayMas) {}
+
+    // Un consumidor que no vuelve en este tiempo espera de nuevo gap-wait-ms en el mismo hueco
+    private static final long RETENCION_HUECOS_MS = TimeUnit.MINUTES.toMillis(10);
+
+    private final PedidoCambioRepository pedidoCambioRepository;
+    // Primer seq de cada hueco -> cuándo lo vio un consumidor por primera vez
+    private final Map<Long, Long> huecosVistos = new ConcurrentHashMap<>();
+
+    @Value("${app.pedidos.changes.max-batch:1000}")
+    private int loteMaximo;
+
+    @Value("${app.pedidos.changes.gap-wait-ms:2000}")
+    private long esperaHuecoMs;
+
+    public PedidoCambioService(PedidoCambioRepository pedidoCambioRepository) {
+        this.pedidoCambioRepository = pedidoCambioRepository;
+    }
+
+    /**
+     * Registra la creación de pedidos ya guardados (con id).
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarCreados(List<Pedido> pedidos) {
+        long ahora = System.currentTimeMillis();
+        List<PedidoCambio> cambios = new ArrayList<>(pedidos.size());
+        for (Pedido p : pedidos) {
+            cambios.add(new PedidoCambio(p.getId(), PedidoCambio.TIPO_CREADO, p.getEstado(), p.getTotal(), ahora));
+        }
+        pedidoCambioRepository.saveAll(cambios);
+    }
+
+    /**
+     * Registra el estado actual de un pedido tras cambiarlo.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarEstado(Pedido pedido) {
+        pedidoCambioRepository.save(new PedidoCambio(pedido.getId(), PedidoCambio.TIPO_ESTADO,
+                pedido.getEstado(), pedido.getTotal(), System.currentTimeMillis()));
+    }
+
+    /**
+     * Cambios posteriores a since.
+     *
+     * Una seq saltada puede ser una transacción aún sin commit (los cambios
+     * de estado se confirman en paralelo): el lote se corta ahí hasta que
+     * aparezca o pasen gap-wait-ms desde que se vio el hueco por primera vez
+     * (no desde la fila siguiente, que puede ser igual de antigua). Una
+     * transacción que tarda más que gap-wait-ms en confirmar sí queda
+     * saltada para los consumidores que ya pasaron: gap-wait-ms debe superar
+     * la transacción más larga que registra un cambio.
+     *
+     * @param desde Última seq procesada (0 = desde el principio)
+     * @param limite Máximo de cambios (acotado por app.pedidos.changes.max-batch)
+     * @return Lote de cambios
+     */
+    public Lote obtenerDesde(long desde, int limite) {
+        int tamano = Math.max(1, Math.min(limite, loteMaximo));
+        List<PedidoCambio> leidos = pedidoCambioRepository.obtenerDesde(desde, Limit.of(tamano));
+        long ahora = System.currentTimeMillis();
+        long ultimo = desde;
+        int entregables = 0;
+        for (PedidoCambio c : leidos) {
+            if (c.getSeq() != ultimo + 1 && ahora - huecosVistos.computeIfAbsent(ultimo + 1, s -> ahora) < esperaHuecoMs) {
+                break;
+            }
+            ultimo = c.getSeq();
+            entregables++;
+        }
+        if (!huecosVistos.isEmpty()) {
+            huecosVistos.values().removeIf(visto -> visto < ahora - RETENCION_HUECOS_MS);
+        }
+        return new Lote(leidos.subList(0, entregables), ultimo, entregables == tamano);
+    }
+}
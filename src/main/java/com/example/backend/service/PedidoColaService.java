@@ -0,0 +1,254 @@
+package com.example.backend.service;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.backend.dto.PedidoPendienteDTO;
+import com.example.backend.repository.PedidoRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Cola de cocina: pedidos PENDIENTES en memoria, ordenados por prioridad.
+ *
+ * OPTIMIZACIÓN:
+ * - Se hidrata una vez desde la BD al arrancar; luego se mantiene con
+ *   crear / cambiarEstado en lugar de re-leer los pendientes en cada refresco
+ * - ConcurrentSkipListSet: reclamar es pollFirst(), O(log n) y sin locks;
+ *   dos empleados nunca reciben el mismo pedido
+ * - Cada cambio de estado de un pedido (encolar, reclamar, devolver,
+ *   quitar) se hace en un compute de enCola: el lock es el de esa clave,
+ *   y un agregar concurrente no puede volver a encolar un pedido recién
+ *   reclamado
+ *
+ * Prioridad: el pedido más antiguo primero; los totales grandes pueden
+ * adelantarse app.pedidos.claim.bonus-ms-per-1000 ms por cada 1000 COP.
+ * Un pedido reclamado que no pasa a ATENDIDO / CANCELADO dentro de
+ * app.pedidos.claim.lease-seconds vuelve a la cola.
+ *
+ * Con varios nodos cada uno tiene su cola; los avisos del BusInvalidacion
+ * (pedido nuevo o cambiado, pedido reclamado) las mantienen coherentes con
+ * el retraso del bus. Dos nodos pueden entregar el mismo pedido si lo
+ * reclaman dentro de ese intervalo.
+ */
+@Service
+public class PedidoColaService {
+
+    private static final Logger log = LoggerFactory.getLogger(PedidoColaService.class);
+
+    /**
+     * Pedido reclamado por un empleado.
+     * @param pedidoId ID del pedido
+     * @param empleado Usuario que lo reclamó
+     * @param reclamadoEn Epoch millis del reclamo
+     */
+    public record Reclamo(Long pedidoId, String empleado, long reclamadoEn) {}
+
+    private record Entrada(long prioridad, long id) implements Comparable<Entrada> {
+        @Override
+        public int compareTo(Entrada otra) {
+            int c = Long.compare(prioridad, otra.prioridad);
+            return c != 0 ? c : Long.compare(id, otra.id);
+        }
+    }
+
+    private record EntradaReclamada(Entrada entrada, Reclamo reclamo) {}
+
+    private final PedidoRepository pedidoRepository;
+    private final BusInvalidacion busInvalidacion;
+
+    // El índice manda: una Entrada en la cola sin su par en el índice está obsoleta.
+    // reclamados solo se modifica dentro de un compute de enCola sobre la misma clave
+    private final ConcurrentSkipListSet<Entrada> cola = new ConcurrentSkipListSet<>();
+    private final ConcurrentHashMap<Long, Entrada> enCola = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, EntradaReclamada> reclamados = new ConcurrentHashMap<>();
+
+    @Value("${app.pedidos.claim.bonus-ms-per-1000:0}")
+    private long bonusMsPorMil;
+
+    @Value("${app.pedidos.claim.lease-seconds:900}")
+    private long leaseSegundos;
+
+    public PedidoColaService(PedidoRepository pedidoRepository, BusInvalidacion busInvalidacion,
+                             MeterRegistry meterRegistry) {
+        this.pedidoRepository = pedidoRepository;
+        this.busInvalidacion = busInvalidacion;
+        Gauge.builder("pedidos.cola.pendientes", enCola, ConcurrentHashMap::size)
+                .description("Pedidos pendientes sin reclamar en la cola de cocina")
+                .register(meterRegistry);
+        Gauge.builder("pedidos.cola.reclamados", reclamados, ConcurrentHashMap::size)
+                .description("Pedidos reclamados aún sin atender")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Carga los pendientes antes de que el servidor acepte peticiones.
+     */
+    @PostConstruct
+    void hidratar() {
+        for (PedidoPendienteDTO p : pedidoRepository.obtenerColaPendientes()) {
+            agregar(p.id(), p.creadoEn(), p.total());
+        }
+        log.info("Cola de cocina hidratada con {} pedidos pendientes", enCola.size());
+        // Los cambios del propio nodo ya se aplicaron con sus datos; solo se atienden los remotos
+        busInvalidacion.suscribir(BusInvalidacion.CANAL_PEDIDOS, evento -> {
+            if (evento.remoto()) {
+                sincronizar(Long.valueOf(evento.clave()));
+            }
+        });
+        busInvalidacion.suscribir(BusInvalidacion.CANAL_PEDIDOS_RECLAMO, evento -> {
+            if (evento.remoto()) {
+                quitarDeCola(Long.valueOf(evento.clave()));
+            }
+        });
+    }
+
+    /**
+     * Relee de la BD un pedido que cambió en otro nodo.
+     */
+    void sincronizar(Long id) {
+        pedidoRepository.obtenerPendiente(id).ifPresentOrElse(
+                p -> agregar(p.id(), p.creadoEn(), p.total()),
+                () -> quitar(id));
+    }
+
+    /**
+     * Agrega un pedido pendiente (no hace nada si ya está en cola o reclamado).
+     */
+    public void agregar(Long id, Long creadoEn, Integer total) {
+        Entrada nueva = new Entrada(prioridad(creadoEn, total), id);
+        enCola.compute(id, (k, actual) -> {
+            if (actual != null || reclamados.containsKey(k)) {
+                return actual;
+            }
+            cola.add(nueva);
+            return nueva;
+        });
+    }
+
+    /**
+     * Quita un pedido de la cola y de los reclamados (ATENDIDO / CANCELADO).
+     */
+    public void quitar(Long id) {
+        enCola.compute(id, (k, actual) -> {
+            reclamados.remove(k);
+            if (actual != null) {
+                cola.remove(actual);
+            }
+            return null;
+        });
+    }
+
+    private void quitarDeCola(Long id) {
+        enCola.computeIfPresent(id, (k, actual) -> {
+            cola.remove(actual);
+            return null;
+        });
+    }
+
+    /**
+     * Entrega atómicamente el siguiente pedido al empleado.
+     *
+     * @param empleado Usuario que reclama
+     * @return ID del pedido reclamado, vacío si no hay pendientes
+     */
+    public Optional<Long> reclamar(String empleado) {
+        devolverVencidos();
+        Entrada entrada;
+        while ((entrada = cola.pollFirst()) != null) {
+            EntradaReclamada reclamada = new EntradaReclamada(entrada,
+                    new Reclamo(entrada.id(), empleado, System.currentTimeMillis()));
+            if (tomar(reclamada)) {
+                return Optional.of(entrada.id());
+            }
+            // Si el índice ya no la tiene, se quitó en paralelo: se descarta
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Pasa la entrada del índice a reclamados en un solo paso.
+     * @return false si la entrada ya no estaba en el índice
+     */
+    private boolean tomar(EntradaReclamada reclamada) {
+        Entrada entrada = reclamada.entrada();
+        boolean[] tomada = new boolean[1];
+        enCola.computeIfPresent(entrada.id(), (k, actual) -> {
+            if (!actual.equals(entrada)) {
+                return actual;
+            }
+            reclamados.put(k, reclamada);
+            tomada[0] = true;
+            return null;
+        });
+        return tomada[0];
+    }
+
+    /**
+     * Reclamo vigente de un pedido.
+     * @param id ID del pedido
+     * @return Reclamo, vacío si nadie lo tiene
+     */
+    public Optional<Reclamo> reclamo(Long id) {
+        EntradaReclamada r = reclamados.get(id);
+        return r == null ? Optional.empty() : Optional.of(r.reclamo());
+    }
+
+    /**
+     * Pedidos pendientes sin reclamar.
+     */
+    public int pendientes() {
+        return enCola.size();
+    }
+
+    /**
+     * Devuelve a la cola los reclamos cuyo lease venció. Recorre solo los
+     * reclamados, que son pocos (pedidos en preparación).
+     */
+    private void devolverVencidos() {
+        long limite = System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(leaseSegundos);
+        for (EntradaReclamada r : reclamados.values()) {
+            if (r.reclamo().reclamadoEn() < limite && devolver(r)) {
+                log.info("Reclamo vencido del pedido {} ({}); vuelve a la cola", r.entrada().id(), r.reclamo().empleado());
+                // Los demás nodos lo habían quitado al reclamarse aquí
+                busInvalidacion.publicar(BusInvalidacion.CANAL_PEDIDOS, Long.toString(r.entrada().id()));
+            }
+        }
+    }
+
+    /**
+     * Pasa un reclamo de vuelta a la cola en un solo paso (no si entre medio
+     * se atendió o se volvió a reclamar).
+     */
+    private boolean devolver(EntradaReclamada r) {
+        boolean[] devuelta = new boolean[1];
+        enCola.compute(r.entrada().id(), (k, actual) -> {
+            if (!reclamados.remove(k, r)) {
+                return actual;
+            }
+            devuelta[0] = true;
+            if (actual != null) {
+                return actual;
+            }
+            cola.add(r.entrada());
+            return r.entrada();
+        });
+        return devuelta[0];
+    }
+
+    private long prioridad(Long creadoEn, Integer total) {
+        // Filas anteriores a creadoEn: las más antiguas posibles
+        long base = creadoEn == null ? 0 : creadoEn;
+        long bonus = total == null ? 0 : total / 1000L * bonusMsPorMil;
+        return base - bonus;
+    }
+}
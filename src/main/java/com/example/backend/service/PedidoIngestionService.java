@@ -0,0 +1,218 @@
+package com.example.backend.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.backend.exception.BusinessException;
+import com.example.backend.model.Pedido;
+import com.example.backend.repository.PedidoRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Cola de ingesta de pedidos con escritura agrupada (group commit).
+ *
+ * OPTIMIZACIÓN:
+ * - Los hilos HTTP solo encolan; un único hilo escritor persiste
+ * - Cada lote se guarda en UNA transacción con inserts en batch JDBC
+ * - Los ids salen de bloques pre-asignados de la secuencia pedidos_seq
+ * - Cola acotada: si está llena se rechaza el pedido (backpressure)
+ *
+ * El futuro de cada pedido se completa cuando la transacción de su lote hizo commit,
+ * así la respuesta HTTP solo se envía con el pedido ya durable. La misma
+ * transacción agrega la entrada CREADO del registro de cambios.
+ *
+ * Quien se cansa de esperar puede cancelar su envío mientras el escritor no
+ * lo haya tomado; tomado ya no se cancela y su resultado siempre llega. Así
+ * un "intenta de nuevo" nunca corresponde a un pedido que sí se guardó.
+ */
+@Service
+public class PedidoIngestionService {
+
+    private static final Logger log = LoggerFactory.getLogger(PedidoIngestionService.class);
+
+    /**
+     * Pedido en la cola de ingesta y su resultado.
+     */
+    public static final class Envio {
+        private final Pedido pedido;
+        private final CompletableFuture<Pedido> resultado = new CompletableFuture<>();
+        // true cuando el escritor lo tomó para un lote o quien espera lo canceló
+        private final AtomicBoolean tomado = new AtomicBoolean();
+
+        private Envio(Pedido pedido) {
+            this.pedido = pedido;
+        }
+
+        /**
+         * Se completa con el pedido persistido (con id) cuando su lote hizo commit.
+         */
+        public CompletableFuture<Pedido> resultado() {
+            return resultado;
+        }
+    }
+
+    private final PedidoRepository pedidoRepository;
+    private final PedidoCambioService pedidoCambioService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.pedidos.ingestion.queue-capacity:1000}")
+    private int capacidadCola;
+
+    @Value("${app.pedidos.ingestion.batch-size:50}")
+    private int tamanoLote;
+
+    @Value("${app.pedidos.ingestion.offer-timeout-ms:200}")
+    private long timeoutEncolarMs;
+
+    private BlockingQueue<Envio> cola;
+    private Thread escritor;
+    private volatile boolean activo;
+
+    public PedidoIngestionService(PedidoRepository pedidoRepository, PedidoCambioService pedidoCambioService,
+                                  PlatformTransactionManager transactionManager) {
+        this.pedidoRepository = pedidoRepository;
+        this.pedidoCambioService = pedidoCambioService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    void iniciar() {
+        cola = new ArrayBlockingQueue<>(capacidadCola);
+        activo = true;
+        escritor = new Thread(this::ejecutarEscritor, "pedido-writer");
+        escritor.setDaemon(true);
+        escritor.start();
+    }
+
+    @PreDestroy
+    void detener() throws InterruptedException {
+        // El escritor vacía la cola antes de terminar
+        activo = false;
+        escritor.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    /**
+     * Encola un pedido ya validado para su escritura agrupada.
+     *
+     * @param pedido Pedido sin id
+     * @return Envío cuyo resultado se completa con el pedido persistido (con id)
+     * @throws BusinessException si la cola está llena tras el timeout
+     */
+    public Envio encolar(Pedido pedido) {
+        Envio envio = new Envio(pedido);
+        boolean aceptado;
+        try {
+            aceptado = activo && cola.offer(envio, timeoutEncolarMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            aceptado = false;
+        }
+        if (!aceptado) {
+            throw new BusinessException("Hay demasiados pedidos en proceso, intenta de nuevo en unos segundos");
+        }
+        return envio;
+    }
+
+    /**
+     * Cancela un envío que el escritor aún no tomó: ya no se escribirá.
+     *
+     * @param envio Envío devuelto por encolar
+     * @return true si se canceló; false si ya está en un lote (su resultado llegará)
+     */
+    public boolean cancelar(Envio envio) {
+        if (!envio.tomado.compareAndSet(false, true)) {
+            return false;
+        }
+        cola.remove(envio);
+        envio.resultado.cancel(false);
+        return true;
+    }
+
+    /**
+     * Guarda un pedido en el hilo que llama, sin pasar por la cola
+     * (app.pedidos.ingestion.enabled=false).
+     *
+     * @param pedido Pedido sin id
+     * @return Pedido persistido (con id)
+     */
+    public Pedido guardar(Pedido pedido) {
+        return transactionTemplate.execute(status -> persistir(List.of(pedido))).get(0);
+    }
+
+    /**
+     * Pedidos esperando a ser escritos (para métricas/diagnóstico).
+     */
+    public int pendientes() {
+        return cola.size();
+    }
+
+    private void ejecutarEscritor() {
+        List<Envio> lote = new ArrayList<>(tamanoLote);
+        while (activo || !cola.isEmpty()) {
+            try {
+                Envio primero = cola.poll(100, TimeUnit.MILLISECONDS);
+                if (primero == null) {
+                    continue;
+                }
+                // Todo lo que llegó mientras se escribía el lote anterior va en este
+                lote.add(primero);
+                cola.drainTo(lote, tamanoLote - 1);
+                // Los cancelados por quien esperaba no se escriben
+                lote.removeIf(e -> !e.tomado.compareAndSet(false, true));
+                if (!lote.isEmpty()) {
+                    escribirLote(lote);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                lote.clear();
+            }
+        }
+    }
+
+    private void escribirLote(List<Envio> lote) {
+        List<Pedido> pedidos = new ArrayList<>(lote.size());
+        for (Envio s : lote) {
+            pedidos.add(s.pedido);
+        }
+        try {
+            List<Pedido> guardados = transactionTemplate.execute(status -> persistir(pedidos));
+            for (int i = 0; i < lote.size(); i++) {
+                lote.get(i).resultado().complete(guardados.get(i));
+            }
+        } catch (RuntimeException e) {
+            if (lote.size() == 1) {
+                log.error("No se pudo escribir el pedido", e);
+                lote.get(0).resultado().completeExceptionally(e);
+                return;
+            }
+            // Un pedido problemático no debe tumbar a todo el lote: se reintenta uno por uno
+            log.warn("Falló el lote de {} pedidos, reintentando individualmente", lote.size(), e);
+            for (Envio s : lote) {
+                s.pedido.setId(null);
+                escribirLote(List.of(s));
+            }
+        }
+    }
+
+    private List<Pedido> persistir(List<Pedido> pedidos) {
+        List<Pedido> guardados = pedidoRepository.saveAll(pedidos);
+        pedidoCambioService.registrarCreados(guardados);
+        return guardados;
+    }
+}
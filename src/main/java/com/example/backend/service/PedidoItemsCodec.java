@@ -0,0 +1,194 @@
+package com.example.backend.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Codec compacto para los items de un pedido.
+ *
+ * El carrito envía un array JSON como:
+ * [{"producto":"Hamburguesa","precio":15000,"cantidad":2}, ...]
+ * que se empaqueta en bytes con enteros varint:
+ *
+ *   varint(cantidadItems)
+ *   por item: varint(id + 1)        (0 = sin id de producto)
+ *             varint(len + 1) + UTF-8 (0 = sin nombre de producto)
+ *             varint(cantidad)
+ *             varint(precio)
+ *
+ * OPTIMIZACIÓN:
+ * - Un item típico ocupa ~20 bytes en lugar de ~60 de JSON
+ * - Sin nombres de campo repetidos por item
+ *
+ * Si el JSON trae campos desconocidos o valores no representables
+ * (negativos, decimales) se retorna null y el pedido se guarda en JSON tal cual.
+ * Lo codificado conserva los valores de cada item, pero decodificar no
+ * devuelve el texto original: los campos salen en orden fijo (id, producto,
+ * precio, cantidad) y sin espacios.
+ *
+ * Tamaño: cada carácter del JSON ocupa a lo sumo 3 bytes codificado (los
+ * nombres en UTF-8; números y estructura nunca crecen), así que
+ * MAX_BYTES = 3 × largo máximo de itemsJson.
+ */
+@Component
+public class PedidoItemsCodec {
+
+    private static final Set<String> CAMPOS = Set.of("id", "producto", "precio", "cantidad");
+
+    /** Largo de la columna itemsBin: peor caso para un itemsJson de 2000 caracteres. */
+    public static final int MAX_BYTES = 6000;
+
+    private final ObjectMapper objectMapper;
+
+    public PedidoItemsCodec(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Codifica el JSON de items.
+     *
+     * @param itemsJson Array JSON enviado por el carrito
+     * @return Bytes empaquetados, o null si el JSON no es representable sin pérdida
+     */
+    public byte[] codificar(String itemsJson) {
+        JsonNode raiz;
+        try {
+            raiz = objectMapper.readTree(itemsJson);
+        } catch (IOException e) {
+            return null;
+        }
+        if (raiz == null || !raiz.isArray()) {
+            return null;
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(raiz.size() * 24 + 2);
+        escribirVarint(out, raiz.size());
+        for (JsonNode item : raiz) {
+            if (!esRepresentable(item)) {
+                return null;
+            }
+            JsonNode id = item.get("id");
+            escribirVarint(out, id == null ? 0 : id.longValue() + 1);
+            JsonNode producto = item.get("producto");
+            if (producto != null) {
+                byte[] nombre = producto.textValue().getBytes(StandardCharsets.UTF_8);
+                escribirVarint(out, nombre.length + 1L);
+                out.writeBytes(nombre);
+            } else {
+                escribirVarint(out, 0);
+            }
+            escribirVarint(out, item.get("cantidad").longValue());
+            escribirVarint(out, item.get("precio").longValue());
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Decodifica los bytes a JSON con la misma forma que envió el carrito.
+     *
+     * @param bin Bytes producidos por {@link #codificar(String)}
+     * @return Array JSON de items
+     */
+    public String decodificar(byte[] bin) {
+        if (bin == null) {
+            return null;
+        }
+        Lector in = new Lector(bin);
+        StringWriter sw = new StringWriter(bin.length * 3);
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(sw)) {
+            long total = in.varint();
+            gen.writeStartArray();
+            for (long i = 0; i < total; i++) {
+                gen.writeStartObject();
+                long id = in.varint();
+                if (id > 0) {
+                    gen.writeNumberField("id", id - 1);
+                }
+                long largoNombre = in.varint();
+                if (largoNombre > 0) {
+                    gen.writeStringField("producto", in.utf8((int) largoNombre - 1));
+                }
+                long cantidad = in.varint();
+                long precio = in.varint();
+                gen.writeNumberField("precio", precio);
+                gen.writeNumberField("cantidad", cantidad);
+                gen.writeEndObject();
+            }
+            gen.writeEndArray();
+        } catch (IOException e) {
+            throw new IllegalStateException("Items de pedido corruptos", e);
+        }
+        return sw.toString();
+    }
+
+    private boolean esRepresentable(JsonNode item) {
+        if (!item.isObject()) {
+            return false;
+        }
+        for (Map.Entry<String, JsonNode> campo : item.properties()) {
+            if (!CAMPOS.contains(campo.getKey())) {
+                return false;
+            }
+        }
+        JsonNode producto = item.get("producto");
+        JsonNode id = item.get("id");
+        // El id se guarda como id + 1 (0 = sin id): Long.MAX_VALUE desbordaría
+        return (producto == null || producto.isTextual())
+                && (id == null || esEnteroNoNegativo(id) && id.longValue() < Long.MAX_VALUE)
+                && esEnteroNoNegativo(item.get("precio"))
+                && esEnteroNoNegativo(item.get("cantidad"));
+    }
+
+    private boolean esEnteroNoNegativo(JsonNode n) {
+        return n != null && n.isIntegralNumber() && n.canConvertToLong() && n.longValue() >= 0;
+    }
+
+    private static void escribirVarint(ByteArrayOutputStream out, long valor) {
+        while ((valor & ~0x7FL) != 0) {
+            out.write((int) ((valor & 0x7F) | 0x80));
+            valor >>>= 7;
+        }
+        out.write((int) valor);
+    }
+
+    /**
+     * Cursor de lectura sobre el array de bytes.
+     */
+    private static final class Lector {
+        private final byte[] buf;
+        private int pos;
+
+        Lector(byte[] buf) {
+            this.buf = buf;
+        }
+
+        long varint() {
+            long resultado = 0;
+            int desplazamiento = 0;
+            while (true) {
+                byte b = buf[pos++];
+                resultado |= (long) (b & 0x7F) << desplazamiento;
+                if ((b & 0x80) == 0) {
+                    return resultado;
+                }
+                desplazamiento += 7;
+            }
+        }
+
+        String utf8(int largo) {
+            String s = new String(buf, pos, largo, StandardCharsets.UTF_8);
+            pos += largo;
+            return s;
+        }
+    }
+}
@@ -0,0 +1,620 @@
+package com.example.backend.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.NonTransientDataAccessException;
+import org.springframework.dao.NonTransientDataAccessResourceException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.backend.exception.BusinessException;
+import com.example.backend.model.JournalCheckpoint;
+import com.example.backend.model.Pedido;
+import com.example.backend.repository.JournalCheckpointRepository;
+import com.example.backend.repository.PedidoRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Journal de escrituras de pedidos (app.pedidos.journal.enabled=true).
+ *
+ * OPTIMIZACIÓN:
+ * - crear y cambiarEstado escriben un registro binario compacto en un
+ *   segmento mapeado en memoria: sin round-trip a la BD en la ruta de la petición
+ * - fsync periódico (fsync-interval-ms) en lugar de uno por pedido
+ * - Un único hilo aplica los registros a las tablas H2 por lotes, en una
+ *   transacción por lote que también avanza el checkpoint
+ *
+ * Un registro que la BD rechaza (p. ej. una restricción) no detiene el
+ * journal: el lote se aplica uno a uno y el rechazado se descarta con un
+ * error en el log, la métrica pedidos.journal.descartados y una copia en
+ * descartados/ del directorio del journal. Los errores de conexión se
+ * siguen reintentando sin saltar nada.
+ *
+ * Durabilidad: un registro escrito sobrevive a una caída del proceso (las
+ * páginas mapeadas son del sistema operativo); ante una caída del sistema
+ * se pierden como mucho los últimos fsync-interval-ms. Al arrancar se
+ * repiten los registros posteriores al checkpoint.
+ *
+ * Requiere una BD persistente (perfil filedb o cluster): con la BD en
+ * memoria el checkpoint se perdería y habría que conservar y repetir todo
+ * el journal en cada arranque. Se verifica al iniciar. Los segmentos ya
+ * aplicados se borran salvo los retained-segments más recientes.
+ */
+@Service
+public class PedidoJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(PedidoJournal.class);
+
+    private static final byte TIPO_CREADO = 1;
+    private static final byte TIPO_ESTADO = 2;
+    private static final String CHECKPOINT = "pedidos";
+    // allocationSize de Pedido.id
+    private static final int BLOQUE_IDS = 50;
+
+    private static final String SQL_INSERTAR =
+            "INSERT INTO pedidos (id, nombre_cliente, telefono, direccion, total, items_json, items_bin, estado, creado_en) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    /**
+     * Registro pendiente de aplicar. En ESTADO el pedido solo lleva id y estado.
+     */
+    private record Entrada(PedidoJournalArchivo.Posicion fin, byte tipo, Pedido pedido,
+                           CompletableFuture<Pedido> aplicado) {}
+
+    private final PedidoRepository pedidoRepository;
+    private final JournalCheckpointRepository checkpointRepository;
+    private final PedidoCambioService pedidoCambioService;
+    private final PedidoColaService pedidoColaService;
+    private final BusInvalidacion busInvalidacion;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SessionFactoryImplementor sessionFactory;
+
+    private final Object escritura = new Object();
+    private final LinkedBlockingQueue<Entrada> porAplicar = new LinkedBlockingQueue<>();
+    private final Set<Long> creadosSinAplicar = ConcurrentHashMap.newKeySet();
+    private final Counter descartados;
+
+    @Value("${app.pedidos.journal.enabled:false}")
+    private boolean habilitado;
+
+    @Value("${app.pedidos.journal.dir:./data/journal}")
+    private String directorio;
+
+    @Value("${app.pedidos.journal.segment-mb:64}")
+    private int tamanoSegmentoMb;
+
+    @Value("${app.pedidos.journal.fsync-interval-ms:50}")
+    private long intervaloFsyncMs;
+
+    @Value("${app.pedidos.journal.batch-size:200}")
+    private int tamanoLote;
+
+    // Segmentos ya aplicados que se conservan (además del actual)
+    @Value("${app.pedidos.journal.retained-segments:1}")
+    private int segmentosRetenidos;
+
+    private PedidoJournalArchivo archivo;
+    private BeforeExecutionGenerator generadorIds;
+    private ScheduledExecutorService fsync;
+    private Thread aplicador;
+    private volatile boolean activo;
+    private volatile boolean sucio;
+    private long ultimoSegmentoPodado = -1;
+
+    public PedidoJournal(PedidoRepository pedidoRepository, JournalCheckpointRepository checkpointRepository,
+                         PedidoCambioService pedidoCambioService, PedidoColaService pedidoColaService,
+                         BusInvalidacion busInvalidacion, JdbcTemplate jdbcTemplate,
+                         PlatformTransactionManager transactionManager, EntityManagerFactory entityManagerFactory,
+                         MeterRegistry meterRegistry) {
+        this.pedidoRepository = pedidoRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.pedidoCambioService = pedidoCambioService;
+        this.pedidoColaService = pedidoColaService;
+        this.busInvalidacion = busInvalidacion;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        Gauge.builder("pedidos.journal.pendientes", porAplicar, LinkedBlockingQueue::size)
+                .description("Registros del journal aún sin aplicar a la BD")
+                .register(meterRegistry);
+        this.descartados = Counter.builder("pedidos.journal.descartados")
+                .description("Registros del journal rechazados por la BD y apartados en descartados/")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Repite lo no aplicado antes de que el servidor acepte peticiones.
+     */
+    @PostConstruct
+    void iniciar() {
+        if (!habilitado) {
+            return;
+        }
+        verificarConfiguracion();
+        // Los ids salen del mismo generador que usa Hibernate (bloques de pedidos_seq)
+        generadorIds = (BeforeExecutionGenerator) sessionFactory.getMappingMetamodel()
+                .getEntityDescriptor(Pedido.class).getGenerator();
+        archivo = new PedidoJournalArchivo(Path.of(directorio), tamanoSegmentoMb * 1024 * 1024);
+        PedidoJournalArchivo.Posicion desde = checkpointRepository.findById(CHECKPOINT)
+                .map(c -> new PedidoJournalArchivo.Posicion(c.getSegmento(), c.getPosicion()))
+                .orElse(null);
+        repetir(archivo.abrir(desde));
+
+        activo = true;
+        aplicador = new Thread(this::ejecutarAplicador, "pedido-journal-applier");
+        aplicador.setDaemon(true);
+        aplicador.start();
+        fsync = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "pedido-journal-fsync");
+            t.setDaemon(true);
+            return t;
+        });
+        fsync.scheduleWithFixedDelay(this::forzarProgramado, intervaloFsyncMs, intervaloFsyncMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void detener() throws InterruptedException {
+        if (!habilitado) {
+            return;
+        }
+        // No se aceptan registros nuevos; el aplicador vacía lo pendiente
+        synchronized (escritura) {
+            activo = false;
+        }
+        aplicador.join(TimeUnit.SECONDS.toMillis(10));
+        fsync.shutdownNow();
+        archivo.forzar();
+    }
+
+    public boolean habilitado() {
+        return habilitado;
+    }
+
+    /**
+     * Registra un pedido nuevo ya validado. Al volver ya es durable en el
+     * journal; la fila aparece en la BD cuando el aplicador llega a él.
+     *
+     * @param pedido Pedido sin id
+     * @return El mismo pedido, con id
+     * @throws BusinessException si no cabe en las columnas o no se pudo escribir
+     */
+    public Pedido registrarCreado(Pedido pedido) {
+        // La BD se escribe después: lo que rechazaría hay que rechazarlo ahora
+        validarColumnas(pedido);
+        pedido.setId(nuevoId(pedido));
+        creadosSinAplicar.add(pedido.getId());
+        try {
+            registrar(TIPO_CREADO, pedido, null);
+        } catch (RuntimeException e) {
+            creadosSinAplicar.remove(pedido.getId());
+            throw e;
+        }
+        return pedido;
+    }
+
+    /**
+     * Registra un cambio de estado.
+     *
+     * @param id ID del pedido (existente o aún sin aplicar)
+     * @param estado Estado ya validado
+     * @return Futuro con el pedido actualizado cuando el cambio se aplicó a
+     *         la BD (null si para entonces el pedido ya no estaba, p. ej. archivado)
+     */
+    public CompletableFuture<Pedido> registrarEstado(Long id, String estado) {
+        Pedido cambio = new Pedido();
+        cambio.setId(id);
+        cambio.setEstado(estado);
+        CompletableFuture<Pedido> aplicado = new CompletableFuture<>();
+        registrar(TIPO_ESTADO, cambio, aplicado);
+        return aplicado;
+    }
+
+    /**
+     * true si el pedido se creó en el journal y aún no está en la BD.
+     */
+    public boolean pendienteDeAplicar(Long id) {
+        return creadosSinAplicar.contains(id);
+    }
+
+    /**
+     * Registros esperando a ser aplicados (para métricas/diagnóstico).
+     */
+    public int pendientes() {
+        return porAplicar.size();
+    }
+
+    private void registrar(byte tipo, Pedido pedido, CompletableFuture<Pedido> aplicado) {
+        byte[] datos = codificar(tipo, pedido);
+        // Mismo orden en el archivo y en la cola del aplicador
+        synchronized (escritura) {
+            if (!activo) {
+                throw new BusinessException("El servidor se está deteniendo, intenta de nuevo en unos segundos");
+            }
+            PedidoJournalArchivo.Posicion fin;
+            try {
+                fin = archivo.agregar(datos);
+            } catch (UncheckedIOException e) {
+                throw new BusinessException("No se pudo registrar el pedido", e);
+            }
+            porAplicar.add(new Entrada(fin, tipo, pedido, aplicado));
+        }
+        sucio = true;
+    }
+
+    private Long nuevoId(Pedido pedido) {
+        // Casi siempre sale del bloque en memoria: solo cada BLOQUE_IDS pedidos va a la secuencia
+        try (StatelessSession sesion = sessionFactory.openStatelessSession()) {
+            return (Long) generadorIds.generate((SharedSessionContractImplementor) sesion, pedido, null, EventType.INSERT);
+        }
+    }
+
+    private void forzarProgramado() {
+        if (!sucio) {
+            return;
+        }
+        sucio = false;
+        try {
+            archivo.forzar();
+        } catch (RuntimeException e) {
+            sucio = true;
+            log.warn("Falló el fsync del journal de pedidos; se reintenta en el próximo ciclo", e);
+        }
+    }
+
+    private void ejecutarAplicador() {
+        List<Entrada> lote = new ArrayList<>(tamanoLote);
+        while (activo || !porAplicar.isEmpty()) {
+            try {
+                Entrada primera = porAplicar.poll(100, TimeUnit.MILLISECONDS);
+                if (primera == null) {
+                    continue;
+                }
+                lote.add(primera);
+                porAplicar.drainTo(lote, tamanoLote - 1);
+                aplicarConReintento(lote);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                lote.clear();
+            }
+        }
+    }
+
+    private void aplicarConReintento(List<Entrada> lote) throws InterruptedException {
+        // El orden del journal manda: ante un error de la BD el lote no se salta, se reintenta hasta que responda
+        while (true) {
+            try {
+                aplicarAislando(lote);
+                return;
+            } catch (RuntimeException e) {
+                if (!activo) {
+                    log.warn("No se aplicaron {} registros del journal al detener; se repiten al arrancar", lote.size());
+                    return;
+                }
+                log.error("No se pudo aplicar el journal de pedidos a la BD; se reintenta en 1 s", e);
+                TimeUnit.SECONDS.sleep(1);
+            }
+        }
+    }
+
+    /**
+     * Aplica el lote; si la BD rechaza algún registro, los aplica uno a uno
+     * y descarta los rechazados. Quita del lote lo ya aplicado o descartado,
+     * así que ante un error de conexión el llamador reintenta solo el resto.
+     */
+    private void aplicarAislando(List<Entrada> lote) {
+        if (lote.isEmpty()) {
+            return;
+        }
+        try {
+            aplicar(lote);
+            lote.clear();
+            return;
+        } catch (RuntimeException e) {
+            if (!rechazadoPorLaBd(e)) {
+                throw e;
+            }
+            log.warn("La BD rechazó un lote de {} registros del journal; se aplican uno a uno", lote.size());
+        }
+        for (Iterator<Entrada> it = lote.iterator(); it.hasNext(); ) {
+            Entrada entrada = it.next();
+            try {
+                aplicar(List.of(entrada));
+            } catch (RuntimeException e) {
+                if (!rechazadoPorLaBd(e)) {
+                    throw e;
+                }
+                descartar(entrada, e);
+            }
+            it.remove();
+        }
+    }
+
+    /**
+     * true si la BD rechazó los datos (reintentar daría el mismo error); false
+     * si no se pudo hablar con ella.
+     */
+    private static boolean rechazadoPorLaBd(RuntimeException e) {
+        return e instanceof NonTransientDataAccessException
+                && !(e instanceof DataAccessResourceFailureException)
+                && !(e instanceof NonTransientDataAccessResourceException);
+    }
+
+    /**
+     * Aparta un registro rechazado: lo copia a descartados/, avanza el
+     * checkpoint más allá de él y falla su futuro.
+     */
+    private void descartar(Entrada entrada, RuntimeException causa) {
+        PedidoJournalArchivo.Posicion fin = entrada.fin();
+        Path copia = Path.of(directorio, "descartados",
+                String.format("pedidos-%016d-%d.registro", fin.segmento(), fin.offset()));
+        try {
+            Files.createDirectories(copia.getParent());
+            Files.write(copia, codificar(entrada.tipo(), entrada.pedido()));
+        } catch (IOException e) {
+            log.error("No se pudo guardar la copia del registro descartado {}", copia, e);
+        }
+        transactionTemplate.executeWithoutResult(status ->
+                checkpointRepository.save(new JournalCheckpoint(CHECKPOINT, fin.segmento(), fin.offset())));
+        descartados.increment();
+        log.error("Registro del journal descartado: {} del pedido {} (copia en {})",
+                entrada.tipo() == TIPO_CREADO ? "creación" : "cambio de estado", entrada.pedido().getId(), copia, causa);
+        creadosSinAplicar.remove(entrada.pedido().getId());
+        if (entrada.aplicado() != null) {
+            entrada.aplicado().completeExceptionally(causa);
+        }
+    }
+
+    /**
+     * Aplica un lote en una transacción (con el checkpoint) y, tras el
+     * commit, actualiza la cola de cocina, avisa a los demás nodos y
+     * completa los futuros.
+     */
+    private void aplicar(List<Entrada> lote) {
+        Pedido[] resultados = transactionTemplate.execute(status -> {
+            Pedido[] aplicados = new Pedido[lote.size()];
+            List<Pedido> porInsertar = new ArrayList<>();
+            for (int i = 0; i < lote.size(); i++) {
+                Entrada e = lote.get(i);
+                if (e.tipo() == TIPO_CREADO) {
+                    porInsertar.add(e.pedido());
+                    aplicados[i] = e.pedido();
+                    continue;
+                }
+                // Un cambio de estado puede referirse a un pedido creado en este mismo lote
+                insertar(porInsertar);
+                aplicados[i] = aplicarEstado(e.pedido().getId(), e.pedido().getEstado());
+            }
+            insertar(porInsertar);
+            PedidoJournalArchivo.Posicion fin = lote.get(lote.size() - 1).fin();
+            checkpointRepository.save(new JournalCheckpoint(CHECKPOINT, fin.segmento(), fin.offset()));
+            return aplicados;
+        });
+
+        for (int i = 0; i < lote.size(); i++) {
+            Entrada e = lote.get(i);
+            Pedido p = resultados[i];
+            if (e.tipo() == TIPO_CREADO) {
+                creadosSinAplicar.remove(p.getId());
+                pedidoColaService.agregar(p.getId(), p.getCreadoEn(), p.getTotal());
+                busInvalidacion.publicar(BusInvalidacion.CANAL_PEDIDOS, p.getId().toString());
+            } else if (p != null) {
+                if ("PENDIENTE".equals(p.getEstado())) {
+                    pedidoColaService.agregar(p.getId(), p.getCreadoEn(), p.getTotal());
+                } else {
+                    pedidoColaService.quitar(p.getId());
+                }
+                busInvalidacion.publicar(BusInvalidacion.CANAL_PEDIDOS, p.getId().toString());
+            }
+            if (e.aplicado() != null) {
+                e.aplicado().complete(p);
+            }
+        }
+        podar(lote.get(lote.size() - 1).fin().segmento());
+    }
+
+    private void insertar(List<Pedido> pedidos) {
+        if (pedidos.isEmpty()) {
+            return;
+        }
+        // Un solo batch JDBC: los ids ya vienen asignados, no hay nada que leer de vuelta
+        jdbcTemplate.batchUpdate(SQL_INSERTAR, pedidos, pedidos.size(), (ps, p) -> {
+            ps.setLong(1, p.getId());
+            ps.setString(2, p.getNombreCliente());
+            ps.setString(3, p.getTelefono());
+            ps.setString(4, p.getDireccion());
+            ps.setInt(5, p.getTotal());
+            ps.setString(6, p.getItemsJson());
+            if (p.getItemsBin() != null) {
+                ps.setBytes(7, p.getItemsBin());
+            } else {
+                ps.setNull(7, Types.VARBINARY);
+            }
+            ps.setString(8, p.getEstado());
+            ps.setLong(9, p.getCreadoEn());
+        });
+        pedidoCambioService.registrarCreados(pedidos);
+        pedidos.clear();
+    }
+
+    private Pedido aplicarEstado(Long id, String estado) {
+        if (pedidoRepository.actualizarEstado(id, estado) == 0) {
+            return null;
+        }
+        Pedido pedido = pedidoRepository.obtenerPorId(id).orElse(null);
+        if (pedido != null) {
+            // Si el lote ya lo cargó, el contexto devuelve esa instancia con el estado anterior
+            pedido.setEstado(estado);
+            pedidoCambioService.registrarEstado(pedido);
+        }
+        return pedido;
+    }
+
+    /**
+     * El journal solo es seguro con checkpoint persistente y retención acotada.
+     */
+    private void verificarConfiguracion() {
+        String url = jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getURL());
+        if (url != null && url.startsWith("jdbc:h2:mem:")) {
+            throw new IllegalStateException("app.pedidos.journal.enabled=true requiere una BD persistente "
+                    + "(perfil filedb o cluster); la BD actual es " + url);
+        }
+        if (segmentosRetenidos < 0) {
+            throw new IllegalStateException("app.pedidos.journal.retained-segments debe ser >= 0");
+        }
+    }
+
+    private void podar(long segmentoAplicado) {
+        if (segmentoAplicado > ultimoSegmentoPodado) {
+            archivo.podar(segmentoAplicado, segmentosRetenidos);
+            ultimoSegmentoPodado = segmentoAplicado;
+        }
+    }
+
+    /**
+     * Aplica de forma síncrona los registros posteriores al checkpoint.
+     */
+    private void repetir(List<PedidoJournalArchivo.Registro> registros) {
+        long maxId = 0;
+        List<Entrada> lote = new ArrayList<>(tamanoLote);
+        for (PedidoJournalArchivo.Registro r : registros) {
+            Entrada e = decodificar(r);
+            if (e.tipo() == TIPO_CREADO) {
+                maxId = Math.max(maxId, e.pedido().getId());
+            }
+            lote.add(e);
+            if (lote.size() == tamanoLote) {
+                aplicarAislando(lote);
+            }
+        }
+        aplicarAislando(lote);
+        ajustarSecuencia(maxId);
+        log.info("Journal de pedidos abierto en {}: {} registros repetidos", directorio, registros.size());
+    }
+
+    /**
+     * Con una BD nueva (en memoria) la secuencia vuelve a empezar: se adelanta
+     * para que los ids nuevos no choquen con los repetidos.
+     */
+    private void ajustarSecuencia(long maxId) {
+        if (maxId == 0) {
+            return;
+        }
+        Long siguiente = jdbcTemplate.queryForObject(
+                "SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = 'PEDIDOS_SEQ'", Long.class);
+        // El generador usa el bloque que termina en el valor leído
+        if (siguiente != null && siguiente - BLOQUE_IDS < maxId) {
+            jdbcTemplate.execute("ALTER SEQUENCE pedidos_seq RESTART WITH " + (maxId + BLOQUE_IDS + 1));
+            log.info("Secuencia pedidos_seq adelantada tras repetir el journal (último id {})", maxId);
+        }
+    }
+
+    private static void validarColumnas(Pedido p) {
+        if (excede(p.getNombreCliente(), 255) || excede(p.getTelefono(), 255) || excede(p.getDireccion(), 255)
+                || excede(p.getItemsJson(), 2000) || (p.getItemsBin() != null && p.getItemsBin().length > PedidoItemsCodec.MAX_BYTES)) {
+            throw new BusinessException("Los datos del pedido exceden el tamaño permitido");
+        }
+    }
+
+    private static boolean excede(String valor, int maximo) {
+        return valor != null && valor.length() > maximo;
+    }
+
+    private static byte[] codificar(byte tipo, Pedido p) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(tipo);
+            out.writeLong(p.getId());
+            out.writeUTF(p.getEstado());
+            if (tipo == TIPO_CREADO) {
+                out.writeLong(p.getCreadoEn());
+                out.writeInt(p.getTotal());
+                escribirTexto(out, p.getNombreCliente());
+                escribirTexto(out, p.getTelefono());
+                escribirTexto(out, p.getDireccion());
+                escribirTexto(out, p.getItemsJson());
+                byte[] itemsBin = p.getItemsBin();
+                out.writeInt(itemsBin == null ? -1 : itemsBin.length);
+                if (itemsBin != null) {
+                    out.write(itemsBin);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Entrada decodificar(PedidoJournalArchivo.Registro registro) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(registro.datos()))) {
+            byte tipo = in.readByte();
+            Pedido p = new Pedido();
+            p.setId(in.readLong());
+            p.setEstado(in.readUTF());
+            if (tipo == TIPO_CREADO) {
+                p.setCreadoEn(in.readLong());
+                p.setTotal(in.readInt());
+                p.setNombreCliente(leerTexto(in));
+                p.setTelefono(leerTexto(in));
+                p.setDireccion(leerTexto(in));
+                p.setItemsJson(leerTexto(in));
+                int largo = in.readInt();
+                if (largo >= 0) {
+                    p.setItemsBin(in.readNBytes(largo));
+                }
+            }
+            return new Entrada(registro.fin(), tipo, p, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Registro del journal ilegible en " + registro.fin(), e);
+        }
+    }
+
+    private static void escribirTexto(DataOutputStream out, String valor) throws IOException {
+        out.writeBoolean(valor != null);
+        if (valor != null) {
+            out.writeUTF(valor);
+        }
+    }
+
+    private static String leerTexto(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.backend.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Archivo del journal de pedidos: segmentos de tamaño fijo mapeados en
+ * memoria (pedidos-NNNNNNNNNNNNNNNN.journal).
+ *
+ * Registro: [int longitud][int crc32c][datos]. El segmento nace lleno de
+ * ceros, así que una longitud 0 marca el final de lo escrito; un registro
+ * con CRC inválido es una escritura cortada por una caída y también lo marca.
+ *
+ * No es thread-safe: PedidoJournal serializa las escrituras; solo forzar()
+ * puede llamarse en paralelo con ellas.
+ */
+final class PedidoJournalArchivo {
+
+    private static final Logger log = LoggerFactory.getLogger(PedidoJournalArchivo.class);
+    private static final Pattern NOMBRE = Pattern.compile("pedidos-(\\d{16})\\.journal");
+    private static final int CABECERA = 8;
+
+    /**
+     * Posición en el journal: el registro que termina aquí ya está incluido.
+     */
+    record Posicion(long segmento, int offset) {}
+
+    /**
+     * Registro leído al reabrir el journal.
+     * @param fin Posición tras el registro (checkpoint si se aplica)
+     * @param datos Contenido
+     */
+    record Registro(Posicion fin, byte[] datos) {}
+
+    private final Path directorio;
+    private final int tamanoSegmento;
+
+    private long segmentoActual;
+    // volatile: forzar() se llama desde el hilo de fsync
+    private volatile MappedByteBuffer buffer;
+
+    PedidoJournalArchivo(Path directorio, int tamanoSegmento) {
+        this.directorio = directorio;
+        this.tamanoSegmento = tamanoSegmento;
+    }
+
+    /**
+     * Abre el journal, devuelve los registros posteriores a desde y deja el
+     * escritor al final del último registro válido.
+     *
+     * @param desde Último registro ya aplicado (null = desde el segmento más antiguo)
+     * @return Registros pendientes, en orden
+     */
+    List<Registro> abrir(Posicion desde) {
+        try {
+            Files.createDirectories(directorio);
+            TreeMap<Long, Path> segmentos = listarSegmentos();
+            List<Registro> registros = new ArrayList<>();
+            if (segmentos.isEmpty()) {
+                mapear(0);
+                return registros;
+            }
+            for (Long n : segmentos.keySet()) {
+                if (desde != null && n < desde.segmento()) {
+                    continue;
+                }
+                mapear(n);
+                int inicio = desde != null && n == desde.segmento() ? desde.offset() : 0;
+                int fin = leer(n, inicio, registros);
+                buffer.position(fin);
+                if (n < segmentos.lastKey() && fin < tamanoSegmento - CABECERA && buffer.getInt(fin) != 0) {
+                    log.warn("Registro inválido a mitad del segmento {} (offset {}); se continúa con el siguiente", n, fin);
+                }
+            }
+            if (buffer == null || segmentoActual != segmentos.lastKey()) {
+                // desde apunta más allá del último segmento (journal podado a mano)
+                mapear(Math.max(segmentos.lastKey() + 1, desde == null ? 0 : desde.segmento()));
+            } else {
+                // Cola cortada por una caída: se limpia para que no parezca un registro
+                for (int i = buffer.position(); i < Math.min(buffer.position() + CABECERA, tamanoSegmento); i++) {
+                    buffer.put(i, (byte) 0);
+                }
+            }
+            return registros;
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo abrir el journal en " + directorio, e);
+        }
+    }
+
+    /**
+     * Escribe un registro (en memoria del proceso: sobrevive a una caída de
+     * la JVM; a una del sistema, solo tras forzar()).
+     *
+     * @param datos Contenido
+     * @return Posición tras el registro
+     */
+    Posicion agregar(byte[] datos) {
+        if (datos.length + CABECERA > tamanoSegmento) {
+            throw new IllegalArgumentException("Registro de " + datos.length + " bytes mayor que el segmento");
+        }
+        if (buffer.remaining() < datos.length + CABECERA) {
+            buffer.force();
+            mapear(segmentoActual + 1);
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(datos);
+        int inicio = buffer.position();
+        // Longitud al final: un lector nunca ve una longitud sin sus datos
+        buffer.putInt(inicio + 4, (int) crc.getValue());
+        buffer.put(inicio + CABECERA, datos);
+        buffer.putInt(inicio, datos.length);
+        buffer.position(inicio + CABECERA + datos.length);
+        return new Posicion(segmentoActual, buffer.position());
+    }
+
+    /**
+     * Lleva al disco lo escrito en el segmento actual (fsync).
+     */
+    void forzar() {
+        buffer.force();
+    }
+
+    /**
+     * Borra los segmentos ya aplicados, conservando los retenidos más recientes.
+     *
+     * @param aplicadoHasta Segmento del último registro aplicado
+     * @param retenidos Segmentos aplicados a conservar (para reconstruir una BD en memoria)
+     */
+    void podar(long aplicadoHasta, int retenidos) {
+        try {
+            for (var e : listarSegmentos().entrySet()) {
+                if (e.getKey() < aplicadoHasta - retenidos) {
+                    Files.deleteIfExists(e.getValue());
+                }
+            }
+        } catch (IOException e) {
+            log.warn("No se pudieron borrar segmentos aplicados del journal", e);
+        }
+    }
+
+    private int leer(long segmento, int inicio, List<Registro> destino) {
+        int pos = inicio;
+        while (pos + CABECERA <= tamanoSegmento) {
+            int longitud = buffer.getInt(pos);
+            if (longitud <= 0 || pos + CABECERA + longitud > tamanoSegmento) {
+                break;
+            }
+            byte[] datos = new byte[longitud];
+            buffer.get(pos + CABECERA, datos);
+            CRC32C crc = new CRC32C();
+            crc.update(datos);
+            if ((int) crc.getValue() != buffer.getInt(pos + 4)) {
+                log.warn("Registro cortado en el segmento {} (offset {}); se descarta desde ahí", segmento, pos);
+                break;
+            }
+            pos += CABECERA + longitud;
+            destino.add(new Registro(new Posicion(segmento, pos), datos));
+        }
+        return pos;
+    }
+
+    private void mapear(long segmento) {
+        Path archivo = directorio.resolve(String.format("pedidos-%016d.journal", segmento));
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // El mapeo sigue siendo válido tras cerrar el canal
+            buffer = canal.map(FileChannel.MapMode.READ_WRITE, 0, tamanoSegmento);
+            segmentoActual = segmento;
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo mapear " + archivo, e);
+        }
+    }
+
+    private TreeMap<Long, Path> listarSegmentos() throws IOException {
+        TreeMap<Long, Path> segmentos = new TreeMap<>();
+        try (Stream<Path> archivos = Files.list(directorio)) {
+            archivos.forEach(p -> {
+                Matcher m = NOMBRE.matcher(p.getFileName().toString());
+                if (m.matches()) {
+                    segmentos.put(Long.parseLong(m.group(1)), p);
+                }
+            });
+        }
+        return segmentos;
+    }
+}
@@ -1,13 +1,36 @@
 package com.example.backend.service;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import com.example.backend.model.Pedido;
+import com.example.backend.model.PedidoArchivado;
+import com.example.backend.model.PedidoCambio;
+import com.example.backend.dto.CambiosPedidosDTO;
+import com.example.backend.dto.CamposSolicitados;
+import com.example.backend.dto.PedidoCambioDTO;
 import com.example.backend.dto.PedidoDTO;
+import com.example.backend.dto.PedidoResumenDTO;
 import com.example.backend.exception.ResourceNotFoundException;
 import com.example.backend.exception.BusinessException;
+import com.example.backend.exception.DeadlineExceededException;
+import com.example.backend.repository.PedidoArchivadoRepository;
 import com.example.backend.repository.PedidoRepository;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -17,19 +40,81 @@ import java.util.stream.Collectors;
  * - Validación de pedidos
  * - Gestión de estado de pedidos
  * - Transformación de DTOs
+ * 
+ * Transacciones: por defecto de solo lectura (FlushMode.MANUAL y sesión
+ * read-only en Hibernate: sin dirty checking ni snapshots); los métodos
+ * de escritura declaran su propia transacción.
  */
 @Service
+@Transactional(readOnly = true)
 public class PedidoService {
 
     private final PedidoRepository pedidoRepository;
+    private final PedidoArchivadoRepository pedidoArchivadoRepository;
+    private final PedidoIngestionService pedidoIngestionService;
+    private final PedidoItemsCodec itemsCodec;
+    private final PricingService pricingService;
+    private final PedidoColaService pedidoColaService;
+    private final BusInvalidacion busInvalidacion;
+    private final PedidoCambioService pedidoCambioService;
+    private final PedidoJournal pedidoJournal;
+    private final TransactionTemplate transactionTemplate;
+
+    // true = los pedidos nuevos pasan por la cola de escritura agrupada
+    @Value("${app.pedidos.ingestion.enabled:true}")
+    private boolean ingestionHabilitada;
+
+    @Value("${app.pedidos.ingestion.wait-timeout-ms:5000}")
+    private long timeoutEsperaMs;
+
+    @Value("${app.pedidos.journal.wait-timeout-ms:5000}")
+    private long timeoutJournalMs;
+
+    // json = itemsJson tal cual; compact = items empaquetados con PedidoItemsCodec
+    @Value("${app.pedidos.items.encoding:json}")
+    private String codificacionItems;
 
     // Estados válidos de pedidos
     private static final String ESTADO_PENDIENTE = "PENDIENTE";
     private static final String ESTADO_ATENDIDO = "ATENDIDO";
     private static final String ESTADO_CANCELADO = "CANCELADO";
 
-    public PedidoService(PedidoRepository pedidoRepository) {
+    // Campos disponibles para fields= y proyecciones que los cubren
+    public static final Set<String> CAMPOS_PEDIDO = Set.of(
+            "id", "nombreCliente", "telefono", "direccion", "total", "itemsJson", "estado");
+    private static final Set<String> CAMPOS_SIN_ITEMS = Set.of(
+            "id", "nombreCliente", "telefono", "direccion", "total", "estado");
+    private static final Set<String> CAMPOS_RESUMEN_MINIMO = Set.of("id", "nombreCliente", "total", "estado");
+
+    private static final Map<String, Function<PedidoDTO, Object>> ACCESORES_PEDIDO = Map.of(
+            "id", PedidoDTO::getId,
+            "nombreCliente", PedidoDTO::getNombreCliente,
+            "telefono", PedidoDTO::getTelefono,
+            "direccion", PedidoDTO::getDireccion,
+            "total", PedidoDTO::getTotal,
+            "itemsJson", PedidoDTO::getItemsJson,
+            "estado", PedidoDTO::getEstado);
+    private static final Map<String, Function<PedidoResumenDTO, Object>> ACCESORES_RESUMEN = Map.of(
+            "id", PedidoResumenDTO::id,
+            "nombreCliente", PedidoResumenDTO::nombreCliente,
+            "total", PedidoResumenDTO::total,
+            "estado", PedidoResumenDTO::estado);
+
+    public PedidoService(PedidoRepository pedidoRepository, PedidoArchivadoRepository pedidoArchivadoRepository,
+                         PedidoIngestionService pedidoIngestionService, PedidoItemsCodec itemsCodec,
+                         PricingService pricingService, PedidoColaService pedidoColaService,
+                         BusInvalidacion busInvalidacion, PedidoCambioService pedidoCambioService,
+                         PedidoJournal pedidoJournal, PlatformTransactionManager transactionManager) {
         this.pedidoRepository = pedidoRepository;
+        this.pedidoArchivadoRepository = pedidoArchivadoRepository;
+        this.pedidoIngestionService = pedidoIngestionService;
+        this.itemsCodec = itemsCodec;
+        this.pricingService = pricingService;
+        this.pedidoColaService = pedidoColaService;
+        this.busInvalidacion = busInvalidacion;
+        this.pedidoCambioService = pedidoCambioService;
+        this.pedidoJournal = pedidoJournal;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     /**
@@ -43,14 +128,41 @@ public class PedidoService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Obtiene todos los pedidos, opcionalmente sin items.
+     * Sin items la consulta no lee ni decodifica las columnas de items.
+     * 
+     * @param incluirItems false para vistas de lista
+     * @return Lista de PedidoDTO
+     */
+    public List<PedidoDTO> obtenerTodos(boolean incluirItems) {
+        return incluirItems ? obtenerTodos() : pedidoRepository.obtenerResumenes();
+    }
+
+    /**
+     * Obtiene todos los pedidos con solo los campos solicitados (fields=).
+     * Usa la proyección más liviana que cubra los campos.
+     * 
+     * @param campos Campos solicitados
+     * @return Lista de mapas con los campos pedidos
+     */
+    public List<Map<String, Object>> obtenerTodos(CamposSolicitados campos) {
+        if (campos.cubiertosPor(CAMPOS_RESUMEN_MINIMO)) {
+            return campos.proyectar(pedidoRepository.obtenerResumenesMinimos(), ACCESORES_RESUMEN);
+        }
+        return campos.proyectar(obtenerTodos(!campos.cubiertosPor(CAMPOS_SIN_ITEMS)), ACCESORES_PEDIDO);
+    }
+
     /**
      * Obtiene un pedido por ID.
+     * Si no está en la tabla caliente se busca en el archivo.
      * @param id ID del pedido
      * @return PedidoDTO
      * @throws ResourceNotFoundException si el pedido no existe
      */
     public PedidoDTO obtenerPorId(Long id) {
         Pedido pedido = pedidoRepository.obtenerPorId(id)
+                .or(() -> pedidoArchivadoRepository.obtenerPorId(id).map(PedidoArchivado::aPedido))
                 .orElseThrow(() -> new ResourceNotFoundException("Pedido", "id", id));
         return convertirADTO(pedido);
     }
@@ -60,11 +172,15 @@ public class PedidoService {
      * Validaciones:
      * - El total debe ser positivo
      * - Debe tener al menos un item
+     * - Total y precios se verifican contra el catálogo (PricingService)
      * 
      * @param pedidoDTO DTO con los datos del pedido
      * @return PedidoDTO del pedido creado
      * @throws BusinessException si los datos no son válidos
      */
+    // Sin transacción propia: el escritor de la cola hace commit por lotes y
+    // mantener aquí una conexión abierta mientras se espera solo la desperdiciaría
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public PedidoDTO crear(PedidoDTO pedidoDTO) {
         // Validar total
         if (pedidoDTO.getTotal() == null || pedidoDTO.getTotal() <= 0) {
@@ -76,13 +192,86 @@ public class PedidoService {
             throw new BusinessException("El pedido debe contener al menos un item");
         }
 
+        // Precios del servidor: el total del cliente no es confiable
+        PricingService.Cotizacion cotizacion = pricingService.cotizar(pedidoDTO.getItemsJson(), pedidoDTO.getTotal());
+
         Pedido pedido = convertirDesdeDTO(pedidoDTO);
+        pedido.setTotal(cotizacion.total());
+        if (cotizacion.corregido()) {
+            aplicarItems(pedido, cotizacion.itemsJson());
+        }
         pedido.setEstado(ESTADO_PENDIENTE); // Estado inicial
+        pedido.setCreadoEn(System.currentTimeMillis());
+
+        if (pedidoJournal.habilitado()) {
+            // Ya durable en el journal; la fila, la cola de cocina y el aviso llegan al aplicarse
+            return convertirADTO(pedidoJournal.registrarCreado(pedido));
+        }
         
-        Pedido pedidoGuardado = pedidoRepository.save(pedido);
+        Pedido pedidoGuardado = ingestionHabilitada
+                ? esperarIngestion(pedido)
+                : pedidoIngestionService.guardar(pedido);
+        // Ya confirmado: entra a la cola de cocina
+        pedidoColaService.agregar(pedidoGuardado.getId(), pedidoGuardado.getCreadoEn(), pedidoGuardado.getTotal());
+        busInvalidacion.publicar(BusInvalidacion.CANAL_PEDIDOS, pedidoGuardado.getId().toString());
         return convertirADTO(pedidoGuardado);
     }
 
+    /**
+     * Encola el pedido y espera a que el lote que lo contiene haga commit.
+     * 
+     * Un error aquí siempre significa que el pedido no se guardó: al vencer
+     * la espera se cancela el envío, y si el escritor ya lo tomó se espera su
+     * resultado en lugar de invitar a un reintento que lo duplicaría.
+     */
+    private Pedido esperarIngestion(Pedido pedido) {
+        // La espera también queda acotada por el deadline de la solicitud
+        long timeout = Deadline.timeoutMs(timeoutEsperaMs, "confirmación del pedido");
+        PedidoIngestionService.Envio envio = pedidoIngestionService.encolar(pedido);
+        try {
+            return envio.resultado().get(timeout, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (!pedidoIngestionService.cancelar(envio)) {
+                return esperarLoteEnCurso(envio);
+            }
+            throw new BusinessException("Se interrumpió la creación del pedido", e);
+        } catch (TimeoutException e) {
+            if (!pedidoIngestionService.cancelar(envio)) {
+                return esperarLoteEnCurso(envio);
+            }
+            if (timeout < timeoutEsperaMs) {
+                throw new DeadlineExceededException("confirmación del pedido");
+            }
+            throw new BusinessException("El pedido no se confirmó a tiempo, intenta de nuevo", e);
+        } catch (ExecutionException e) {
+            throw new BusinessException("No se pudo guardar el pedido", e.getCause());
+        }
+    }
+
+    /**
+     * Resultado de un envío que ya está en un lote: el commit (o su error)
+     * llega en lo que tarda la transacción del lote.
+     */
+    private Pedido esperarLoteEnCurso(PedidoIngestionService.Envio envio) {
+        boolean interrumpido = false;
+        try {
+            while (true) {
+                try {
+                    return envio.resultado().get();
+                } catch (InterruptedException e) {
+                    interrumpido = true;
+                } catch (ExecutionException e) {
+                    throw new BusinessException("No se pudo guardar el pedido", e.getCause());
+                }
+            }
+        } finally {
+            if (interrumpido) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
     /**
      * Actualiza el estado de un pedido.
      * Estados válidos: PENDIENTE, ATENDIDO, CANCELADO
@@ -93,6 +282,8 @@ public class PedidoService {
      * @throws ResourceNotFoundException si el pedido no existe
      * @throws BusinessException si el estado no es válido
      */
+    // Sin transacción propia: con journal se espera al aplicador sin retener una conexión
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public PedidoDTO cambiarEstado(Long id, String nuevoEstado) {
         // Validar estado
         if (!esEstadoValido(nuevoEstado)) {
@@ -102,18 +293,146 @@ public class PedidoService {
             );
         }
 
-        // Verificar que existe
-        if (!pedidoRepository.existePorId(id)) {
-            throw new ResourceNotFoundException("Pedido", "id", id);
+        if (pedidoJournal.habilitado()) {
+            verificarModificable(id);
+            // Se espera a que se aplique: quien cambia el estado lo ve en la siguiente lectura
+            return convertirADTO(esperarJournal(id, pedidoJournal.registrarEstado(id, nuevoEstado)));
         }
 
-        // Actualizar directamente en BD (mucho más rápido)
-        pedidoRepository.actualizarEstado(id, nuevoEstado);
-        
-        // Obtener el pedido actualizado para retornar
-        Pedido pedidoActualizado = pedidoRepository.obtenerPorId(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Pedido", "id", id));
-        return convertirADTO(pedidoActualizado);
+        return transactionTemplate.execute(status -> {
+            verificarModificable(id);
+
+            // Actualizar directamente en BD (mucho más rápido)
+            pedidoRepository.actualizarEstado(id, nuevoEstado);
+
+            // Obtener el pedido actualizado para retornar (vacío si el archivador lo movió entre medio)
+            Pedido pedidoActualizado = pedidoRepository.obtenerPorId(id)
+                    .orElseThrow(() -> noModificable(id));
+            pedidoCambioService.registrarEstado(pedidoActualizado);
+            actualizarColaAlConfirmar(pedidoActualizado);
+            return convertirADTO(pedidoActualizado);
+        });
+    }
+
+    /**
+     * Verifica que el pedido existe (o está en el journal sin aplicar) y no
+     * está archivado (los archivados son de solo lectura).
+     */
+    private void verificarModificable(Long id) {
+        // Primero el journal: si ya se aplicó, la fila es visible
+        if (pedidoJournal.pendienteDeAplicar(id) || pedidoRepository.existePorId(id)) {
+            return;
+        }
+        throw noModificable(id);
+    }
+
+    /**
+     * Error para un pedido que no está en la tabla caliente: archivado
+     * (BusinessException) o inexistente (404).
+     */
+    private RuntimeException noModificable(Long id) {
+        if (pedidoArchivadoRepository.existsById(id)) {
+            return new BusinessException("El pedido " + id + " está archivado y no se puede modificar");
+        }
+        return new ResourceNotFoundException("Pedido", "id", id);
+    }
+
+    /**
+     * Espera a que el aplicador del journal lleve el cambio a la BD.
+     */
+    private Pedido esperarJournal(Long id, CompletableFuture<Pedido> aplicado) {
+        long timeout = Deadline.timeoutMs(timeoutJournalMs, "confirmación del cambio de estado");
+        Pedido pedido;
+        try {
+            pedido = aplicado.get(timeout, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException("Se interrumpió el cambio de estado", e);
+        } catch (TimeoutException e) {
+            if (timeout < timeoutJournalMs) {
+                throw new DeadlineExceededException("confirmación del cambio de estado");
+            }
+            // Ya está en el journal: se aplicará aunque la respuesta no lo confirme
+            throw new BusinessException("El cambio de estado quedó registrado pero aún no se refleja, consulta el pedido en unos segundos", e);
+        } catch (ExecutionException e) {
+            throw new BusinessException("No se pudo cambiar el estado", e.getCause());
+        }
+        if (pedido == null) {
+            // Archivado o borrado entre la verificación y la aplicación
+            throw noModificable(id);
+        }
+        return pedido;
+    }
+
+    /**
+     * Entrega al empleado el siguiente pedido pendiente de la cola de cocina.
+     * Solo hay una consulta (el pedido entregado); los ids que ya no están
+     * pendientes en la BD se descartan y se pasa al siguiente.
+     * 
+     * @param empleado Usuario que reclama
+     * @return Pedido reclamado, vacío si no hay pendientes
+     */
+    public Optional<PedidoDTO> reclamarSiguiente(String empleado) {
+        Optional<Long> id;
+        while ((id = pedidoColaService.reclamar(empleado)).isPresent()) {
+            Optional<Pedido> pedido = pedidoRepository.obtenerPorId(id.get());
+            if (pedido.isPresent() && ESTADO_PENDIENTE.equals(pedido.get().getEstado())) {
+                busInvalidacion.publicar(BusInvalidacion.CANAL_PEDIDOS_RECLAMO, id.get().toString());
+                return Optional.of(convertirADTO(pedido.get()));
+            }
+            pedidoColaService.quitar(id.get());
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Cambios de pedidos posteriores a una secuencia, para consumidores que
+     * se ponen al día de forma incremental. Los CREADO llevan el pedido,
+     * cargado con una sola consulta para todo el lote.
+     * 
+     * @param desde Última seq procesada por el consumidor
+     * @param limite Máximo de cambios
+     * @return Lote de cambios y la seq desde la que seguir
+     */
+    public CambiosPedidosDTO obtenerCambios(long desde, int limite) {
+        PedidoCambioService.Lote lote = pedidoCambioService.obtenerDesde(desde, limite);
+        Set<Long> creados = lote.cambios().stream()
+                .filter(c -> PedidoCambio.TIPO_CREADO.equals(c.getTipo()))
+                .map(PedidoCambio::getPedidoId)
+                .collect(Collectors.toSet());
+        Map<Long, PedidoDTO> pedidos = creados.isEmpty()
+                ? Map.of()
+                : pedidoRepository.findAllById(creados).stream()
+                        .map(this::convertirADTO)
+                        .collect(Collectors.toMap(PedidoDTO::getId, Function.identity()));
+        List<PedidoCambioDTO> cambios = lote.cambios().stream()
+                .map(c -> new PedidoCambioDTO(c.getSeq(), c.getPedidoId(), c.getTipo(), c.getEstado(),
+                        c.getTotal(), c.getOcurridoEn(),
+                        PedidoCambio.TIPO_CREADO.equals(c.getTipo()) ? pedidos.get(c.getPedidoId()) : null))
+                .collect(Collectors.toList());
+        return new CambiosPedidosDTO(cambios, lote.siguiente(), lote.hayMas());
+    }
+
+    /**
+     * Sincroniza la cola de cocina (de este y de los demás nodos) cuando la
+     * transacción confirma.
+     */
+    private void actualizarColaAlConfirmar(Pedido pedido) {
+        Long id = pedido.getId();
+        boolean pendiente = ESTADO_PENDIENTE.equals(pedido.getEstado());
+        Long creadoEn = pedido.getCreadoEn();
+        Integer total = pedido.getTotal();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                if (pendiente) {
+                    pedidoColaService.agregar(id, creadoEn, total);
+                } else {
+                    pedidoColaService.quitar(id);
+                }
+                busInvalidacion.publicar(BusInvalidacion.CANAL_PEDIDOS, id.toString());
+            }
+        });
     }
 
     /**
@@ -145,6 +464,22 @@ public class PedidoService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Obtiene pedidos por estado, opcionalmente sin items.
+     * @param estado Estado a filtrar
+     * @param incluirItems false para vistas de lista
+     * @return Lista de PedidoDTO con el estado especificado
+     */
+    public List<PedidoDTO> obtenerPorEstado(String estado, boolean incluirItems) {
+        if (incluirItems) {
+            return obtenerPorEstado(estado);
+        }
+        if (!esEstadoValido(estado)) {
+            throw new BusinessException("Estado inválido: " + estado);
+        }
+        return pedidoRepository.obtenerResumenesPorEstado(estado);
+    }
+
     /**
      * Busca pedidos por nombre de cliente.
      * 
@@ -183,15 +518,19 @@ public class PedidoService {
 
     /**
      * Convierte una entidad Pedido a PedidoDTO.
+     * Los items compactos se decodifican solo aquí, cuando se piden.
      */
     private PedidoDTO convertirADTO(Pedido pedido) {
+        String itemsJson = pedido.getItemsJson() != null
+                ? pedido.getItemsJson()
+                : itemsCodec.decodificar(pedido.getItemsBin());
         return new PedidoDTO(
                 pedido.getId(),
                 pedido.getNombreCliente(),
                 pedido.getTelefono(),
                 pedido.getDireccion(),
                 pedido.getTotal(),
-                pedido.getItemsJson(),
+                itemsJson,
                 pedido.getEstado()
         );
     }
@@ -205,7 +544,22 @@ public class PedidoService {
         pedido.setTelefono(dto.getTelefono());
         pedido.setDireccion(dto.getDireccion());
         pedido.setTotal(dto.getTotal());
-        pedido.setItemsJson(dto.getItemsJson());
+        aplicarItems(pedido, dto.getItemsJson());
         return pedido;
     }
+
+    /**
+     * Guarda los items en el formato configurado.
+     */
+    private void aplicarItems(Pedido pedido, String itemsJson) {
+        byte[] itemsBin = "compact".equals(codificacionItems) ? itemsCodec.codificar(itemsJson) : null;
+        if (itemsBin != null) {
+            pedido.setItemsBin(itemsBin);
+            pedido.setItemsJson(null);
+        } else {
+            // Modo json, o items no representables sin pérdida en formato compacto
+            pedido.setItemsBin(null);
+            pedido.setItemsJson(itemsJson);
+        }
+    }
 }
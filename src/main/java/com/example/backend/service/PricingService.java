@@ -0,0 +1,203 @@
+package com.example.backend.service;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.backend.dto.ProductoResumenDTO;
+import com.example.backend.exception.BusinessException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Motor de precios del checkout.
+ *
+ * Recalcula el total de un pedido con los precios del catálogo en memoria
+ * en una sola pasada sobre los items, sin consultas a la BD. El mapa de
+ * precios se arma desde la foto del catálogo de ProductoService
+ * (CatalogoSnapshot.resumenes()) y se rehace solo cuando cambia la foto.
+ *
+ * Modos (app.pedidos.pricing.mode):
+ * - off: se confía en el total del cliente (comportamiento anterior)
+ * - correct: se corrigen precios de items y total según el catálogo
+ * - reject: cualquier diferencia rechaza el pedido
+ *
+ * Los productos que no están en el catálogo local conservan el precio del
+ * cliente (el menú público viene de Google Script y la BD puede no tener
+ * productos); por eso todo precio enviado debe ser un entero positivo.
+ * Con app.pedidos.pricing.reject-unknown=true se rechazan: solo si el
+ * catálogo local tiene todos los productos del menú.
+ */
+@Service
+public class PricingService {
+
+    private static final Logger log = LoggerFactory.getLogger(PricingService.class);
+
+    /**
+     * Resultado de cotizar un pedido.
+     * @param total Total recalculado
+     * @param itemsJson Items a guardar (corregidos si hizo falta)
+     * @param corregido true si el total o algún precio difería del enviado
+     */
+    public record Cotizacion(int total, String itemsJson, boolean corregido) {}
+
+    /**
+     * Precios de una foto del catálogo. Inmutable: se reemplaza entero.
+     */
+    private record MapaPrecios(CatalogoSnapshot origen, Map<Long, Integer> porId, Map<String, Integer> porNombre) {}
+
+    private final ProductoService productoService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.pedidos.pricing.mode:correct}")
+    private String modo;
+
+    @Value("${app.pedidos.pricing.reject-unknown:false}")
+    private boolean rechazarDesconocidos;
+
+    private volatile MapaPrecios precios = new MapaPrecios(null, Map.of(), Map.of());
+
+    public PricingService(ProductoService productoService, ObjectMapper objectMapper) {
+        this.productoService = productoService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Verifica y, según el modo, corrige los precios de un pedido.
+     *
+     * @param itemsJson Array JSON de items enviado por el carrito
+     * @param totalCliente Total enviado por el cliente
+     * @return Cotización con el total y los items a guardar
+     * @throws BusinessException si los items son inválidos o, en modo reject, si hay diferencias
+     */
+    public Cotizacion cotizar(String itemsJson, int totalCliente) {
+        if ("off".equals(modo)) {
+            return new Cotizacion(totalCliente, itemsJson, false);
+        }
+        JsonNode items = leerItems(itemsJson);
+        MapaPrecios mapa = preciosActuales();
+
+        long total = 0;
+        boolean preciosCorregidos = false;
+        for (JsonNode item : items) {
+            JsonNode cantidad = item.get("cantidad");
+            JsonNode precio = item.get("precio");
+            if (cantidad == null || !cantidad.canConvertToInt() || cantidad.intValue() <= 0
+                    || precio == null || !precio.isIntegralNumber() || !precio.canConvertToInt()
+                    || precio.intValue() <= 0) {
+                throw new BusinessException("Items del pedido inválidos");
+            }
+            Integer precioCatalogo = buscarPrecio(mapa, item);
+            int precioItem;
+            if (precioCatalogo == null) {
+                if (rechazarDesconocidos) {
+                    throw new BusinessException("Producto no disponible: " + item.path("producto").asText());
+                }
+                precioItem = precio.intValue();
+            } else {
+                precioItem = precioCatalogo;
+                if (precio.intValue() != precioCatalogo) {
+                    preciosCorregidos = true;
+                    ((ObjectNode) item).put("precio", precioCatalogo);
+                }
+            }
+            total += (long) precioItem * cantidad.intValue();
+        }
+        if (total <= 0 || total > Integer.MAX_VALUE) {
+            throw new BusinessException("El total debe ser un valor positivo");
+        }
+
+        boolean corregido = preciosCorregidos || total != totalCliente;
+        if (corregido) {
+            if ("reject".equals(modo)) {
+                throw new BusinessException("El total del pedido no coincide con los precios actuales (esperado: " + total + ")");
+            }
+            log.warn("Pedido con precios desactualizados: total enviado {}, total recalculado {}", totalCliente, total);
+        }
+        String itemsGuardar = preciosCorregidos ? escribir(items) : itemsJson;
+        return new Cotizacion((int) total, itemsGuardar, corregido);
+    }
+
+    private JsonNode leerItems(String itemsJson) {
+        JsonNode items;
+        try {
+            items = objectMapper.readTree(itemsJson);
+        } catch (IOException e) {
+            throw new BusinessException("Items del pedido inválidos");
+        }
+        if (items == null || !items.isArray() || items.isEmpty()) {
+            throw new BusinessException("El pedido debe contener al menos un item");
+        }
+        for (JsonNode item : items) {
+            if (!item.isObject()) {
+                throw new BusinessException("Items del pedido inválidos");
+            }
+        }
+        return items;
+    }
+
+    /**
+     * Busca por id (si viene y existe) y si no por nombre normalizado.
+     */
+    private Integer buscarPrecio(MapaPrecios mapa, JsonNode item) {
+        JsonNode id = item.get("id");
+        if (id != null && id.canConvertToLong()) {
+            Integer precio = mapa.porId().get(id.longValue());
+            if (precio != null) {
+                return precio;
+            }
+        }
+        JsonNode producto = item.get("producto");
+        return producto == null || !producto.isTextual() ? null : mapa.porNombre().get(normalizar(producto.textValue()));
+    }
+
+    /**
+     * Mapa de precios vigente; se rehace solo si ProductoService publicó otra foto.
+     */
+    private MapaPrecios preciosActuales() {
+        MapaPrecios actual = precios;
+        CatalogoSnapshot catalogo = productoService.catalogo();
+        if (actual.origen() == catalogo) {
+            return actual;
+        }
+        // Sin lock: si dos hilos lo arman a la vez, los dos mapas son iguales
+        MapaPrecios nuevo = armar(catalogo);
+        precios = nuevo;
+        return nuevo;
+    }
+
+    private MapaPrecios armar(CatalogoSnapshot catalogo) {
+        Map<Long, Integer> porId = new HashMap<>();
+        Map<String, Integer> porNombre = new HashMap<>();
+        for (ProductoResumenDTO p : catalogo.resumenes()) {
+            if (p.precio() == null) {
+                continue;
+            }
+            porId.put(p.id(), p.precio());
+            if (p.nombre() != null) {
+                porNombre.put(normalizar(p.nombre()), p.precio());
+            }
+        }
+        log.debug("Mapa de precios armado: {} productos", porId.size());
+        return new MapaPrecios(catalogo, Map.copyOf(porId), Map.copyOf(porNombre));
+    }
+
+    private static String normalizar(String nombre) {
+        return nombre.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private String escribir(JsonNode items) {
+        try {
+            return objectMapper.writeValueAsString(items);
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudieron escribir los items corregidos", e);
+        }
+    }
+}
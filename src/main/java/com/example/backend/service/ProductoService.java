@@ -1,16 +1,27 @@
 package com.example.backend.service;
 
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import com.example.backend.dto.CamposSolicitados;
 import com.example.backend.dto.ProductoDTO;
+import com.example.backend.dto.ProductoResumenDTO;
 import com.example.backend.exception.BusinessException;
 import com.example.backend.exception.ResourceNotFoundException;
 import com.example.backend.model.Producto;
 import com.example.backend.repository.ProductoRepository;
 
+import jakarta.annotation.PostConstruct;
+
 /**
  * Servicio de Productos.
  * Contiene la lógica de negocio separada del controlador.
@@ -18,35 +29,94 @@ import com.example.backend.repository.ProductoRepository;
  * - Validación de reglas de negocio
  * - Transformación entre DTO y entidades
  * - Operaciones con la base de datos a través del repositorio
+ * 
+ * Transacciones: por defecto de solo lectura; crear/actualizar/eliminar
+ * declaran su propia transacción de escritura.
+ * 
+ * Lecturas: todas salen de un CatalogoSnapshot inmutable en una referencia
+ * volatile. La BD se lee al arrancar y tras cada escritura confirmada
+ * (propia o de otro nodo); las lecturas no toman locks ni van a la BD.
+ * 
+ * Versión del catálogo: cada escritura confirmada incrementa un contador
+ * que se usa como ETag / Last-Modified de las respuestas GET del catálogo.
+ * El cambio se publica en el BusInvalidacion: con varios nodos, los demás
+ * también incrementan su versión. PricingService toma sus precios de la
+ * misma foto (ver catalogo()).
  */
 @Service
+@Transactional(readOnly = true)
 public class ProductoService {
 
+    // Campos disponibles para fields= y proyecciones que los cubren
+    public static final Set<String> CAMPOS_PRODUCTO = Set.of("id", "nombre", "descripcion", "precio", "imagenUrl");
+    private static final Set<String> CAMPOS_RESUMEN = Set.of("id", "nombre", "precio");
+
+    private static final Map<String, Function<ProductoDTO, Object>> ACCESORES_PRODUCTO = Map.of(
+            "id", ProductoDTO::getId,
+            "nombre", ProductoDTO::getNombre,
+            "descripcion", ProductoDTO::getDescripcion,
+            "precio", ProductoDTO::getPrecio,
+            "imagenUrl", ProductoDTO::getImagenUrl);
+    private static final Map<String, Function<ProductoResumenDTO, Object>> ACCESORES_RESUMEN = Map.of(
+            "id", ProductoResumenDTO::id,
+            "nombre", ProductoResumenDTO::nombre,
+            "precio", ProductoResumenDTO::precio);
+
+    // Distingue versiones entre reinicios (la BD en memoria se recrea)
+    private final String idInstancia = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong versionCatalogo = new AtomicLong();
+    private volatile long catalogoModificadoEn = System.currentTimeMillis();
+    private volatile CatalogoSnapshot catalogo = CatalogoSnapshot.VACIO;
+
     private final ProductoRepository productoRepository;
-    private final com.example.backend.repository.UsuarioRepository usuarioRepository;
-    private final org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder passwordEncoder;
-    private final com.example.backend.security.JwtUtils jwtUtils;
-
-    public ProductoService(ProductoRepository productoRepository,
-                          com.example.backend.repository.UsuarioRepository usuarioRepository,
-                          org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder passwordEncoder,
-                          com.example.backend.security.JwtUtils jwtUtils) {
+    private final BusInvalidacion busInvalidacion;
+
+    public ProductoService(ProductoRepository productoRepository, BusInvalidacion busInvalidacion) {
         this.productoRepository = productoRepository;
-        this.usuarioRepository = usuarioRepository;
-        this.passwordEncoder = passwordEncoder;
-        this.jwtUtils = jwtUtils;
+        this.busInvalidacion = busInvalidacion;
     }
 
-    public com.example.backend.repository.UsuarioRepository getUsuarioRepository() {
-        return usuarioRepository;
+    @PostConstruct
+    void suscribir() {
+        recargarCatalogo();
+        // Primero la foto nueva y después la versión: un ETag nuevo nunca sirve datos viejos
+        busInvalidacion.suscribir(BusInvalidacion.CANAL_CATALOGO, evento -> {
+            recargarCatalogo();
+            incrementarVersion();
+        });
     }
 
-    public org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder getPasswordEncoder() {
-        return passwordEncoder;
+    /**
+     * ETag débil de la versión actual del catálogo (débil para que Tomcat
+     * pueda comprimir la respuesta; un ETag fuerte desactiva la compresión).
+     * @return ETag, p. ej. W/"m1x2y3-4"
+     */
+    public String etagCatalogo() {
+        return "W/\"" + idInstancia + "-" + versionCatalogo.get() + "\"";
     }
 
-    public com.example.backend.security.JwtUtils getJwtUtils() {
-        return jwtUtils;
+    /**
+     * Versión actual del catálogo; cambia tras cada escritura confirmada.
+     * @return Contador de versión
+     */
+    public long versionCatalogo() {
+        return versionCatalogo.get();
+    }
+
+    /**
+     * Momento de la última escritura confirmada del catálogo.
+     * @return Epoch en milisegundos
+     */
+    public long catalogoModificadoEn() {
+        return catalogoModificadoEn;
+    }
+
+    /**
+     * Foto vigente del catálogo, para quien necesita índices propios sobre
+     * ella (PricingService); cambia de identidad con cada recarga.
+     */
+    CatalogoSnapshot catalogo() {
+        return catalogo;
     }
 
     /**
@@ -54,10 +124,19 @@ public class ProductoService {
      * @return Lista de ProductoDTO
      */
     public List<ProductoDTO> obtenerTodos() {
-        return productoRepository.obtenerTodos()
-                .stream()
-                .map(this::convertirADTO)
-                .collect(Collectors.toList());
+        return catalogo.todos();
+    }
+
+    /**
+     * Obtiene todos los productos con solo los campos solicitados (fields=).
+     * @param campos Campos solicitados
+     * @return Lista de mapas con los campos pedidos
+     */
+    public List<Map<String, Object>> obtenerTodos(CamposSolicitados campos) {
+        if (campos.cubiertosPor(CAMPOS_RESUMEN)) {
+            return campos.proyectar(catalogo.resumenes(), ACCESORES_RESUMEN);
+        }
+        return campos.proyectar(obtenerTodos(), ACCESORES_PRODUCTO);
     }
 
     /**
@@ -67,9 +146,8 @@ public class ProductoService {
      * @throws ResourceNotFoundException si el producto no existe
      */
     public ProductoDTO obtenerPorId(Long id) {
-        Producto producto = productoRepository.obtenerPorId(id)
+        return catalogo.porId(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Producto", "id", id));
-        return convertirADTO(producto);
     }
 
     /**
@@ -78,6 +156,7 @@ public class ProductoService {
      * @return ProductoDTO del producto creado
      * @throws BusinessException si los datos no son válidos
      */
+    @Transactional
     public ProductoDTO crear(ProductoDTO productoDTO) {
         // Validar que el precio sea válido
         if (productoDTO.getPrecio() == null || productoDTO.getPrecio() < 0) {
@@ -86,6 +165,7 @@ public class ProductoService {
 
         Producto producto = convertirDesdeDTO(productoDTO);
         Producto productoGuardado = productoRepository.save(producto);
+        registrarCambioCatalogo();
         return convertirADTO(productoGuardado);
     }
 
@@ -96,6 +176,7 @@ public class ProductoService {
      * @return ProductoDTO del producto actualizado
      * @throws ResourceNotFoundException si el producto no existe
      */
+    @Transactional
     public ProductoDTO actualizar(Long id, ProductoDTO productoDTO) {
         Producto productoExistente = productoRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Producto", "id", id));
@@ -120,6 +201,7 @@ public class ProductoService {
         }
 
         Producto productoActualizado = productoRepository.save(productoExistente);
+        registrarCambioCatalogo();
         return convertirADTO(productoActualizado);
     }
 
@@ -128,35 +210,34 @@ public class ProductoService {
      * @param id ID del producto a eliminar
      * @throws ResourceNotFoundException si el producto no existe
      */
+    @Transactional
     public void eliminar(Long id) {
         if (!productoRepository.existePorId(id)) {
             throw new ResourceNotFoundException("Producto", "id", id);
         }
         productoRepository.deleteById(id);
+        registrarCambioCatalogo();
     }
 
     /**
      * Busca productos por nombre.
      * 
      * NUEVA FUNCIONALIDAD + OPTIMIZACIÓN:
-     * - Búsqueda parcial en BD (case-insensitive)
-     * - Filtrado en BD, no en memoria
+     * - Búsqueda parcial case-insensitive
+     * - Recorre los nombres ya normalizados de la foto del catálogo
      * 
      * @param nombre Nombre a buscar
-     * @return Lista de productos coincidentes
+     * @return Lista de productos coincidentes, por nombre
      */
     public List<ProductoDTO> buscarPorNombre(String nombre) {
-        return productoRepository.buscarPorNombre(nombre)
-                .stream()
-                .map(this::convertirADTO)
-                .collect(Collectors.toList());
+        return catalogo.buscarPorNombre(nombre);
     }
 
     /**
      * Obtiene productos en rango de precio.
      * 
      * NUEVA FUNCIONALIDAD + OPTIMIZACIÓN:
-     * - Filtrado por rango en BD
+     * - Búsqueda binaria sobre el orden por precio precalculado
      * - Ordenado por precio
      * 
      * @param precioMin Precio mínimo
@@ -164,10 +245,56 @@ public class ProductoService {
      * @return Productos en el rango
      */
     public List<ProductoDTO> obtenerPorRangoPrecio(Integer precioMin, Integer precioMax) {
-        return productoRepository.obtenerPorRangoPrecio(precioMin, precioMax)
-                .stream()
-                .map(this::convertirADTO)
-                .collect(Collectors.toList());
+        if (precioMin == null || precioMax == null) {
+            return List.of();
+        }
+        return catalogo.porRangoPrecio(precioMin, precioMax);
+    }
+
+    /**
+     * Producto más barato del catálogo.
+     * @return Producto, vacío si no hay productos con precio
+     */
+    public Optional<ProductoDTO> obtenerMasBarato() {
+        return catalogo.masBarato();
+    }
+
+    /**
+     * Producto más caro del catálogo.
+     * @return Producto, vacío si no hay productos con precio
+     */
+    public Optional<ProductoDTO> obtenerMasCaro() {
+        return catalogo.masCaro();
+    }
+
+    /**
+     * Publica el cambio del catálogo cuando la transacción confirma, para
+     * que ningún cliente (ni otro nodo) cachee datos de una escritura revertida.
+     */
+    private void registrarCambioCatalogo() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            busInvalidacion.publicar(BusInvalidacion.CANAL_CATALOGO, "*");
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                busInvalidacion.publicar(BusInvalidacion.CANAL_CATALOGO, "*");
+            }
+        });
+    }
+
+    /**
+     * Arma una foto nueva del catálogo desde la BD y la publica de una vez.
+     * Sincronizado para que una recarga anterior nunca pise a una posterior.
+     */
+    private synchronized void recargarCatalogo() {
+        catalogo = new CatalogoSnapshot(productoRepository.obtenerTodosDTO());
+    }
+
+    private void incrementarVersion() {
+        catalogoModificadoEn = System.currentTimeMillis();
+        versionCatalogo.incrementAndGet();
     }
 
     /**
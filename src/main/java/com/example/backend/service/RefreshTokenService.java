@@ -0,0 +1,178 @@
+package com.example.backend.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.backend.dto.RefreshTokenVigenteDTO;
+import com.example.backend.model.RefreshToken;
+import com.example.backend.repository.RefreshTokenRepository;
+import com.example.backend.security.JwtUtils;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Emisión y rotación de pares access token + refresh token.
+ *
+ * OPTIMIZACIÓN:
+ * - El access token es corto y lleva el rol: el camino normal de una request
+ *   es solo verificar la firma; la BD se toca únicamente al renovar
+ * - Renovar es una búsqueda por PK (hash del token, con el rol actual del
+ *   usuario en la misma consulta) + un UPDATE condicional + un INSERT sin
+ *   SELECT previo
+ *
+ * Seguridad:
+ * - Se guarda solo el SHA-256 del refresh token
+ * - Cada refresh token sirve una vez; reutilizar uno ya rotado revoca toda
+ *   su familia (la sesión de ese login), porque indica que se filtró
+ * - La familia vence app.jwt.refresh-expiration-ms después del login: rotar
+ *   no extiende la sesión
+ * - Al renovar se usa el rol actual del usuario; un usuario eliminado ya no
+ *   puede renovar
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    /**
+     * Par de tokens entregado al cliente.
+     * @param accessToken JWT de vida corta
+     * @param refreshToken Token opaco para /api/auth/refresh
+     * @param expiraEnSegundos Vida del access token
+     */
+    public record ParTokens(String accessToken, String refreshToken, long expiraEnSegundos) {}
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final JwtUtils jwtUtils;
+    private final SecureRandom random = new SecureRandom();
+
+    @Value("${app.jwt.refresh-expiration-ms:1209600000}")
+    private long duracionRefreshMs;
+
+    @Value("${app.jwt.refresh-prune-interval-minutes:60}")
+    private long intervaloPodaMinutos;
+
+    private ScheduledExecutorService programador;
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository, JwtUtils jwtUtils) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.jwtUtils = jwtUtils;
+    }
+
+    @PostConstruct
+    void iniciar() {
+        programador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "refresh-token-pruner");
+            t.setDaemon(true);
+            return t;
+        });
+        programador.scheduleWithFixedDelay(this::podarProgramado, intervaloPodaMinutos, intervaloPodaMinutos, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    void detener() {
+        if (programador != null) {
+            programador.shutdownNow();
+        }
+    }
+
+    /**
+     * Emite el par inicial de un login (familia nueva).
+     *
+     * @param username Usuario autenticado
+     * @param rol Rol que llevarán los access tokens
+     * @return Par de tokens
+     */
+    public ParTokens emitir(String username, String rol) {
+        return emitir(username, rol, UUID.randomUUID().toString(), System.currentTimeMillis() + duracionRefreshMs);
+    }
+
+    /**
+     * Canjea un refresh token por un par nuevo de la misma familia.
+     *
+     * @param refreshToken Token recibido del cliente
+     * @return Par nuevo, vacío si el token no existe, venció, ya se usó o su usuario fue eliminado
+     */
+    @Transactional
+    public Optional<ParTokens> renovar(String refreshToken) {
+        if (refreshToken == null || refreshToken.isBlank()) {
+            return Optional.empty();
+        }
+        String hash = hash(refreshToken);
+        RefreshTokenVigenteDTO actual = refreshTokenRepository.buscarConRolActual(hash).orElse(null);
+        if (actual == null || actual.expiraEn() < System.currentTimeMillis()) {
+            return Optional.empty();
+        }
+        if (actual.usado() || refreshTokenRepository.marcarUsado(hash) == 0) {
+            log.warn("Refresh token reutilizado para {}; se revoca su familia", actual.username());
+            refreshTokenRepository.eliminarFamilia(actual.familia());
+            return Optional.empty();
+        }
+        // Hereda el vencimiento de la familia y toma el rol vigente del usuario
+        return Optional.of(emitir(actual.username(), actual.rolActual(), actual.familia(), actual.expiraEn()));
+    }
+
+    /**
+     * Revoca la sesión a la que pertenece el refresh token (logout).
+     *
+     * @param refreshToken Token recibido del cliente (puede ser null)
+     */
+    public void revocar(String refreshToken) {
+        if (refreshToken == null || refreshToken.isBlank()) {
+            return;
+        }
+        refreshTokenRepository.findById(hash(refreshToken))
+                .ifPresent(r -> refreshTokenRepository.eliminarFamilia(r.getFamilia()));
+    }
+
+    /**
+     * Revoca todas las sesiones renovables del usuario (logout-all, baja).
+     *
+     * @param username Usuario
+     */
+    public void revocarUsuario(String username) {
+        refreshTokenRepository.eliminarDeUsuario(username);
+    }
+
+    private ParTokens emitir(String username, String rol, String familia, long expiraEn) {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        String refreshToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        refreshTokenRepository.save(new RefreshToken(hash(refreshToken), username, rol, familia, expiraEn));
+        return new ParTokens(jwtUtils.generateToken(username, rol), refreshToken,
+                TimeUnit.MILLISECONDS.toSeconds(jwtUtils.getExpirationMs()));
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    private void podarProgramado() {
+        try {
+            refreshTokenRepository.eliminarVencidos(System.currentTimeMillis());
+        } catch (RuntimeException e) {
+            log.warn("Falló la poda de refresh tokens; se reintenta en el próximo ciclo", e);
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.example.backend.service;
+
+import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.backend.model.RevocacionUsuario;
+import com.example.backend.model.TokenRevocado;
+import com.example.backend.repository.RevocacionUsuarioRepository;
+import com.example.backend.repository.TokenRevocadoRepository;
+import com.example.backend.security.BloomFilter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Lista de revocación de JWT consultada por JwtAuthFilter en cada request.
+ *
+ * OPTIMIZACIÓN:
+ * - Sin consulta a la BD por request: todo se resuelve en memoria
+ * - Filtro de Bloom delante del conjunto exacto de jti revocados: un token
+ *   no revocado (el caso normal) se descarta con k lecturas de bits
+ * - Revocación por usuario como un único corte "emitidos antes de": un
+ *   lookup en un mapa que casi siempre está vacío
+ * - Las entradas se podan cuando el token habría vencido de todos modos;
+ *   al podar se reconstruye el filtro de Bloom (no admite borrados)
+ *
+ * Las revocaciones se escriben primero en la BD (tokens_revocados,
+ * revocaciones_usuario) y se recargan al arrancar. Los demás nodos las
+ * leen de la BD al recibir el aviso del BusInvalidacion.
+ */
+@Service
+public class TokenRevocationService {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    private final TokenRevocadoRepository tokenRepository;
+    private final RevocacionUsuarioRepository revocacionUsuarioRepository;
+    private final BusInvalidacion busInvalidacion;
+    private final Counter rechazados;
+
+    // jti -> exp (epoch millis)
+    private final ConcurrentHashMap<String, Long> revocados = new ConcurrentHashMap<>();
+    // username -> corte (epoch millis): tokens con iat anterior quedan revocados
+    private final ConcurrentHashMap<String, RevocacionUsuario> cortes = new ConcurrentHashMap<>();
+    // Los escritores (revocar / podar) se serializan para no perder bits al reconstruir
+    private final Object escritura = new Object();
+    private volatile BloomFilter bloom;
+
+    @Value("${app.jwt.expiration-ms}")
+    private long duracionTokenMs;
+
+    @Value("${app.jwt.revocation.expected-entries:10000}")
+    private int capacidadEsperada;
+
+    @Value("${app.jwt.revocation.false-positive-rate:0.01}")
+    private double falsosPositivos;
+
+    @Value("${app.jwt.revocation.prune-interval-minutes:10}")
+    private long intervaloPodaMinutos;
+
+    private ScheduledExecutorService programador;
+
+    public TokenRevocationService(TokenRevocadoRepository tokenRepository,
+                                  RevocacionUsuarioRepository revocacionUsuarioRepository,
+                                  BusInvalidacion busInvalidacion, MeterRegistry meterRegistry) {
+        this.tokenRepository = tokenRepository;
+        this.revocacionUsuarioRepository = revocacionUsuarioRepository;
+        this.busInvalidacion = busInvalidacion;
+        this.rechazados = Counter.builder("jwt.revoked.rejected")
+                .description("Requests rechazadas por traer un token revocado")
+                .register(meterRegistry);
+        Gauge.builder("jwt.revoked.tokens", revocados, ConcurrentHashMap::size)
+                .description("Tokens revocados aún no vencidos")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void iniciar() {
+        long ahora = System.currentTimeMillis();
+        for (TokenRevocado t : tokenRepository.findAll()) {
+            if (t.getExpiraEn() != null && t.getExpiraEn() >= ahora) {
+                revocados.put(t.getJti(), t.getExpiraEn());
+            }
+        }
+        for (RevocacionUsuario r : revocacionUsuarioRepository.findAll()) {
+            if (r.getExpiraEn() != null && r.getExpiraEn() >= ahora) {
+                cortes.put(r.getUsername(), r);
+            }
+        }
+        synchronized (escritura) {
+            reconstruirBloom();
+        }
+        if (!revocados.isEmpty() || !cortes.isEmpty()) {
+            log.info("Revocaciones cargadas: {} tokens, {} usuarios", revocados.size(), cortes.size());
+        }
+        // Revocaciones hechas en otro nodo: ya están en la BD
+        busInvalidacion.suscribir(BusInvalidacion.CANAL_JWT_TOKEN, evento -> {
+            if (evento.remoto()) {
+                tokenRepository.findById(evento.clave()).ifPresent(t -> agregarRevocado(t.getJti(), t.getExpiraEn()));
+            }
+        });
+        busInvalidacion.suscribir(BusInvalidacion.CANAL_JWT_USUARIO, evento -> {
+            if (evento.remoto()) {
+                revocacionUsuarioRepository.findById(evento.clave()).ifPresent(r -> cortes.put(r.getUsername(), r));
+            }
+        });
+        programador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "jwt-revocation-pruner");
+            t.setDaemon(true);
+            return t;
+        });
+        programador.scheduleWithFixedDelay(this::podarProgramado, intervaloPodaMinutos, intervaloPodaMinutos, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    void detener() {
+        if (programador != null) {
+            programador.shutdownNow();
+        }
+    }
+
+    /**
+     * Consulta O(1) hecha por JwtAuthFilter con los claims ya validados.
+     *
+     * @param jti ID del token (null en tokens emitidos antes de existir el claim)
+     * @param username Subject del token
+     * @param emitido iat del token (precisión de segundos)
+     * @return true si el token fue revocado
+     */
+    public boolean estaRevocado(String jti, String username, Date emitido) {
+        boolean revocado = (jti != null && bloom.puedeContener(jti) && revocados.containsKey(jti))
+                || revocadoPorUsuario(username, emitido);
+        if (revocado) {
+            rechazados.increment();
+        }
+        return revocado;
+    }
+
+    /**
+     * Revoca un token puntual (logout) hasta su vencimiento.
+     *
+     * @param jti ID del token
+     * @param username Dueño del token
+     * @param expiraEn exp del token (epoch millis)
+     */
+    public void revocar(String jti, String username, long expiraEn) {
+        tokenRepository.save(new TokenRevocado(jti, username, expiraEn));
+        agregarRevocado(jti, expiraEn);
+        busInvalidacion.publicar(BusInvalidacion.CANAL_JWT_TOKEN, jti);
+    }
+
+    private void agregarRevocado(String jti, long expiraEn) {
+        synchronized (escritura) {
+            revocados.put(jti, expiraEn);
+            if (revocados.size() > bloom.capacidad()) {
+                reconstruirBloom();
+            } else {
+                bloom.agregar(jti);
+            }
+        }
+    }
+
+    /**
+     * Revoca todos los tokens del usuario emitidos hasta ahora. El iat del
+     * JWT tiene precisión de segundos: un token emitido en el mismo segundo
+     * que la revocación también queda revocado.
+     *
+     * @param username Usuario
+     */
+    public void revocarTodos(String username) {
+        long ahora = System.currentTimeMillis();
+        RevocacionUsuario revocacion = new RevocacionUsuario(username, ahora, ahora + duracionTokenMs);
+        revocacionUsuarioRepository.save(revocacion);
+        cortes.put(username, revocacion);
+        busInvalidacion.publicar(BusInvalidacion.CANAL_JWT_USUARIO, username);
+    }
+
+    /**
+     * Elimina las revocaciones de tokens ya vencidos (memoria y BD).
+     */
+    void podar() {
+        long ahora = System.currentTimeMillis();
+        synchronized (escritura) {
+            int antes = revocados.size();
+            revocados.values().removeIf(expiraEn -> expiraEn < ahora);
+            cortes.values().removeIf(r -> r.getExpiraEn() < ahora);
+            if (revocados.size() != antes) {
+                reconstruirBloom();
+            }
+        }
+        tokenRepository.eliminarVencidas(ahora);
+        revocacionUsuarioRepository.eliminarVencidas(ahora);
+    }
+
+    private boolean revocadoPorUsuario(String username, Date emitido) {
+        RevocacionUsuario corte = username == null ? null : cortes.get(username);
+        if (corte == null) {
+            return false;
+        }
+        return emitido == null || emitido.getTime() < corte.getRevocadoAntes();
+    }
+
+    /**
+     * Filtro nuevo con holgura para el doble de las entradas actuales;
+     * se publica de una vez (volatile) cuando ya tiene todos los jti.
+     */
+    private void reconstruirBloom() {
+        BloomFilter nuevo = new BloomFilter(Math.max(capacidadEsperada, revocados.size() * 2), falsosPositivos);
+        revocados.keySet().forEach(nuevo::agregar);
+        bloom = nuevo;
+    }
+
+    private void podarProgramado() {
+        try {
+            podar();
+        } catch (RuntimeException e) {
+            log.warn("Falló la poda de tokens revocados; se reintenta en el próximo ciclo", e);
+        }
+    }
+}
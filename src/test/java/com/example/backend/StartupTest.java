@@ -0,0 +1,28 @@
+package com.example.backend;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Arranque: lo que solo usa el proxy a Google Script no se crea al iniciar.
+ */
+// Contexto propio (sin servidor web): ningún otro test puede haber usado el proxy antes
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class StartupTest {
+
+	@Autowired
+	private ConfigurableApplicationContext ctx;
+
+	@Test
+	void restTemplateSeCreaEnElPrimerUso() {
+		assertFalse(ctx.getBeanFactory().containsSingleton("restTemplate"));
+
+		assertNotNull(ctx.getBean(RestTemplate.class));
+	}
+}
@@ -0,0 +1,35 @@
+package com.example.backend.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+/**
+ * Las sentencias envueltas conservan su tipo JDBC.
+ */
+class SlowQueryLoggingDataSourceTest {
+
+	private final SlowQueryLoggingDataSource dataSource = new SlowQueryLoggingDataSource(
+			new DriverManagerDataSource("jdbc:h2:mem:slow-" + UUID.randomUUID()), 100, 0.0);
+
+	@Test
+	void prepareCallDevuelveUnCallableStatement() throws Exception {
+		try (Connection c = dataSource.getConnection()) {
+			assertInstanceOf(PreparedStatement.class, c.prepareStatement("SELECT 1"));
+
+			CallableStatement call = assertInstanceOf(CallableStatement.class, c.prepareCall("CALL 40 + 2"));
+			try (ResultSet rs = call.executeQuery()) {
+				rs.next();
+				assertEquals(42, rs.getInt(1));
+			}
+		}
+	}
+}
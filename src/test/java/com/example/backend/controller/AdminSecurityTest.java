@@ -0,0 +1,54 @@
+package com.example.backend.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import com.example.backend.security.JwtUtils;
+
+/**
+ * /api/admin/** exige ROLE_ADMIN en SecurityConfig, no en cada controlador.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class AdminSecurityTest {
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private JwtUtils jwtUtils;
+
+	private final HttpClient http = HttpClient.newHttpClient();
+
+	@Test
+	void soloElAdministradorUsaLasRutasDeAdministracion() throws Exception {
+		String usuario = jwtUtils.generateToken("cliente", "ROLE_USER");
+		String admin = jwtUtils.generateToken("admin", "ROLE_ADMIN");
+
+		HttpResponse<String> denegado = post("/api/admin/pedidos/archivar", usuario);
+		assertEquals(403, denegado.statusCode());
+		assertTrue(denegado.body().contains("Se requiere rol de administrador"), denegado.body());
+		assertEquals(403, post("/api/admin/usuarios/cliente/revocar-tokens", usuario).statusCode());
+		assertEquals(403, post("/api/admin/pedidos/archivar", null).statusCode());
+
+		assertEquals(200, post("/api/admin/pedidos/archivar", admin).statusCode());
+	}
+
+	private HttpResponse<String> post(String ruta, String token) throws Exception {
+		HttpRequest.Builder req = HttpRequest.newBuilder(URI.create("http://localhost:" + port + ruta))
+				.POST(HttpRequest.BodyPublishers.noBody());
+		if (token != null) {
+			req.header("Authorization", "Bearer " + token);
+		}
+		return http.send(req.build(), HttpResponse.BodyHandlers.ofString());
+	}
+}
@@ -0,0 +1,118 @@
+package com.example.backend.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+import com.example.backend.dto.ProductoDTO;
+import com.example.backend.security.JwtUtils;
+import com.example.backend.service.ProductoService;
+
+import jakarta.servlet.Filter;
+
+/**
+ * Mide los bytes que viajan por la red en los GET del catálogo:
+ * compresión gzip, 304 por ETag y cambio de ETag tras una escritura; y que
+ * el filtro de ETag de las rutas públicas no bufferiza los POST.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ResponsePolicyTest {
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private ProductoService productoService;
+
+	@Autowired
+	private JwtUtils jwtUtils;
+
+	@Autowired
+	private FilterRegistrationBean<ShallowEtagHeaderFilter> publicEtagFilter;
+
+	// HttpClient no descomprime: body().length son los bytes reales en la red
+	private final HttpClient http = HttpClient.newHttpClient();
+
+	private String token;
+
+	@BeforeEach
+	void setUp() {
+		token = jwtUtils.generateToken("admin", "ROLE_ADMIN");
+		if (productoService.obtenerTodos().size() < 40) {
+			for (int i = 0; i < 40; i++) {
+				productoService.crear(new ProductoDTO(null, "Producto " + i, "Descripción del producto " + i, 1000 + i, ""));
+			}
+		}
+	}
+
+	@Test
+	void gzipReduceLosBytesEnLaRed() throws Exception {
+		HttpResponse<byte[]> plano = get(null, null);
+		HttpResponse<byte[]> gzip = get("gzip", null);
+
+		assertEquals(200, gzip.statusCode());
+		assertEquals("gzip", gzip.headers().firstValue("Content-Encoding").orElse(null));
+		assertTrue(gzip.body().length * 3 < plano.body().length,
+				"gzip debería reducir al menos 3x: " + gzip.body().length + " vs " + plano.body().length);
+	}
+
+	@Test
+	void etagDelCatalogoPermite304() throws Exception {
+		HttpResponse<byte[]> primera = get("gzip", null);
+		String etag = primera.headers().firstValue("ETag").orElse(null);
+		assertNotNull(etag);
+		assertEquals("private, no-cache", primera.headers().firstValue("Cache-Control").orElse(null));
+
+		HttpResponse<byte[]> revalidacion = get("gzip", etag);
+		assertEquals(304, revalidacion.statusCode());
+		assertEquals(0, revalidacion.body().length);
+
+		productoService.crear(new ProductoDTO(null, "Nuevo", "", 500, ""));
+		HttpResponse<byte[]> trasCambio = get("gzip", etag);
+		assertEquals(200, trasCambio.statusCode());
+		assertTrue(!etag.equals(trasCambio.headers().firstValue("ETag").orElse(null)));
+	}
+
+	@Test
+	void elFiltroDeEtagNoEnvuelveLosPost() throws Exception {
+		Filter filtro = publicEtagFilter.getFilter();
+		MockHttpServletResponse res = new MockHttpServletResponse();
+		MockFilterChain post = new MockFilterChain();
+		filtro.doFilter(new MockHttpServletRequest("POST", "/api/public/pedidos"), res, post);
+		assertSame(res, post.getResponse());
+
+		MockFilterChain getMenu = new MockFilterChain();
+		filtro.doFilter(new MockHttpServletRequest("GET", "/api/public/menu"), new MockHttpServletResponse(), getMenu);
+		assertNotSame(res, getMenu.getResponse());
+	}
+
+	private HttpResponse<byte[]> get(String acceptEncoding, String ifNoneMatch) throws Exception {
+		HttpRequest.Builder req = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/productos"))
+				.header("Authorization", "Bearer " + token);
+		if (acceptEncoding != null) {
+			req.header("Accept-Encoding", acceptEncoding);
+		}
+		if (ifNoneMatch != null) {
+			req.header("If-None-Match", ifNoneMatch);
+		}
+		return http.send(req.build(), HttpResponse.BodyHandlers.ofByteArray());
+	}
+}
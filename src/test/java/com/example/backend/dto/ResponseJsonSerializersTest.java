@@ -0,0 +1,79 @@
+package com.example.backend.dto;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Los serializadores a mano deben producir exactamente los mismos bytes
+ * que la serialización por reflexión.
+ */
+class ResponseJsonSerializersTest {
+
+	private final ObjectMapper reflexion = Jackson2ObjectMapperBuilder.json().build();
+	private final ObjectMapper manual = Jackson2ObjectMapperBuilder.json()
+			.modulesToInstall(ResponseJsonSerializers.modulo())
+			.build();
+
+	@Test
+	void listaDePedidosIdentica() throws Exception {
+		ResponseDTO<List<PedidoDTO>> r = ResponseDTO.success("Pedidos obtenidos exitosamente", pedidos(50));
+		r.getData().add(new PedidoDTO(null, null, null, null, null, null));
+		r.getData().add(null);
+		assertIdentico(r);
+	}
+
+	@Test
+	void listaDeProductosIdentica() throws Exception {
+		List<ProductoDTO> productos = new ArrayList<>();
+		for (int i = 0; i < 50; i++) {
+			productos.add(new ProductoDTO((long) i, "Perro \"especial\" " + i, i % 3 == 0 ? null : "Con piña y jamón\n",
+					9000 + i, i % 2 == 0 ? "" : "https://img.example/p" + i + ".jpg"));
+		}
+		assertIdentico(ResponseDTO.success("Productos obtenidos exitosamente", productos));
+	}
+
+	@Test
+	void otrosContenidosIdenticos() throws Exception {
+		Map<String, Object> proyeccion = new LinkedHashMap<>();
+		proyeccion.put("id", 1L);
+		proyeccion.put("total", 9000);
+		assertIdentico(ResponseDTO.success("Proyección", List.of(proyeccion, Map.of("id", 2L))));
+		assertIdentico(ResponseDTO.success("Pedido", pedidos(1).get(0)));
+		assertIdentico(ResponseDTO.success("Mixta", Arrays.asList(pedidos(1).get(0), "texto", 3)));
+		assertIdentico(ResponseDTO.error("No encontrado"));
+		ResponseDTO<Object> vacia = new ResponseDTO<>();
+		vacia.setTimestamp(null);
+		assertIdentico(vacia);
+	}
+
+	@Test
+	void listaGrandeIdentica() throws Exception {
+		// El tamaño del panel de pedidos: supera el buffer inicial del generador
+		assertIdentico(ResponseDTO.success("Pedidos obtenidos exitosamente", pedidos(500)));
+	}
+
+	private void assertIdentico(Object valor) throws Exception {
+		assertArrayEquals(reflexion.writeValueAsBytes(valor), manual.writeValueAsBytes(valor),
+				() -> "Salida distinta para " + valor);
+	}
+
+	private static List<PedidoDTO> pedidos(int n) {
+		List<PedidoDTO> lista = new ArrayList<>();
+		for (int i = 0; i < n; i++) {
+			lista.add(new PedidoDTO((long) i, "Cliente Ñandú " + i, "3001234567", "Calle " + i + " # 10-20",
+					15000 + i, i % 2 == 0 ? null : "[{\"producto\":\"Hamburguesa\",\"precio\":15000,\"cantidad\":1}]",
+					"PENDIENTE"));
+		}
+		return lista;
+	}
+}
@@ -0,0 +1,48 @@
+package com.example.backend.exception;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Cuerpos de error precalculados: mismo JSON y caché acotada.
+ */
+class GlobalExceptionHandlerTest {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final GlobalExceptionHandler handler = new GlobalExceptionHandler(objectMapper, new SimpleMeterRegistry());
+
+	@Test
+	void cuerpoIncluyeMensajeYTimestampActual() throws Exception {
+		long antes = System.currentTimeMillis();
+		byte[] cuerpo = handler.handleBusinessException(new BusinessException("Stock \"insuficiente\"")).getBody();
+
+		JsonNode json = objectMapper.readTree(cuerpo);
+		assertEquals("Stock \"insuficiente\"", json.get("message").asText());
+		assertTrue(json.get("timestamp").asLong() >= antes);
+	}
+
+	@Test
+	void mensajesDistintosNoLlenanNiDesplazanLaCache() {
+		BusinessException frecuente = new BusinessException("Estado inválido");
+		for (long id = 0; id < 5_000; id++) {
+			handler.handleResourceNotFound(new ResourceNotFoundException("Pedido", "id", id));
+			if (id % 100 == 0) {
+				handler.handleBusinessException(frecuente);
+			}
+		}
+
+		Map<?, ?> cuerpos = (Map<?, ?>) ReflectionTestUtils.getField(handler, "cuerpos");
+		assertEquals(512, cuerpos.size());
+		assertTrue(cuerpos.containsKey("Estado inválido"));
+	}
+}
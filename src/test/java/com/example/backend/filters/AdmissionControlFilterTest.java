@@ -0,0 +1,150 @@
+package com.example.backend.filters;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Rechazos del control de admisión: tamaño (411/413), tasa (429) y
+ * saturación (503 por concurrencia y por latencia).
+ */
+class AdmissionControlFilterTest {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final MockEnvironment env = new MockEnvironment()
+			.withProperty("app.admission.checkout.burst", "1000")
+			.withProperty("app.admission.checkout.max-body-bytes", "100")
+			.withProperty("app.admission.checkout.max-concurrent", "1");
+
+	@Test
+	void bodyGrandeRecibe413YChunkedSinLongitud411() throws Exception {
+		AdmissionControlFilter filtro = filtro();
+
+		MockHttpServletRequest grande = pedido();
+		grande.setContent(new byte[101]);
+		assertEquals(413, ejecutar(filtro, grande).getStatus());
+
+		MockHttpServletRequest chunked = pedido();
+		chunked.addHeader("Transfer-Encoding", "chunked");
+		assertEquals(411, ejecutar(filtro, chunked).getStatus());
+
+		// Sin Content-Length ni Transfer-Encoding no hay body: pasa
+		assertEquals(200, ejecutar(filtro, pedido()).getStatus());
+		assertEquals(2.0, rechazos("checkout", "size"));
+	}
+
+	@Test
+	void rafagaAgotadaRecibe429ConRetryAfter() throws Exception {
+		env.setProperty("app.admission.checkout.burst", "2");
+		env.setProperty("app.admission.checkout.rate-per-second", "0.01");
+		AdmissionControlFilter filtro = filtro();
+
+		assertEquals(200, ejecutar(filtro, pedido()).getStatus());
+		assertEquals(200, ejecutar(filtro, pedido()).getStatus());
+		MockHttpServletResponse res = ejecutar(filtro, pedido());
+
+		assertEquals(429, res.getStatus());
+		assertNotNull(res.getHeader("Retry-After"));
+		// Otra IP tiene su propia cubeta
+		MockHttpServletRequest otraIp = pedido();
+		otraIp.setRemoteAddr("10.0.0.2");
+		assertEquals(200, ejecutar(filtro, otraIp).getStatus());
+	}
+
+	@Test
+	void sinCupoDeConcurrenciaRecibe503() throws Exception {
+		AdmissionControlFilter filtro = filtro();
+		MockHttpServletResponse anidada = new MockHttpServletResponse();
+
+		// La segunda solicitud llega mientras la primera ocupa el único cupo
+		filtro.doFilter(pedido(), new MockHttpServletResponse(),
+				(rq, rs) -> filtro.doFilter(pedido(), anidada, new MockFilterChain()));
+
+		assertEquals(503, anidada.getStatus());
+		assertEquals("1", anidada.getHeader("Retry-After"));
+		assertEquals(1.0, rechazos("checkout", "concurrency"));
+		// El cupo se libera al terminar
+		assertEquals(200, ejecutar(filtro, pedido()).getStatus());
+	}
+
+	@Test
+	void latenciaSobreElSloDescartaConRetryAfter() throws Exception {
+		env.setProperty("app.admission.menu.burst", "1000");
+		AdmissionControlFilter filtro = filtro();
+		// Media móvil muy por encima del SLO: se descarta el 90% (el resto sigue midiendo)
+		Map<?, ?> politicas = (Map<?, ?>) ReflectionTestUtils.getField(filtro, "politicas");
+		Object menu = politicas.get(AdmissionControlFilter.Clase.MENU);
+		((AtomicLong) ReflectionTestUtils.getField(menu, "latenciaMedia")).set(Long.MAX_VALUE / 2);
+
+		int descartadas = 0;
+		for (int i = 0; i < 50; i++) {
+			MockHttpServletResponse res = ejecutar(filtro, new MockHttpServletRequest("GET", "/api/public/productos"));
+			if (res.getStatus() == 503) {
+				descartadas++;
+			}
+		}
+
+		assertTrue(descartadas > 0);
+		assertEquals(descartadas, (int) rechazos("menu", "slo"));
+	}
+
+	@Test
+	void lasRutasDelScriptNoSeDescartanNiMuevenLaMedia() throws Exception {
+		env.setProperty("app.admission.menu.burst", "1000");
+		AdmissionControlFilter filtro = filtro();
+		Map<?, ?> politicas = (Map<?, ?>) ReflectionTestUtils.getField(filtro, "politicas");
+		AtomicLong media = (AtomicLong) ReflectionTestUtils.getField(politicas.get(AdmissionControlFilter.Clase.MENU), "latenciaMedia");
+		media.set(Long.MAX_VALUE / 2);
+
+		for (int i = 0; i < 50; i++) {
+			assertEquals(200, ejecutar(filtro, new MockHttpServletRequest("GET", "/api/public/menu")).getStatus());
+		}
+		assertEquals(Long.MAX_VALUE / 2, media.get());
+		assertEquals(0, (int) rechazos("menu", "slo"));
+	}
+
+	@Test
+	void rutasAutenticadasNoPasanPorElFiltro() throws Exception {
+		MockFilterChain chain = new MockFilterChain();
+		MockHttpServletRequest req = new MockHttpServletRequest("POST", "/api/pedidos");
+		req.setContent(new byte[10_000]);
+
+		filtro().doFilter(req, new MockHttpServletResponse(), chain);
+
+		assertNotNull(chain.getRequest());
+		assertNull(AdmissionControlFilter.clasificar(req));
+	}
+
+	private AdmissionControlFilter filtro() {
+		return new AdmissionControlFilter(env, registry, true, 4, 1000,
+				new String[] {"/api/public/menu", "/api/public/pedidos"});
+	}
+
+	private static MockHttpServletRequest pedido() {
+		return new MockHttpServletRequest("POST", "/api/public/pedidos");
+	}
+
+	private static MockHttpServletResponse ejecutar(AdmissionControlFilter filtro, MockHttpServletRequest req)
+			throws Exception {
+		MockHttpServletResponse res = new MockHttpServletResponse();
+		filtro.doFilter(req, res, new MockFilterChain());
+		return res;
+	}
+
+	private double rechazos(String clase, String motivo) {
+		return registry.get("admission.rejected").tag("clase", clase).tag("motivo", motivo).counter().count();
+	}
+}
@@ -0,0 +1,105 @@
+package com.example.backend.filters;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
+import org.springframework.web.filter.CorsFilter;
+
+import jakarta.servlet.Filter;
+
+/**
+ * Preflight respondido en el primer filtro, con las mismas decisiones que
+ * el CorsFilter de Spring al que reemplaza.
+ */
+class CorsPolicyFilterTest {
+
+	private static final String ORIGEN = "https://juanquiga.github.io";
+
+	private final CorsPolicyFilter filtro = new CorsPolicyFilter(
+			new String[] { ORIGEN, "http://localhost:5500" },
+			new String[] { "GET", "POST", "PUT", "DELETE", "OPTIONS" },
+			86400);
+
+	@Test
+	void preflightSeRespondeSinSeguirLaCadena() throws Exception {
+		MockFilterChain chain = new MockFilterChain();
+		MockHttpServletResponse res = new MockHttpServletResponse();
+
+		filtro.doFilter(preflight(ORIGEN), res, chain);
+
+		assertEquals(200, res.getStatus());
+		assertNull(chain.getRequest(), "el preflight no debe llegar a seguridad ni al access log");
+		assertEquals(ORIGEN, res.getHeader("Access-Control-Allow-Origin"));
+		assertEquals("true", res.getHeader("Access-Control-Allow-Credentials"));
+		assertEquals("authorization,content-type", res.getHeader("Access-Control-Allow-Headers"));
+		assertEquals("86400", res.getHeader("Access-Control-Max-Age"));
+	}
+
+	@Test
+	void origenNoPermitidoRecibe403() throws Exception {
+		MockHttpServletResponse preflight = new MockHttpServletResponse();
+		filtro.doFilter(preflight("https://otro.example"), preflight, new MockFilterChain());
+		assertEquals(403, preflight.getStatus());
+
+		MockHttpServletRequest get = new MockHttpServletRequest("GET", "/api/productos");
+		get.addHeader("Origin", "https://otro.example");
+		MockHttpServletResponse res = new MockHttpServletResponse();
+		filtro.doFilter(get, res, new MockFilterChain());
+		assertEquals(403, res.getStatus());
+	}
+
+	@Test
+	void peticionRealContinuaConHeadersCors() throws Exception {
+		MockHttpServletRequest get = new MockHttpServletRequest("GET", "/api/productos");
+		get.addHeader("Origin", ORIGEN);
+		MockFilterChain chain = new MockFilterChain();
+		MockHttpServletResponse res = new MockHttpServletResponse();
+
+		filtro.doFilter(get, res, chain);
+
+		assertNotNull(chain.getRequest());
+		assertEquals(ORIGEN, res.getHeader("Access-Control-Allow-Origin"));
+	}
+
+	@Test
+	void coincideConElCorsFilterDeSpringQueReemplaza() throws Exception {
+		// Referencia: CorsFilter de Spring con la configuración anterior de SecurityConfig
+		CorsConfiguration config = new CorsConfiguration();
+		config.setAllowedOrigins(List.of(ORIGEN, "http://localhost:5500"));
+		config.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+		config.setAllowedHeaders(List.of("*"));
+		config.setAllowCredentials(true);
+		UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+		source.registerCorsConfiguration("/**", config);
+		Filter anterior = new CorsFilter(source);
+
+		for (String origen : List.of(ORIGEN, "http://localhost:5500", "https://otro.example")) {
+			MockHttpServletResponse nuevo = new MockHttpServletResponse();
+			MockHttpServletResponse referencia = new MockHttpServletResponse();
+			filtro.doFilter(preflight(origen), nuevo, new MockFilterChain());
+			anterior.doFilter(preflight(origen), referencia, new MockFilterChain());
+
+			assertEquals(referencia.getStatus(), nuevo.getStatus(), origen);
+			for (String header : List.of("Access-Control-Allow-Origin", "Access-Control-Allow-Credentials")) {
+				assertEquals(referencia.getHeader(header), nuevo.getHeader(header), origen + " " + header);
+			}
+		}
+	}
+
+	private static MockHttpServletRequest preflight(String origen) {
+		MockHttpServletRequest req = new MockHttpServletRequest("OPTIONS", "/api/pedidos");
+		req.addHeader("Origin", origen);
+		req.addHeader("Access-Control-Request-Method", "POST");
+		req.addHeader("Access-Control-Request-Headers", "authorization,content-type");
+		return req;
+	}
+}
@@ -0,0 +1,75 @@
+package com.example.backend.filters;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.backend.repository.IdempotencyRecordRepository;
+import com.example.backend.service.IdempotencyService;
+
+/**
+ * Idempotency-Key por llamador: la misma clave de otro cliente no reproduce la respuesta.
+ */
+class IdempotencyFilterTest {
+
+	private final IdempotencyService service = new IdempotencyService(mock(IdempotencyRecordRepository.class));
+	private final IdempotencyFilter filtro = new IdempotencyFilter(service, new String[] {"/api/pedidos", "/api/public/pedidos"});
+	private int creados;
+
+	IdempotencyFilterTest() {
+		ReflectionTestUtils.setField(service, "maxEntradas", 100);
+		ReflectionTestUtils.setField(service, "ttlMs", 60_000L);
+	}
+
+	@Test
+	void laMismaClaveDeOtroLlamadorNoReproduceLaRespuesta() throws Exception {
+		MockHttpServletResponse primera = enviar(usuario("/api/pedidos", "ana"));
+		MockHttpServletResponse repetida = enviar(usuario("/api/pedidos", "ana"));
+		MockHttpServletResponse otroUsuario = enviar(usuario("/api/pedidos", "luis"));
+
+		assertEquals("{\"id\":1}", primera.getContentAsString());
+		assertEquals("true", repetida.getHeader("Idempotent-Replayed"));
+		assertEquals("{\"id\":1}", repetida.getContentAsString());
+		assertNull(otroUsuario.getHeader("Idempotent-Replayed"));
+		assertEquals("{\"id\":2}", otroUsuario.getContentAsString());
+
+		// Anónimos: la IP del cliente
+		enviar(anonimo("10.0.0.1"));
+		assertEquals("true", enviar(anonimo("10.0.0.1")).getHeader("Idempotent-Replayed"));
+		assertNull(enviar(anonimo("10.0.0.2")).getHeader("Idempotent-Replayed"));
+		assertEquals(4, creados);
+	}
+
+	private MockHttpServletResponse enviar(MockHttpServletRequest req) throws Exception {
+		MockHttpServletResponse res = new MockHttpServletResponse();
+		filtro.doFilter(req, res, (rq, rs) -> {
+			creados++;
+			rs.setContentType("application/json");
+			rs.getOutputStream().write(("{\"id\":" + creados + "}").getBytes(StandardCharsets.UTF_8));
+		});
+		return res;
+	}
+
+	private static MockHttpServletRequest usuario(String uri, String username) {
+		MockHttpServletRequest req = new MockHttpServletRequest("POST", uri);
+		req.addHeader(IdempotencyFilter.HEADER, "clave-1");
+		req.setUserPrincipal(new UsernamePasswordAuthenticationToken(username, null, List.of()));
+		return req;
+	}
+
+	private static MockHttpServletRequest anonimo(String ip) {
+		MockHttpServletRequest req = new MockHttpServletRequest("POST", "/api/public/pedidos");
+		req.addHeader(IdempotencyFilter.HEADER, "clave-1");
+		req.setRemoteAddr(ip);
+		return req;
+	}
+}
@@ -0,0 +1,50 @@
+package com.example.backend.filters;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * Access log: bytes escritos por writer y status de una excepción.
+ */
+class RequestLoggingFilterTest {
+
+	private final AccessLogRingBuffer buffer = mock(AccessLogRingBuffer.class);
+	private final RequestLoggingFilter filtro = new RequestLoggingFilter(buffer, true, new String[0], 1.0, 0.0);
+
+	@Test
+	void cuentaLosBytesEscritosPorElWriter() throws Exception {
+		MockHttpServletResponse res = new MockHttpServletResponse();
+
+		filtro.doFilter(new MockHttpServletRequest("GET", "/api/productos"), res, (rq, rs) -> {
+			rs.setCharacterEncoding("UTF-8");
+			rs.getWriter().write("{\"nombre\":\"Piña\"}");
+		});
+
+		assertEquals("{\"nombre\":\"Piña\"}", res.getContentAsString(StandardCharsets.UTF_8));
+		// "ñ" ocupa 2 bytes en UTF-8
+		verify(buffer).registrar(anyLong(), eq("GET"), eq("/api/productos"), anyString(), eq(200), anyLong(), eq(18L));
+	}
+
+	@Test
+	void unaExcepcionDeLaCadenaSeRegistraComo500() {
+		MockHttpServletResponse res = new MockHttpServletResponse();
+
+		assertThrows(IllegalStateException.class, () -> filtro.doFilter(
+				new MockHttpServletRequest("POST", "/api/pedidos"), res, (rq, rs) -> {
+					throw new IllegalStateException("fallo");
+				}));
+
+		verify(buffer).registrar(anyLong(), eq("POST"), eq("/api/pedidos"), anyString(), eq(500), anyLong(), eq(0L));
+	}
+}
@@ -0,0 +1,42 @@
+package com.example.backend.filters;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Token buckets por IP: ráfaga, rellenado y memoria acotada.
+ */
+class TokenBucketTableTest {
+
+	private static final long SEGUNDO = 1_000_000_000L;
+
+	@Test
+	void admiteLaRafagaYLuegoRellenaSegunLaTasa() {
+		TokenBucketTable tabla = new TokenBucketTable(4, 100, 2, 3);
+
+		for (int i = 0; i < 3; i++) {
+			assertEquals(0, tabla.tomar("1.1.1.1", 0));
+		}
+		long espera = tabla.tomar("1.1.1.1", 0);
+		assertTrue(espera > 0 && espera <= SEGUNDO / 2, "espera: " + espera);
+
+		// Otra IP tiene su propia cubeta
+		assertEquals(0, tabla.tomar("2.2.2.2", 0));
+		// Medio segundo a 2 fichas/s repone una ficha
+		assertEquals(0, tabla.tomar("1.1.1.1", SEGUNDO / 2));
+		assertTrue(tabla.tomar("1.1.1.1", SEGUNDO / 2) > 0);
+	}
+
+	@Test
+	void descartaLasClavesMenosUsadasAlLlenarse() {
+		TokenBucketTable tabla = new TokenBucketTable(2, 10, 1, 1);
+
+		for (int i = 0; i < 1000; i++) {
+			tabla.tomar("10.0.0." + i, 0);
+		}
+
+		assertTrue(tabla.tamano() <= 10, "tamaño: " + tabla.tamano());
+	}
+}
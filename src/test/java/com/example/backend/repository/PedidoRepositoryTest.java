@@ -0,0 +1,73 @@
+package com.example.backend.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+
+import com.example.backend.model.Pedido;
+
+/**
+ * Consultas del archivado contra H2: FOR UPDATE con ORDER BY y Limit, y
+ * filas sin creadoEn.
+ */
+@DataJpaTest
+class PedidoRepositoryTest {
+
+	private static final long LIMITE = 1_000_000L;
+
+	@Autowired
+	private PedidoRepository pedidoRepository;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Test
+	void obtenerParaArchivarDevuelveCerradosAntiguosPorIdYEnLotes() {
+		Long atendido = guardar("ATENDIDO", 10L);
+		guardar("PENDIENTE", 10L);
+		Long cancelado = guardar("CANCELADO", 20L);
+		guardar("ATENDIDO", LIMITE + 1);
+		Long otroAtendido = guardar("ATENDIDO", 30L);
+
+		assertEquals(List.of(atendido, cancelado), ids(pedidoRepository.obtenerParaArchivar(LIMITE, Limit.of(2))));
+		assertEquals(List.of(atendido, cancelado, otroAtendido),
+				ids(pedidoRepository.obtenerParaArchivar(LIMITE, Limit.of(10))));
+	}
+
+	@Test
+	void losCerradosSinFechaNoEntranHastaFecharseYCumplirLaEdad() {
+		Long sinFecha = guardar("ATENDIDO", null);
+		Long pendienteSinFecha = guardar("PENDIENTE", null);
+
+		assertEquals(List.of(), pedidoRepository.obtenerParaArchivar(LIMITE, Limit.of(10)));
+
+		assertEquals(1, pedidoRepository.fecharCerradosSinFecha(LIMITE + 5));
+		entityManager.clear();
+		assertEquals(LIMITE + 5, pedidoRepository.obtenerPorId(sinFecha).orElseThrow().getCreadoEn());
+		assertEquals(null, pedidoRepository.obtenerPorId(pendienteSinFecha).orElseThrow().getCreadoEn());
+		assertEquals(List.of(), pedidoRepository.obtenerParaArchivar(LIMITE, Limit.of(10)));
+		assertEquals(List.of(sinFecha), ids(pedidoRepository.obtenerParaArchivar(LIMITE + 6, Limit.of(10))));
+	}
+
+	private Long guardar(String estado, Long creadoEn) {
+		Pedido p = new Pedido();
+		p.setNombreCliente("Cliente");
+		p.setTelefono("3001234567");
+		p.setDireccion("Calle 1");
+		p.setItemsJson("[{\"producto\":\"Perro\",\"precio\":9000,\"cantidad\":1}]");
+		p.setTotal(9000);
+		p.setEstado(estado);
+		p.setCreadoEn(creadoEn);
+		return pedidoRepository.saveAndFlush(p).getId();
+	}
+
+	private static List<Long> ids(List<Pedido> pedidos) {
+		return pedidos.stream().map(Pedido::getId).toList();
+	}
+}
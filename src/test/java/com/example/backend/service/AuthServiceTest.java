@@ -0,0 +1,89 @@
+package com.example.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import com.example.backend.model.Usuario;
+import com.example.backend.repository.UsuarioRepository;
+
+/**
+ * Login y registro unificados: caché negativa e INSERT único.
+ */
+class AuthServiceTest {
+
+	private UsuarioRepository repository;
+	private RefreshTokenService refreshTokenService;
+	private BCryptPasswordEncoder encoder;
+	private BusInvalidacionLocal bus;
+	private AuthService service;
+
+	@BeforeEach
+	void setUp() {
+		repository = mock(UsuarioRepository.class);
+		refreshTokenService = mock(RefreshTokenService.class);
+		// Costo mínimo: el test no mide tiempos
+		encoder = new BCryptPasswordEncoder(4);
+		when(repository.findByUsername(anyString())).thenReturn(Optional.empty());
+		when(refreshTokenService.emitir(anyString(), anyString()))
+				.thenReturn(new RefreshTokenService.ParTokens("access", "refresh", 900));
+		bus = new BusInvalidacionLocal();
+		service = new AuthService(repository, encoder, refreshTokenService, bus, 100, 60);
+		service.suscribir();
+	}
+
+	@Test
+	void usuarioInexistenteSeRecuerdaSinVolverAConsultar() {
+		assertTrue(service.login("fantasma", "x").isEmpty());
+		assertTrue(service.login("fantasma", "y").isEmpty());
+
+		verify(repository, times(1)).findByUsername("fantasma");
+	}
+
+	@Test
+	void registrarQuitaElUsuarioDeLaCacheNegativa() {
+		assertTrue(service.login("ana", "secreto").isEmpty());
+		when(repository.save(any(Usuario.class))).thenAnswer(inv -> inv.getArgument(0));
+
+		Usuario ana = service.registrar("ana", "secreto").orElseThrow();
+		when(repository.findByUsername("ana")).thenReturn(Optional.of(ana));
+
+		AuthService.Sesion sesion = service.login("ana", "secreto").orElseThrow();
+		assertEquals("ROLE_USER", sesion.rol());
+		assertEquals("access", sesion.tokens().accessToken());
+		assertTrue(service.login("ana", "otra").isEmpty());
+	}
+
+	@Test
+	void unRegistroEnOtroNodoQuitaElUsuarioDeLaCacheNegativa() {
+		assertTrue(service.login("luis", "secreto").isEmpty());
+		Usuario luis = new Usuario("luis", encoder.encode("secreto"), "ROLE_USER");
+		when(repository.findByUsername("luis")).thenReturn(Optional.of(luis));
+
+		// Aviso del bus JDBC: el otro nodo ya hizo el INSERT
+		bus.entregar(new BusInvalidacion.Evento(BusInvalidacion.CANAL_USUARIOS, "luis", true));
+
+		assertTrue(service.login("luis", "secreto").isPresent());
+	}
+
+	@Test
+	void registroDuplicadoLoDetectaLaRestriccionUnique() {
+		when(repository.save(any(Usuario.class))).thenThrow(new DataIntegrityViolationException("usuarios.username"));
+
+		assertTrue(service.registrar("admin", "x").isEmpty());
+		verify(repository, never()).existsByUsername(anyString());
+	}
+}
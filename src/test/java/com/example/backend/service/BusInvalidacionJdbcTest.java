@@ -0,0 +1,89 @@
+package com.example.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.backend.model.EventoInvalidacion;
+import com.example.backend.repository.EventoInvalidacionRepository;
+
+/**
+ * Sondeo del bus JDBC: eventos propios, remotos e ids saltados.
+ */
+class BusInvalidacionJdbcTest {
+
+	private EventoInvalidacionRepository repository;
+	private BusInvalidacionJdbc bus;
+	private final List<BusInvalidacion.Evento> recibidos = new ArrayList<>();
+	private final List<EventoInvalidacion> tabla = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		repository = mock(EventoInvalidacionRepository.class);
+		when(repository.obtenerDesde(anyLong(), any(Limit.class))).thenAnswer(inv -> {
+			long desde = inv.getArgument(0);
+			return tabla.stream().filter(e -> e.getId() > desde).toList();
+		});
+		bus = new BusInvalidacionJdbc(repository, 1_000L, 500, 2_000L, 10L);
+		bus.suscribir(BusInvalidacion.CANAL_CATALOGO, recibidos::add);
+	}
+
+	@Test
+	void entregaSoloLosEventosDeOtrosNodos() {
+		String propio = (String) ReflectionTestUtils.getField(bus, "nodo");
+		long ahora = System.currentTimeMillis();
+		tabla.add(evento(1, propio, ahora));
+		tabla.add(evento(2, "otro-nodo", ahora));
+
+		bus.sondear();
+		bus.sondear();
+
+		assertEquals(List.of(new BusInvalidacion.Evento(BusInvalidacion.CANAL_CATALOGO, "*", true)), recibidos);
+	}
+
+	@Test
+	void esperaUnIdSaltadoHastaQueVenceElPlazo() {
+		long ahora = System.currentTimeMillis();
+		tabla.add(evento(1, "otro-nodo", ahora));
+		tabla.add(evento(3, "otro-nodo", ahora));
+
+		bus.sondear();
+		assertEquals(1, recibidos.size());
+
+		// El 2 nunca llegó: pasado el plazo desde que se vio el hueco se sigue con el 3
+		ReflectionTestUtils.setField(bus, "huecoVistoEn", ahora - 5_000);
+		bus.sondear();
+		assertEquals(2, recibidos.size());
+	}
+
+	@Test
+	void elPlazoCuentaDesdeQueSeVeElHuecoNoDesdeElEventoSiguiente() {
+		long ahora = System.currentTimeMillis();
+		tabla.add(evento(1, "otro-nodo", ahora - 60_000));
+		// El 3 es antiguo, pero el 2 (una transacción larga) puede seguir sin commit
+		tabla.add(evento(3, "otro-nodo", ahora - 60_000));
+
+		bus.sondear();
+		assertEquals(1, recibidos.size());
+
+		tabla.add(1, evento(2, "otro-nodo", ahora - 60_000));
+		bus.sondear();
+		assertEquals(3, recibidos.size());
+	}
+
+	private static EventoInvalidacion evento(long id, String origen, long creadoEn) {
+		EventoInvalidacion e = new EventoInvalidacion(BusInvalidacion.CANAL_CATALOGO, "*", origen, creadoEn);
+		e.setId(id);
+		return e;
+	}
+}
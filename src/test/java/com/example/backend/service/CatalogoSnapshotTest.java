@@ -0,0 +1,57 @@
+package com.example.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.backend.dto.ProductoDTO;
+
+/**
+ * Foto del catálogo: orden por id, rangos de precio, extremos y búsqueda por nombre.
+ */
+class CatalogoSnapshotTest {
+
+	private final CatalogoSnapshot catalogo = new CatalogoSnapshot(List.of(
+			producto(3, "Salchipapa", 12000),
+			producto(1, "Perro Sencillo", 9000),
+			producto(4, "Gaseosa", null),
+			producto(2, "Perro Especial", 15000),
+			producto(5, "Limonada", 9000)));
+
+	@Test
+	void listaPorIdYBuscaPorIdSinCopiar() {
+		assertEquals(List.of(1L, 2L, 3L, 4L, 5L), catalogo.todos().stream().map(ProductoDTO::getId).toList());
+		assertSame(catalogo.todos().get(2), catalogo.porId(3L).orElseThrow());
+		assertTrue(catalogo.porId(99L).isEmpty());
+		assertEquals(5, catalogo.resumenes().size());
+	}
+
+	@Test
+	void rangoDePrecioYExtremosIgnoranLosSinPrecio() {
+		assertEquals(List.of(1L, 5L, 3L), ids(catalogo.porRangoPrecio(9000, 12000)));
+		assertEquals(List.of(), catalogo.porRangoPrecio(13000, 14000));
+		assertEquals(List.of(), catalogo.porRangoPrecio(20000, 1000));
+		assertEquals(4, catalogo.porRangoPrecio(Integer.MIN_VALUE, Integer.MAX_VALUE).size());
+		assertEquals(1L, catalogo.masBarato().orElseThrow().getId());
+		assertEquals(2L, catalogo.masCaro().orElseThrow().getId());
+		assertTrue(CatalogoSnapshot.VACIO.masCaro().isEmpty());
+	}
+
+	@Test
+	void buscaPorNombreSinDistinguirMayusculasEnOrdenAlfabetico() {
+		assertEquals(List.of(2L, 1L), ids(catalogo.buscarPorNombre("PERRO")));
+		assertEquals(5, catalogo.buscarPorNombre("").size());
+	}
+
+	private static List<Long> ids(List<ProductoDTO> productos) {
+		return productos.stream().map(ProductoDTO::getId).toList();
+	}
+
+	private static ProductoDTO producto(long id, String nombre, Integer precio) {
+		return new ProductoDTO(id, nombre, "", precio, "");
+	}
+}
@@ -0,0 +1,65 @@
+package com.example.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Queue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.backend.repository.IdempotencyRecordRepository;
+
+/**
+ * Reserva de claves: en curso, respuesta reproducida y liberación tras un error.
+ */
+class IdempotencyServiceTest {
+
+	private IdempotencyService service;
+
+	@BeforeEach
+	void setUp() {
+		service = new IdempotencyService(mock(IdempotencyRecordRepository.class));
+		ReflectionTestUtils.setField(service, "maxEntradas", 100);
+		ReflectionTestUtils.setField(service, "ttlMs", 60_000L);
+	}
+
+	@Test
+	void rechazaUnaClaveEnCursoYReproduceLaCompletada() {
+		assertEquals(IdempotencyService.Estado.RESERVADA, service.reservar("POST /api/pedidos k1").estado());
+		assertEquals(IdempotencyService.Estado.EN_CURSO, service.reservar("POST /api/pedidos k1").estado());
+
+		byte[] body = "{\"id\":7}".getBytes(StandardCharsets.UTF_8);
+		service.completar("POST /api/pedidos k1", new IdempotencyService.RespuestaGuardada(201, "application/json", body));
+
+		IdempotencyService.Reserva repetida = service.reservar("POST /api/pedidos k1");
+		assertEquals(IdempotencyService.Estado.COMPLETADA, repetida.estado());
+		assertEquals(201, repetida.respuesta().status());
+		assertArrayEquals(body, repetida.respuesta().body());
+	}
+
+	@Test
+	void liberarPermiteReintentarPeroNoBorraUnaCompletada() {
+		service.reservar("k2");
+		service.liberar("k2");
+		assertEquals(IdempotencyService.Estado.RESERVADA, service.reservar("k2").estado());
+
+		service.completar("k2", new IdempotencyService.RespuestaGuardada(200, null, new byte[0]));
+		service.liberar("k2");
+		assertEquals(IdempotencyService.Estado.COMPLETADA, service.reservar("k2").estado());
+	}
+
+	@Test
+	void lasClavesLiberadasNoSeAcumulanEnLaCola() {
+		for (int i = 0; i < 1_000; i++) {
+			service.reservar("fallida-" + i);
+			service.liberar("fallida-" + i);
+		}
+		Queue<?> orden = (Queue<?>) ReflectionTestUtils.getField(service, "orden");
+		assertTrue(orden.size() <= 1, "nodos retenidos: " + orden.size());
+	}
+}
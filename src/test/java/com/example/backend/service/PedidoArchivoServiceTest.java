@@ -0,0 +1,81 @@
+package com.example.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.example.backend.exception.BusinessException;
+import com.example.backend.model.Pedido;
+import com.example.backend.model.PedidoArchivado;
+import com.example.backend.repository.PedidoArchivadoRepository;
+import com.example.backend.repository.PedidoRepository;
+
+/**
+ * Archivador: movimiento por lotes y carrera con el cambio de estado.
+ */
+class PedidoArchivoServiceTest {
+
+	private final PedidoRepository pedidoRepository = mock(PedidoRepository.class);
+	private final PedidoArchivadoRepository archivoRepository = mock(PedidoArchivadoRepository.class);
+	private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void mueveLosPedidosPorLotesHastaUnLoteIncompleto() {
+		PedidoArchivoService service = new PedidoArchivoService(pedidoRepository, archivoRepository, transactionManager);
+		ReflectionTestUtils.setField(service, "tamanoLote", 2);
+		ReflectionTestUtils.setField(service, "edadDias", 30L);
+		when(pedidoRepository.obtenerParaArchivar(anyLong(), any(Limit.class)))
+				.thenReturn(List.of(pedido(1L), pedido(2L)), List.of(pedido(3L)));
+
+		assertEquals(3, service.archivar());
+
+		ArgumentCaptor<List<PedidoArchivado>> archivados = ArgumentCaptor.forClass(List.class);
+		verify(archivoRepository, times(2)).saveAll(archivados.capture());
+		List<Long> ids = new ArrayList<>();
+		archivados.getAllValues().forEach(lote -> lote.forEach(a -> ids.add(a.getId())));
+		assertEquals(List.of(1L, 2L, 3L), ids);
+		verify(pedidoRepository, times(2)).deleteAllInBatch(anyList());
+	}
+
+	@Test
+	void cambiarEstadoDeUnPedidoArchivadoEntreMedioEsErrorDeNegocio() {
+		PedidoService pedidoService = new PedidoService(pedidoRepository, archivoRepository,
+				mock(PedidoIngestionService.class), mock(PedidoItemsCodec.class), mock(PricingService.class),
+				mock(PedidoColaService.class), mock(BusInvalidacion.class), mock(PedidoCambioService.class),
+				mock(PedidoJournal.class), transactionManager);
+		// Existe al verificar; el archivador lo mueve antes del UPDATE y de la relectura
+		when(pedidoRepository.existePorId(7L)).thenReturn(true);
+		when(pedidoRepository.actualizarEstado(7L, "ATENDIDO")).thenReturn(0);
+		when(pedidoRepository.obtenerPorId(7L)).thenReturn(Optional.empty());
+		when(archivoRepository.existsById(7L)).thenReturn(true);
+
+		BusinessException e = assertThrows(BusinessException.class,
+				() -> pedidoService.cambiarEstado(7L, "ATENDIDO"));
+		assertTrue(e.getMessage().contains("archivado"));
+	}
+
+	private static Pedido pedido(Long id) {
+		Pedido p = new Pedido();
+		p.setId(id);
+		p.setEstado("ATENDIDO");
+		return p;
+	}
+}
@@ -0,0 +1,104 @@
+package com.example.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.backend.model.PedidoCambio;
+import com.example.backend.repository.PedidoCambioRepository;
+
+/**
+ * Lotes del registro de cambios: límite, siguiente y seq saltadas.
+ */
+class PedidoCambioServiceTest {
+
+	private final List<PedidoCambio> tabla = new ArrayList<>();
+	private PedidoCambioService service;
+
+	@BeforeEach
+	void setUp() {
+		PedidoCambioRepository repository = mock(PedidoCambioRepository.class);
+		when(repository.obtenerDesde(anyLong(), any(Limit.class))).thenAnswer(inv -> {
+			long desde = inv.getArgument(0);
+			Limit limite = inv.getArgument(1);
+			return tabla.stream().filter(c -> c.getSeq() > desde).limit(limite.max()).toList();
+		});
+		service = new PedidoCambioService(repository);
+		ReflectionTestUtils.setField(service, "loteMaximo", 1000);
+		ReflectionTestUtils.setField(service, "esperaHuecoMs", 2_000L);
+	}
+
+	@Test
+	void entregaPorLotesYDevuelveDesdeDondeSeguir() {
+		long ahora = System.currentTimeMillis();
+		for (long seq = 1; seq <= 5; seq++) {
+			tabla.add(cambio(seq, ahora));
+		}
+
+		PedidoCambioService.Lote primero = service.obtenerDesde(0, 3);
+		assertEquals(3, primero.cambios().size());
+		assertEquals(3, primero.siguiente());
+		assertTrue(primero.hayMas());
+
+		PedidoCambioService.Lote segundo = service.obtenerDesde(primero.siguiente(), 3);
+		assertEquals(2, segundo.cambios().size());
+		assertEquals(5, segundo.siguiente());
+		assertFalse(segundo.hayMas());
+
+		assertEquals(5, service.obtenerDesde(5, 3).siguiente());
+	}
+
+	@Test
+	void seDetieneEnUnaSeqSaltadaRecienteYLaPasaAlVencer() {
+		long ahora = System.currentTimeMillis();
+		tabla.add(cambio(1, ahora));
+		tabla.add(cambio(3, ahora));
+
+		PedidoCambioService.Lote lote = service.obtenerDesde(0, 100);
+		assertEquals(1, lote.cambios().size());
+		assertEquals(1, lote.siguiente());
+
+		// La 2 fue un rollback: pasado el plazo desde que se vio el hueco se entrega la 3
+		huecosVistos().put(2L, ahora - 5_000);
+		assertEquals(3, service.obtenerDesde(1, 100).siguiente());
+	}
+
+	@Test
+	void elPlazoCuentaDesdeQueSeVeElHuecoNoDesdeLaFilaSiguiente() {
+		long antiguo = System.currentTimeMillis() - 60_000;
+		tabla.add(cambio(1, antiguo));
+		// La 3 es antigua, pero la 2 (una transacción larga) puede seguir sin commit
+		tabla.add(cambio(3, antiguo));
+
+		assertEquals(1, service.obtenerDesde(0, 100).siguiente());
+
+		tabla.add(1, cambio(2, antiguo));
+		PedidoCambioService.Lote lote = service.obtenerDesde(1, 100);
+		assertEquals(2, lote.cambios().size());
+		assertEquals(3, lote.siguiente());
+	}
+
+	@SuppressWarnings("unchecked")
+	private Map<Long, Long> huecosVistos() {
+		return (Map<Long, Long>) ReflectionTestUtils.getField(service, "huecosVistos");
+	}
+
+	private static PedidoCambio cambio(long seq, long ocurridoEn) {
+		PedidoCambio c = new PedidoCambio(seq * 10, PedidoCambio.TIPO_CREADO, "PENDIENTE", 9000, ocurridoEn);
+		c.setSeq(seq);
+		return c;
+	}
+}
@@ -0,0 +1,126 @@
+package com.example.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.backend.repository.PedidoRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Cola de cocina: orden de reclamo y entrega exclusiva.
+ */
+class PedidoColaServiceTest {
+
+	private PedidoColaService cola;
+
+	@BeforeEach
+	void setUp() {
+		cola = new PedidoColaService(mock(PedidoRepository.class), new BusInvalidacionLocal(), new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(cola, "leaseSegundos", 900L);
+	}
+
+	@Test
+	void reclamaPorAntiguedadYSaltaLosQuitados() {
+		cola.agregar(3L, 3000L, 10000);
+		cola.agregar(1L, 1000L, 10000);
+		cola.agregar(2L, 2000L, 10000);
+		cola.quitar(1L);
+
+		assertEquals(Optional.of(2L), cola.reclamar("ana"));
+		assertEquals(Optional.of(3L), cola.reclamar("luis"));
+		assertEquals(Optional.empty(), cola.reclamar("ana"));
+		assertEquals("luis", cola.reclamo(3L).orElseThrow().empleado());
+	}
+
+	@Test
+	void reclamoVencidoVuelveALaCola() throws InterruptedException {
+		ReflectionTestUtils.setField(cola, "leaseSegundos", 0L);
+		cola.agregar(1L, 1000L, 10000);
+
+		assertEquals(Optional.of(1L), cola.reclamar("ana"));
+		Thread.sleep(5);
+		assertEquals(Optional.of(1L), cola.reclamar("luis"));
+	}
+
+	@Test
+	void dosEmpleadosNuncaRecibenElMismoPedido() throws Exception {
+		int pedidos = 2000;
+		for (long i = 1; i <= pedidos; i++) {
+			cola.agregar(i, i, 10000);
+		}
+		Set<Long> entregados = ConcurrentHashMap.newKeySet();
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		for (int h = 0; h < 8; h++) {
+			String empleado = "empleado" + h;
+			pool.submit(() -> {
+				Optional<Long> id;
+				while ((id = cola.reclamar(empleado)).isPresent()) {
+					assertTrue(entregados.add(id.get()));
+				}
+			});
+		}
+		pool.shutdown();
+		assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+		assertEquals(pedidos, entregados.size());
+		assertEquals(0, cola.pendientes());
+	}
+
+	@Test
+	void unAgregarConcurrenteNoReencolaUnPedidoReclamado() throws Exception {
+		int pedidos = 5_000;
+		for (long i = 1; i <= pedidos; i++) {
+			cola.agregar(i, i, 10000);
+		}
+		Set<Long> entregados = ConcurrentHashMap.newKeySet();
+		AtomicInteger repetidos = new AtomicInteger();
+		AtomicBoolean reclamando = new AtomicBoolean(true);
+		ExecutorService pool = Executors.newFixedThreadPool(6);
+		// Como sincronizar o un evento remoto: vuelve a agregar pedidos que siguen pendientes en la BD
+		for (int h = 0; h < 2; h++) {
+			pool.submit(() -> {
+				while (reclamando.get()) {
+					for (long i = 1; i <= pedidos && reclamando.get(); i += 7) {
+						cola.agregar(i, i, 10000);
+					}
+				}
+			});
+		}
+		for (int h = 0; h < 4; h++) {
+			String empleado = "empleado" + h;
+			pool.submit(() -> {
+				Optional<Long> id;
+				while ((id = cola.reclamar(empleado)).isPresent()) {
+					if (!entregados.add(id.get())) {
+						repetidos.incrementAndGet();
+					}
+				}
+			});
+		}
+		long limite = System.currentTimeMillis() + 10_000;
+		while (entregados.size() < pedidos && System.currentTimeMillis() < limite) {
+			Thread.sleep(5);
+		}
+		reclamando.set(false);
+		pool.shutdown();
+		assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+		assertEquals(0, repetidos.get());
+		assertEquals(pedidos, entregados.size());
+	}
+}
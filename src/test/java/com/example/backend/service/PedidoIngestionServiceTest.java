@@ -0,0 +1,119 @@
+package com.example.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.example.backend.model.Pedido;
+import com.example.backend.repository.PedidoRepository;
+
+/**
+ * Escritor de la ingesta: group commit, errores y cancelación de envíos.
+ */
+class PedidoIngestionServiceTest {
+
+	private final PedidoRepository repository = mock(PedidoRepository.class);
+	private final List<List<String>> lotes = new CopyOnWriteArrayList<>();
+	private final AtomicLong ids = new AtomicLong();
+	private final CountDownLatch primerLoteEnCurso = new CountDownLatch(1);
+	private final CountDownLatch liberarPrimerLote = new CountDownLatch(1);
+	private PedidoIngestionService service;
+
+	@BeforeEach
+	void setUp() {
+		when(repository.saveAll(anyList())).thenAnswer(inv -> {
+			List<Pedido> pedidos = new ArrayList<>(inv.getArgument(0));
+			if (lotes.isEmpty()) {
+				primerLoteEnCurso.countDown();
+				liberarPrimerLote.await(5, TimeUnit.SECONDS);
+			}
+			lotes.add(pedidos.stream().map(Pedido::getNombreCliente).toList());
+			if (pedidos.stream().anyMatch(p -> "falla".equals(p.getNombreCliente()))) {
+				throw new IllegalStateException("violación de restricción");
+			}
+			pedidos.forEach(p -> p.setId(ids.incrementAndGet()));
+			return pedidos;
+		});
+		service = new PedidoIngestionService(repository, mock(PedidoCambioService.class),
+				mock(PlatformTransactionManager.class));
+		ReflectionTestUtils.setField(service, "capacidadCola", 10);
+		ReflectionTestUtils.setField(service, "tamanoLote", 10);
+		ReflectionTestUtils.setField(service, "timeoutEncolarMs", 100L);
+		service.iniciar();
+	}
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		liberarPrimerLote.countDown();
+		service.detener();
+	}
+
+	@Test
+	void loQueLlegaDuranteUnLoteVaJuntoEnElSiguiente() throws Exception {
+		PedidoIngestionService.Envio a = service.encolar(pedido("a"));
+		assertTrue(primerLoteEnCurso.await(5, TimeUnit.SECONDS));
+		PedidoIngestionService.Envio b = service.encolar(pedido("b"));
+		PedidoIngestionService.Envio c = service.encolar(pedido("c"));
+		liberarPrimerLote.countDown();
+
+		assertNotNull(a.resultado().get(5, TimeUnit.SECONDS).getId());
+		assertNotNull(b.resultado().get(5, TimeUnit.SECONDS).getId());
+		assertNotNull(c.resultado().get(5, TimeUnit.SECONDS).getId());
+		assertEquals(List.of(List.of("a"), List.of("b", "c")), lotes);
+	}
+
+	@Test
+	void unLoteFallidoSeReintentaUnoPorUnoYSoloFallaElProblematico() throws Exception {
+		service.encolar(pedido("a"));
+		assertTrue(primerLoteEnCurso.await(5, TimeUnit.SECONDS));
+		PedidoIngestionService.Envio bueno = service.encolar(pedido("b"));
+		PedidoIngestionService.Envio malo = service.encolar(pedido("falla"));
+		liberarPrimerLote.countDown();
+
+		assertNotNull(bueno.resultado().get(5, TimeUnit.SECONDS).getId());
+		ExecutionException e = assertThrows(ExecutionException.class, () -> malo.resultado().get(5, TimeUnit.SECONDS));
+		assertTrue(e.getCause() instanceof IllegalStateException);
+	}
+
+	@Test
+	void unEnvioSinTomarSeCancelaYUnoTomadoSiempreTerminaDeEscribirse() throws Exception {
+		PedidoIngestionService.Envio enLote = service.encolar(pedido("a"));
+		assertTrue(primerLoteEnCurso.await(5, TimeUnit.SECONDS));
+		PedidoIngestionService.Envio enCola = service.encolar(pedido("cancelado"));
+
+		// Ya en la transacción: no se puede cancelar y su resultado llega igual
+		assertFalse(service.cancelar(enLote));
+		assertTrue(service.cancelar(enCola));
+		assertTrue(enCola.resultado().isCancelled());
+		liberarPrimerLote.countDown();
+
+		assertNotNull(enLote.resultado().get(5, TimeUnit.SECONDS).getId());
+		assertNotNull(service.encolar(pedido("d")).resultado().get(5, TimeUnit.SECONDS).getId());
+		assertEquals(List.of(List.of("a"), List.of("d")), lotes);
+	}
+
+	private static Pedido pedido(String nombre) {
+		Pedido p = new Pedido();
+		p.setNombreCliente(nombre);
+		return p;
+	}
+}
@@ -0,0 +1,56 @@
+package com.example.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Ida y vuelta del codec compacto de items, casos no representables y peor tamaño.
+ */
+class PedidoItemsCodecTest {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final PedidoItemsCodec codec = new PedidoItemsCodec(objectMapper);
+
+	@Test
+	void conservaLosValoresAunqueNoElTextoOriginal() throws Exception {
+		String json = "[ {\"cantidad\": 2, \"producto\": \"Hamburguesa\", \"precio\": 15000},"
+				+ " {\"id\": 7, \"producto\": \"Jugo de maracuyá ñ €\", \"precio\": 0, \"cantidad\": 1}, {\"precio\": 300, \"cantidad\": 3} ]";
+
+		String decodificado = codec.decodificar(codec.codificar(json));
+
+		assertEquals(objectMapper.readTree(json), objectMapper.readTree(decodificado));
+		// Orden de campos fijo y sin espacios
+		assertTrue(decodificado.startsWith("[{\"producto\":\"Hamburguesa\",\"precio\":15000,\"cantidad\":2}"));
+	}
+
+	@Test
+	void loNoRepresentableQuedaEnJson() {
+		assertNull(codec.codificar("[{\"producto\":\"x\",\"precio\":-1,\"cantidad\":1}]"));
+		assertNull(codec.codificar("[{\"producto\":\"x\",\"precio\":1.5,\"cantidad\":1}]"));
+		assertNull(codec.codificar("[{\"producto\":\"x\",\"precio\":1,\"cantidad\":1,\"nota\":\"sin cebolla\"}]"));
+		assertNull(codec.codificar("[{\"id\":" + Long.MAX_VALUE + ",\"producto\":\"x\",\"precio\":1,\"cantidad\":1}]"));
+		assertNull(codec.codificar("{\"producto\":\"x\"}"));
+		assertNull(codec.codificar("no es json"));
+	}
+
+	@Test
+	void elPeorCasoCabeEnLaColumna() {
+		// Nombres de 3 bytes por carácter hasta llenar los 2000 caracteres de itemsJson
+		String prefijo = "[{\"producto\":\"";
+		String sufijo = "\",\"precio\":1,\"cantidad\":1}]";
+		String json = prefijo + "€".repeat(2000 - prefijo.length() - sufijo.length()) + sufijo;
+		assertEquals(2000, json.length());
+
+		byte[] bin = codec.codificar(json);
+
+		assertNotNull(bin);
+		assertTrue(bin.length > 1000, "supera el largo anterior de la columna");
+		assertTrue(bin.length <= PedidoItemsCodec.MAX_BYTES);
+	}
+}
@@ -0,0 +1,88 @@
+package com.example.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Segmentos del journal: reapertura, checkpoint, rotación y cola cortada.
+ */
+class PedidoJournalArchivoTest {
+
+	private static final int SEGMENTO = 256;
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void reabreDesdeElCheckpointYSigueEscribiendoAlFinal() {
+		PedidoJournalArchivo archivo = new PedidoJournalArchivo(dir, SEGMENTO);
+		assertTrue(archivo.abrir(null).isEmpty());
+		archivo.agregar(datos("uno"));
+		PedidoJournalArchivo.Posicion checkpoint = archivo.agregar(datos("dos"));
+		archivo.agregar(datos("tres"));
+		archivo.forzar();
+
+		PedidoJournalArchivo reabierto = new PedidoJournalArchivo(dir, SEGMENTO);
+		List<PedidoJournalArchivo.Registro> pendientes = reabierto.abrir(checkpoint);
+		assertEquals(1, pendientes.size());
+		assertArrayEquals(datos("tres"), pendientes.get(0).datos());
+
+		reabierto.agregar(datos("cuatro"));
+		assertEquals(4, new PedidoJournalArchivo(dir, SEGMENTO).abrir(null).size());
+	}
+
+	@Test
+	void rotaDeSegmentoYPodaLosAplicados() throws Exception {
+		PedidoJournalArchivo archivo = new PedidoJournalArchivo(dir, SEGMENTO);
+		archivo.abrir(null);
+		PedidoJournalArchivo.Posicion ultima = null;
+		for (int i = 0; i < 20; i++) {
+			ultima = archivo.agregar(new byte[50]);
+		}
+		// 4 registros de 58 bytes por segmento
+		assertEquals(4, ultima.segmento());
+		assertEquals(20, new PedidoJournalArchivo(dir, SEGMENTO).abrir(null).size());
+
+		archivo.podar(ultima.segmento(), 1);
+		try (var archivos = Files.list(dir)) {
+			assertEquals(2, archivos.count());
+		}
+		assertEquals(8, new PedidoJournalArchivo(dir, SEGMENTO).abrir(null).size());
+	}
+
+	@Test
+	void descartaUnRegistroCortadoYLoSobrescribe() throws Exception {
+		PedidoJournalArchivo archivo = new PedidoJournalArchivo(dir, SEGMENTO);
+		archivo.abrir(null);
+		PedidoJournalArchivo.Posicion primero = archivo.agregar(datos("completo"));
+		archivo.agregar(datos("cortado"));
+		archivo.forzar();
+		// Caída a mitad de la escritura: los datos del segundo quedaron incompletos
+		try (RandomAccessFile raf = new RandomAccessFile(dir.resolve("pedidos-0000000000000000.journal").toFile(), "rw")) {
+			raf.seek(primero.offset() + 8);
+			raf.write(0);
+		}
+
+		PedidoJournalArchivo reabierto = new PedidoJournalArchivo(dir, SEGMENTO);
+		assertEquals(1, reabierto.abrir(null).size());
+		reabierto.agregar(datos("nuevo"));
+
+		List<PedidoJournalArchivo.Registro> registros = new PedidoJournalArchivo(dir, SEGMENTO).abrir(null);
+		assertEquals(2, registros.size());
+		assertArrayEquals(datos("nuevo"), registros.get(1).datos());
+	}
+
+	private static byte[] datos(String texto) {
+		return texto.getBytes(StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,216 @@
+package com.example.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.FileSystemUtils;
+
+import com.example.backend.model.Pedido;
+import com.example.backend.repository.JournalCheckpointRepository;
+import com.example.backend.repository.PedidoRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Journal contra H2 real (en archivo): lote con creación y cambio de
+ * estado, repetición tras reiniciar, secuencia y registros descartados.
+ *
+ * Cada journal se crea a mano sobre los beans del contexto; "reiniciar" es
+ * detener uno y abrir otro en el mismo directorio. Una BD restaurada a un
+ * punto anterior se simula borrando filas y el checkpoint.
+ */
+@SpringBootTest
+class PedidoJournalTest {
+
+	private static final Path DIR = Path.of(System.getProperty("java.io.tmpdir"), "pedido-journal-" + UUID.randomUUID());
+
+	@DynamicPropertySource
+	static void bdEnArchivo(DynamicPropertyRegistry registry) {
+		registry.add("spring.datasource.url", () -> "jdbc:h2:file:" + DIR.resolve("db").toAbsolutePath());
+	}
+
+	@Autowired private PedidoRepository pedidoRepository;
+	@Autowired private JournalCheckpointRepository checkpointRepository;
+	@Autowired private PedidoCambioService pedidoCambioService;
+	@Autowired private PedidoColaService pedidoColaService;
+	@Autowired private BusInvalidacion busInvalidacion;
+	@Autowired private JdbcTemplate jdbcTemplate;
+	@Autowired private PlatformTransactionManager transactionManager;
+	@Autowired private EntityManagerFactory entityManagerFactory;
+	@Autowired private MeterRegistry meterRegistry;
+
+	private Path journal;
+
+	@AfterAll
+	static void borrarDirectorio() throws IOException {
+		FileSystemUtils.deleteRecursively(DIR);
+	}
+
+	@BeforeEach
+	void setUp() {
+		journal = DIR.resolve("journal-" + UUID.randomUUID());
+		checkpointRepository.deleteAll();
+	}
+
+	@Test
+	void creacionYCambioDeEstadoEnElMismoLote() throws Exception {
+		PedidoJournal j1 = abrir();
+		Long id = j1.registrarCreado(nuevoPedido()).getId();
+		j1.registrarEstado(id, "ATENDIDO").get(5, TimeUnit.SECONDS);
+		j1.detener();
+		olvidar(List.of(id));
+
+		// Al repetir, los dos registros entran en un solo lote
+		PedidoJournal j2 = abrir();
+		j2.detener();
+
+		assertEquals("ATENDIDO", pedidoRepository.obtenerPorId(id).orElseThrow().getEstado());
+		assertEquals(List.of("CREADO", "ESTADO"), jdbcTemplate.queryForList(
+				"SELECT tipo FROM pedidos_cambios WHERE pedido_id = ? ORDER BY seq", String.class, id));
+	}
+
+	@Test
+	void repetirTrasReiniciarNoDuplicaIdsYAdelantaLaSecuencia() throws Exception {
+		PedidoJournal j1 = abrir();
+		List<Long> ids = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			ids.add(j1.registrarCreado(nuevoPedido()).getId());
+		}
+		j1.detener();
+
+		// Reinicio normal: el checkpoint está al final, no se repite nada
+		abrir().detener();
+		for (Long id : ids) {
+			assertEquals(1, contar("SELECT COUNT(*) FROM pedidos WHERE id = ?", id));
+			assertEquals(1, contar("SELECT COUNT(*) FROM pedidos_cambios WHERE pedido_id = ?", id));
+		}
+
+		// BD anterior a los pedidos, con la secuencia al principio: se repiten y la secuencia se adelanta
+		olvidar(ids);
+		jdbcTemplate.execute("ALTER SEQUENCE pedidos_seq RESTART WITH 1");
+		PedidoJournal j2 = abrir();
+		long maxId = ids.stream().mapToLong(Long::longValue).max().orElseThrow();
+		Long siguiente = jdbcTemplate.queryForObject(
+				"SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = 'PEDIDOS_SEQ'", Long.class);
+		assertTrue(siguiente > maxId + 50, "la secuencia debe quedar más allá del último bloque repetido");
+
+		Long nuevo = j2.registrarCreado(nuevoPedido()).getId();
+		j2.detener();
+		assertFalse(ids.contains(nuevo));
+		for (Long id : ids) {
+			assertEquals(1, contar("SELECT COUNT(*) FROM pedidos WHERE id = ?", id));
+		}
+		assertEquals(1, contar("SELECT COUNT(*) FROM pedidos WHERE id = ?", nuevo));
+	}
+
+	@Test
+	void registroRechazadoSeDescartaYElRestoSeAplica() throws Exception {
+		PedidoJournal j1 = abrir();
+		Long primero = j1.registrarCreado(nuevoPedido()).getId();
+		Long segundo = j1.registrarCreado(nuevoPedido()).getId();
+		j1.detener();
+
+		// Checkpoint perdido, solo falta el primero: repetir el segundo choca con su PK
+		olvidar(List.of(primero));
+		double antes = meterRegistry.get("pedidos.journal.descartados").counter().count();
+		PedidoJournal j2 = abrir();
+
+		assertEquals(1, contar("SELECT COUNT(*) FROM pedidos WHERE id = ?", primero));
+		assertEquals(1, contar("SELECT COUNT(*) FROM pedidos WHERE id = ?", segundo));
+		assertEquals(antes + 1, meterRegistry.get("pedidos.journal.descartados").counter().count());
+		try (Stream<Path> copias = Files.list(journal.resolve("descartados"))) {
+			assertEquals(1, copias.count());
+		}
+		// El checkpoint pasó el registro descartado: otro reinicio no lo repite
+		j2.detener();
+		abrir().detener();
+		assertEquals(antes + 1, meterRegistry.get("pedidos.journal.descartados").counter().count());
+
+		// Un cambio de estado rechazado falla su futuro en lugar de dejarlo esperando
+		PedidoJournal j3 = abrir();
+		CompletableFuture<Pedido> rechazado = j3.registrarEstado(primero, "X".repeat(300));
+		assertThrows(ExecutionException.class, () -> rechazado.get(5, TimeUnit.SECONDS));
+		assertEquals("ATENDIDO", j3.registrarEstado(primero, "ATENDIDO").get(5, TimeUnit.SECONDS).getEstado());
+		j3.detener();
+	}
+
+	@Test
+	void noArrancaConLaBdEnMemoria() {
+		PedidoJournal j = crear();
+		JdbcTemplate enMemoria = new JdbcTemplate(new DriverManagerDataSource(
+				"jdbc:h2:mem:journal-" + UUID.randomUUID()));
+		ReflectionTestUtils.setField(j, "jdbcTemplate", enMemoria);
+
+		assertThrows(IllegalStateException.class, j::iniciar);
+	}
+
+	private PedidoJournal abrir() {
+		PedidoJournal j = crear();
+		j.iniciar();
+		return j;
+	}
+
+	private PedidoJournal crear() {
+		PedidoJournal j = new PedidoJournal(pedidoRepository, checkpointRepository, pedidoCambioService,
+				pedidoColaService, busInvalidacion, jdbcTemplate, transactionManager, entityManagerFactory, meterRegistry);
+		ReflectionTestUtils.setField(j, "habilitado", true);
+		ReflectionTestUtils.setField(j, "directorio", journal.toString());
+		ReflectionTestUtils.setField(j, "tamanoSegmentoMb", 1);
+		ReflectionTestUtils.setField(j, "intervaloFsyncMs", 50L);
+		ReflectionTestUtils.setField(j, "tamanoLote", 200);
+		ReflectionTestUtils.setField(j, "segmentosRetenidos", 1);
+		return j;
+	}
+
+	/**
+	 * La BD "vuelve" a antes de estos pedidos: sin filas, sin cambios y sin checkpoint.
+	 */
+	private void olvidar(List<Long> ids) {
+		for (Long id : ids) {
+			jdbcTemplate.update("DELETE FROM pedidos_cambios WHERE pedido_id = ?", id);
+			jdbcTemplate.update("DELETE FROM pedidos WHERE id = ?", id);
+		}
+		checkpointRepository.deleteAll();
+	}
+
+	private int contar(String sql, Long id) {
+		return jdbcTemplate.queryForObject(sql, Integer.class, id);
+	}
+
+	private static Pedido nuevoPedido() {
+		Pedido p = new Pedido();
+		p.setNombreCliente("Cliente");
+		p.setTelefono("3001234567");
+		p.setDireccion("Calle 1");
+		p.setItemsJson("[{\"producto\":\"Perro\",\"precio\":9000,\"cantidad\":1}]");
+		p.setTotal(9000);
+		p.setEstado("PENDIENTE");
+		p.setCreadoEn(System.currentTimeMillis());
+		return p;
+	}
+}
@@ -0,0 +1,110 @@
+package com.example.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.backend.dto.ProductoDTO;
+import com.example.backend.exception.BusinessException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Recalculo de totales con el mapa de precios armado desde la foto del catálogo.
+ */
+class PricingServiceTest {
+
+	private ProductoService productoService;
+	private PricingService pricingService;
+
+	@BeforeEach
+	void setUp() {
+		productoService = mock(ProductoService.class);
+		when(productoService.catalogo()).thenReturn(new CatalogoSnapshot(List.of(
+				new ProductoDTO(1L, "Hamburguesa", null, 15000, null),
+				new ProductoDTO(2L, "Perro Caliente", null, 9000, null))));
+		pricingService = new PricingService(productoService, new ObjectMapper());
+		ReflectionTestUtils.setField(pricingService, "modo", "correct");
+		ReflectionTestUtils.setField(pricingService, "rechazarDesconocidos", false);
+	}
+
+	@Test
+	void totalCorrectoNoSeModifica() {
+		String items = "[{\"producto\":\"Hamburguesa\",\"precio\":15000,\"cantidad\":2},"
+				+ "{\"producto\":\"Gaseosa\",\"precio\":3000,\"cantidad\":1}]";
+
+		PricingService.Cotizacion c = pricingService.cotizar(items, 33000);
+
+		assertEquals(33000, c.total());
+		assertFalse(c.corregido());
+		assertEquals(items, c.itemsJson());
+	}
+
+	@Test
+	void precioManipuladoSeCorrige() {
+		PricingService.Cotizacion c = pricingService.cotizar(
+				"[{\"producto\":\"perro caliente \",\"precio\":1,\"cantidad\":3}]", 3);
+
+		assertEquals(27000, c.total());
+		assertTrue(c.corregido());
+		assertEquals("[{\"producto\":\"perro caliente \",\"precio\":9000,\"cantidad\":3}]", c.itemsJson());
+	}
+
+	@Test
+	void modoRejectRechazaDiferencias() {
+		ReflectionTestUtils.setField(pricingService, "modo", "reject");
+
+		assertThrows(BusinessException.class, () -> pricingService.cotizar(
+				"[{\"id\":1,\"producto\":\"Hamburguesa\",\"precio\":15000,\"cantidad\":1}]", 100));
+		assertThrows(BusinessException.class, () -> pricingService.cotizar("no es json", 100));
+	}
+
+	@Test
+	void mapaSeRehaceSoloCuandoCambiaLaFotoDelCatalogo() {
+		String items = "[{\"producto\":\"Hamburguesa\",\"precio\":15000,\"cantidad\":1}]";
+		pricingService.cotizar(items, 15000);
+		Object mapa = ReflectionTestUtils.getField(pricingService, "precios");
+		pricingService.cotizar(items, 15000);
+		assertSame(mapa, ReflectionTestUtils.getField(pricingService, "precios"));
+
+		when(productoService.catalogo()).thenReturn(new CatalogoSnapshot(List.of(
+				new ProductoDTO(1L, "Hamburguesa", null, 16000, null))));
+		assertEquals(16000, pricingService.cotizar(items, 15000).total());
+		assertNotSame(mapa, ReflectionTestUtils.getField(pricingService, "precios"));
+	}
+
+	@Test
+	void productoDesconocidoSeRechazaConRejectUnknown() {
+		ReflectionTestUtils.setField(pricingService, "rechazarDesconocidos", true);
+		BusinessException e = assertThrows(BusinessException.class, () -> pricingService.cotizar(
+				"[{\"producto\":\"Gaseosa\",\"precio\":3000,\"cantidad\":1}]", 3000));
+		assertTrue(e.getMessage().contains("Gaseosa"));
+
+		// Catálogo vacío: ningún item tiene precio de referencia
+		when(productoService.catalogo()).thenReturn(CatalogoSnapshot.VACIO);
+		assertThrows(BusinessException.class, () -> pricingService.cotizar(
+				"[{\"producto\":\"Hamburguesa\",\"precio\":15000,\"cantidad\":1}]", 15000));
+	}
+
+	@Test
+	void precioNoEnteroOPositivoSeRechaza() {
+		// Sin reject-unknown el precio del cliente es el que cuenta: debe ser un entero positivo
+
+		for (String precio : List.of("0", "-5000", "0.5", "2999.99", "1e12", "\"3000\"")) {
+			assertThrows(BusinessException.class, () -> pricingService.cotizar(
+					"[{\"producto\":\"Hamburguesa\",\"precio\":15000,\"cantidad\":1},"
+							+ "{\"producto\":\"Gaseosa\",\"precio\":" + precio + ",\"cantidad\":10}]", 15000),
+					precio);
+		}
+	}
+}
@@ -0,0 +1,127 @@
+package com.example.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.backend.dto.RefreshTokenVigenteDTO;
+import com.example.backend.model.RefreshToken;
+import com.example.backend.repository.RefreshTokenRepository;
+import com.example.backend.security.JwtUtils;
+
+/**
+ * Rotación de refresh tokens y detección de reutilización.
+ */
+class RefreshTokenServiceTest {
+
+	private RefreshTokenRepository repository;
+	private RefreshTokenService service;
+	private JwtUtils jwtUtils;
+	private final Map<String, RefreshToken> tabla = new HashMap<>();
+	private final Map<String, String> roles = new HashMap<>();
+
+	@BeforeEach
+	void setUp() {
+		repository = mock(RefreshTokenRepository.class);
+		when(repository.save(any(RefreshToken.class))).thenAnswer(inv -> {
+			RefreshToken r = inv.getArgument(0);
+			tabla.put(r.getHash(), r);
+			return r;
+		});
+		when(repository.findById(anyString())).thenAnswer(inv -> Optional.ofNullable(tabla.get(inv.getArgument(0))));
+		// JOIN con usuarios: sin usuario no hay fila
+		when(repository.buscarConRolActual(anyString())).thenAnswer(inv -> Optional.ofNullable(tabla.get(inv.getArgument(0)))
+				.filter(r -> roles.containsKey(r.getUsername()))
+				.map(r -> new RefreshTokenVigenteDTO(r.getUsername(), r.getFamilia(), r.getExpiraEn(), r.isUsado(),
+						roles.get(r.getUsername()))));
+		when(repository.marcarUsado(anyString())).thenAnswer(inv -> {
+			RefreshToken r = tabla.get(inv.getArgument(0));
+			if (r == null || r.isUsado()) {
+				return 0;
+			}
+			r.setUsado(true);
+			return 1;
+		});
+		jwtUtils = new JwtUtils("EstaEsUnaClaveDePrueba_MuySegura_1234567890", 900_000L);
+		service = new RefreshTokenService(repository, jwtUtils);
+		ReflectionTestUtils.setField(service, "duracionRefreshMs", 60_000L);
+		roles.put("ana", "ROLE_ADMIN");
+	}
+
+	@Test
+	void renovarRotaYConservaRolYFamilia() {
+		RefreshTokenService.ParTokens inicial = service.emitir("ana", "ROLE_ADMIN");
+
+		RefreshTokenService.ParTokens renovado = service.renovar(inicial.refreshToken()).orElseThrow();
+
+		assertNotEquals(inicial.refreshToken(), renovado.refreshToken());
+		assertEquals(900, renovado.expiraEnSegundos());
+		assertEquals(2, tabla.size());
+		assertEquals(1, tabla.values().stream().map(RefreshToken::getFamilia).distinct().count());
+		assertTrue(tabla.values().stream().allMatch(r -> "ROLE_ADMIN".equals(r.getRol())));
+		// Solo se guarda el hash, nunca el token
+		assertTrue(tabla.keySet().stream().noneMatch(h -> h.equals(renovado.refreshToken())));
+		verify(repository, never()).eliminarFamilia(anyString());
+	}
+
+	@Test
+	void reutilizarUnTokenRotadoRevocaLaFamilia() {
+		RefreshTokenService.ParTokens inicial = service.emitir("ana", "ROLE_ADMIN");
+		service.renovar(inicial.refreshToken()).orElseThrow();
+
+		assertTrue(service.renovar(inicial.refreshToken()).isEmpty());
+
+		String familia = tabla.values().iterator().next().getFamilia();
+		verify(repository).eliminarFamilia(familia);
+	}
+
+	@Test
+	void tokenDesconocidoOVencidoNoRenueva() {
+		assertTrue(service.renovar("no-existe").isEmpty());
+		assertTrue(service.renovar(null).isEmpty());
+
+		ReflectionTestUtils.setField(service, "duracionRefreshMs", -1L);
+		RefreshTokenService.ParTokens vencido = service.emitir("ana", "ROLE_ADMIN");
+		assertTrue(service.renovar(vencido.refreshToken()).isEmpty());
+	}
+
+	@Test
+	void rotarNoExtiendeElVencimientoDeLaFamilia() {
+		RefreshTokenService.ParTokens par = service.emitir("ana", "ROLE_ADMIN");
+		long vencimiento = tabla.values().iterator().next().getExpiraEn();
+
+		ReflectionTestUtils.setField(service, "duracionRefreshMs", 3_600_000L);
+		for (int i = 0; i < 3; i++) {
+			par = service.renovar(par.refreshToken()).orElseThrow();
+		}
+
+		assertEquals(4, tabla.size());
+		assertTrue(tabla.values().stream().allMatch(r -> r.getExpiraEn() == vencimiento));
+	}
+
+	@Test
+	void renovarUsaElRolActualYFallaSiElUsuarioNoExiste() {
+		RefreshTokenService.ParTokens par = service.emitir("ana", "ROLE_ADMIN");
+
+		roles.put("ana", "ROLE_USER");
+		par = service.renovar(par.refreshToken()).orElseThrow();
+		assertEquals("ROLE_USER", jwtUtils.obtenerClaims(par.accessToken()).get(JwtUtils.CLAIM_ROL));
+
+		roles.remove("ana");
+		assertTrue(service.renovar(par.refreshToken()).isEmpty());
+	}
+}
@@ -0,0 +1,82 @@
+package com.example.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.example.backend.dto.PedidoDTO;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Verifica cuántas sentencias SQL ejecuta cada llamada de servicio.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ServiceSqlStatementsTest {
+
+	@Autowired
+	private PedidoService pedidoService;
+
+	@Autowired
+	private ProductoService productoService;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics stats;
+
+	@BeforeEach
+	void setUp() {
+		stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+	}
+
+	@Test
+	void consultasEjecutanUnaSentencia() {
+		Long id = pedidoService.crear(nuevoPedido()).getId();
+
+		assertEquals(1, contarSentencias(() -> pedidoService.obtenerTodos()));
+		assertEquals(1, contarSentencias(() -> pedidoService.obtenerPorId(id)));
+		assertEquals(1, contarSentencias(() -> pedidoService.obtenerTodos(false)));
+		// Catálogo: sale de la foto en memoria, sin ir a la BD
+		assertEquals(0, contarSentencias(() -> productoService.obtenerTodos()));
+		// Lote de cambios: rango por seq + un SELECT de los pedidos CREADO del lote
+		assertEquals(2, contarSentencias(() -> pedidoService.obtenerCambios(0, 100)));
+	}
+
+	@Test
+	void crearUsaIdsPreasignados() {
+		pedidoService.crear(nuevoPedido());
+
+		// Dentro del bloque de la secuencia: INSERT del pedido + INSERT en pedidos_cambios
+		assertEquals(2, contarSentencias(() -> pedidoService.crear(nuevoPedido())));
+	}
+
+	@Test
+	void cambiarEstadoEjecutaCuatroSentencias() {
+		Long id = pedidoService.crear(nuevoPedido()).getId();
+
+		// EXISTS + UPDATE + SELECT del pedido actualizado + INSERT en pedidos_cambios
+		assertEquals(4, contarSentencias(() -> pedidoService.cambiarEstado(id, "ATENDIDO")));
+	}
+
+	private long contarSentencias(Runnable llamada) {
+		stats.clear();
+		llamada.run();
+		return stats.getPrepareStatementCount();
+	}
+
+	private PedidoDTO nuevoPedido() {
+		PedidoDTO dto = new PedidoDTO();
+		dto.setNombreCliente("Cliente");
+		dto.setTelefono("3001234567");
+		dto.setDireccion("Calle 1");
+		dto.setItemsJson("[{\"producto\":\"Perro\",\"precio\":9000,\"cantidad\":1}]");
+		dto.setTotal(9000);
+		return dto;
+	}
+}
@@ -0,0 +1,92 @@
+package com.example.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.backend.model.TokenRevocado;
+import com.example.backend.repository.RevocacionUsuarioRepository;
+import com.example.backend.repository.TokenRevocadoRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Lista de revocación en memoria: por jti, por usuario, recarga y poda.
+ */
+class TokenRevocationServiceTest {
+
+	private TokenRevocadoRepository tokenRepository;
+	private RevocacionUsuarioRepository revocacionUsuarioRepository;
+	private TokenRevocationService service;
+
+	@BeforeEach
+	void setUp() {
+		tokenRepository = mock(TokenRevocadoRepository.class);
+		revocacionUsuarioRepository = mock(RevocacionUsuarioRepository.class);
+		long ahora = System.currentTimeMillis();
+		when(tokenRepository.findAll()).thenReturn(List.of(
+				new TokenRevocado("persistido", "ana", ahora + 60_000),
+				new TokenRevocado("vencido", "ana", ahora - 1)));
+		service = new TokenRevocationService(tokenRepository, revocacionUsuarioRepository,
+				new BusInvalidacionLocal(), new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(service, "duracionTokenMs", 3_600_000L);
+		ReflectionTestUtils.setField(service, "capacidadEsperada", 100);
+		ReflectionTestUtils.setField(service, "falsosPositivos", 0.01);
+		ReflectionTestUtils.setField(service, "intervaloPodaMinutos", 60L);
+		service.iniciar();
+	}
+
+	@AfterEach
+	void tearDown() {
+		service.detener();
+	}
+
+	@Test
+	void revocaPorJtiYRecargaLoPersistido() {
+		Date emitido = new Date();
+		assertTrue(service.estaRevocado("persistido", "ana", emitido));
+		assertFalse(service.estaRevocado("vencido", "ana", emitido));
+		assertFalse(service.estaRevocado("otro", "ana", emitido));
+
+		// Supera la capacidad del filtro: se reconstruye sin perder entradas
+		for (int i = 0; i < 300; i++) {
+			service.revocar("jti-" + i, "ana", System.currentTimeMillis() + 60_000);
+		}
+		for (int i = 0; i < 300; i++) {
+			assertTrue(service.estaRevocado("jti-" + i, "ana", emitido));
+		}
+		assertFalse(service.estaRevocado("jti-300", "ana", emitido));
+	}
+
+	@Test
+	void revocarTodosCortaLosTokensEmitidosAntes() {
+		Date antes = new Date(System.currentTimeMillis() - 5_000);
+		service.revocarTodos("luis");
+
+		assertTrue(service.estaRevocado("a", "luis", antes));
+		assertFalse(service.estaRevocado("b", "luis", new Date(System.currentTimeMillis() + 2_000)));
+		assertFalse(service.estaRevocado("c", "ana", antes));
+	}
+
+	@Test
+	void podarQuitaLosVencidos() {
+		service.revocar("corto", "ana", System.currentTimeMillis() - 1);
+		assertTrue(service.estaRevocado("corto", "ana", new Date()));
+
+		service.podar();
+
+		assertFalse(service.estaRevocado("corto", "ana", new Date()));
+		verify(tokenRepository).eliminarVencidas(anyLong());
+	}
+}